@@ -0,0 +1,143 @@
+package br.com.felipemira.jpmserializer.benchmark;
+
+/***
+ Gera os documentos JSON sinteticos usados nos benchmarks, com tamanho configuravel
+ Formatos: flat, nested, wideArray, rootArray e carros (o exemplo com muitos null dos testes)
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class BenchmarkDocuments {
+
+    /* Profundidade maxima do formato nested: acima dela o size so aumenta a largura de cada nivel,
+       mantendo o formato comparavel entre tamanhos; documentos profundos ficam com os testes de limites */
+    private static final int MAX_DEPTH = 64;
+
+    private BenchmarkDocuments() {
+    }
+
+    /***
+     * Gera um documento do formato informado
+     * @param shape Formato do documento
+     * @param size Quantidade aproximada de folhas
+     * @return JSON
+     */
+    public static String generate(String shape, int size) {
+        switch (shape) {
+            case "flat":
+                return flat(size);
+            case "nested":
+                return nested(size);
+            case "wideArray":
+                return wideArray(size);
+            case "rootArray":
+                return rootArray(size);
+            case "carros":
+                return carros(size);
+            default:
+                throw new IllegalArgumentException("Unknown document shape: " + shape);
+        }
+    }
+
+    /***
+     * Objeto com uma propriedade por folha, alternando String, numero e boolean
+     */
+    public static String flat(int size) {
+        StringBuilder json = new StringBuilder(size * 24).append('{');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"campo").append(i).append("\":");
+            appendScalar(json, i);
+        }
+        return json.append('}').toString();
+    }
+
+    /***
+     * Objetos aninhados ate MAX_DEPTH niveis, com as folhas divididas entre os niveis; a profundidade e fixa para
+     * que o formato meca a largura dos niveis e nao a quantidade de niveis
+     */
+    public static String nested(int size) {
+        int depth = Math.max(1, Math.min(size, MAX_DEPTH));
+        int fields = Math.max(1, size / depth);
+        StringBuilder json = new StringBuilder(size * 24);
+        for (int level = 0; level < depth; level++) {
+            json.append('{');
+            for (int i = 0; i < fields; i++) {
+                json.append("\"campo").append(i).append("\":");
+                appendScalar(json, level * fields + i);
+                json.append(',');
+            }
+            json.append("\"filho\":");
+        }
+        json.append("null");
+        for (int level = 0; level < depth; level++) {
+            json.append('}');
+        }
+        return json.toString();
+    }
+
+    /***
+     * Objeto com um unico array de numeros
+     */
+    public static String wideArray(int size) {
+        StringBuilder json = new StringBuilder(size * 8).append("{\"valores\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(i);
+        }
+        return json.append("]}").toString();
+    }
+
+    /***
+     * Array na raiz com objetos pequenos, como nos testes de pessoas
+     */
+    public static String rootArray(int size) {
+        int items = Math.max(1, size / 3);
+        StringBuilder json = new StringBuilder(items * 48).append('[');
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"Pessoa ").append(i).append("\",\"age\":").append(20 + i % 50)
+                    .append(",\"city\":\"Cidade ").append(i % 100).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    /***
+     * Lista de carros com varias propriedades null, como no exemplo dos testes
+     */
+    public static String carros(int size) {
+        int items = Math.max(1, size / 9);
+        StringBuilder json = new StringBuilder(items * 220).append("{\"carros\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"cor\":\"vermelho\",\"quantidadeDePortas\":").append(2 + i % 3)
+                    .append(",\"modelo\":null,\"ano\":").append(2000 + i % 25)
+                    .append(",\"quilometragem\":").append(i * 1000)
+                    .append(",\"consumoMedio\":").append(10 + i % 7).append(".5")
+                    .append(",\"potenciaMotor\":null,\"possuiArCondicionado\":").append(i % 2 == 0)
+                    .append(",\"proprietarioAnterior\":null}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendScalar(StringBuilder json, int i) {
+        switch (i % 3) {
+            case 0:
+                json.append("\"valor ").append(i).append('"');
+                break;
+            case 1:
+                json.append(i * 1.5);
+                break;
+            default:
+                json.append(i % 2 == 0);
+        }
+    }
+}
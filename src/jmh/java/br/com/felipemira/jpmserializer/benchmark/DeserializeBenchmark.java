@@ -0,0 +1,143 @@
+package br.com.felipemira.jpmserializer.benchmark;
+
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.map.SortedJsonPathMap;
+import br.com.felipemira.jpmserializer.merge.MergeOptions;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import br.com.felipemira.jpmserializer.writer.Utf8Buffer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/***
+ Benchmark de Deserialize.deserializeMapToJson, comparando a montagem da String com a escrita em streaming
+ e a escrita direta em bytes UTF-8 ou em uma arvore do Gson
+ Os benchmarks de merge combinam o Map dividido em 4 partes, com putAll seguido de deserializeMapToJson ou em uma passada
+ Os benchmarks de subarvore reconstroem o pai da chave do meio do Map, filtrando o JsonPathMap ou pela faixa do SortedJsonPathMap
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializeBenchmark {
+
+    @Param({"flat", "nested", "wideArray", "rootArray", "carros"})
+    private String shape;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private Deserialize deserialize;
+    private Map<CharSequence, Object> map;
+    private Map<CharSequence, Object> sortedMap;
+    private JsonPathKey subtree;
+    private List<Map<CharSequence, Object>> parts;
+    private StringBuilder out;
+    private Utf8Buffer bytes;
+
+    @Setup
+    public void setup() {
+        deserialize = new Deserialize();
+        map = new Serialize().serializeJsonToMapJPath(BenchmarkDocuments.generate(shape, size));
+        out = new StringBuilder();
+        bytes = new Utf8Buffer();
+        sortedMap = new SortedJsonPathMap(map);
+        JsonPathKey middle = JsonPathParser.parse(new ArrayList<>(map.keySet()).get(map.size() / 2));
+        subtree = middle.depth() > 1 ? middle.parent() : middle;
+        parts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            parts.add(new JsonPathMap());
+        }
+        int i = 0;
+        for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
+            parts.get(i++ * 4 / map.size()).put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public String deserializeMapToJson() {
+        return deserialize.deserializeMapToJson(map);
+    }
+
+    @Benchmark
+    public int deserializeMapToJsonStreaming() {
+        out.setLength(0);
+        deserialize.deserializeMapToJson(map, out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int deserializeMapToJsonStreamingBytes() {
+        out.setLength(0);
+        deserialize.deserializeMapToJson(map, out);
+        return out.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public int deserializeMapToJsonUtf8() {
+        bytes.reset();
+        deserialize.deserializeMapToJson(map, bytes);
+        return bytes.size();
+    }
+
+    @Benchmark
+    public JsonElement deserializeMapToJsonAndParse() {
+        out.setLength(0);
+        deserialize.deserializeMapToJson(map, out);
+        return JsonParser.parseString(out.toString());
+    }
+
+    @Benchmark
+    public JsonElement deserializeMapToJsonElement() {
+        return deserialize.deserializeMapToJsonElement(map);
+    }
+
+    @Benchmark
+    public String deserializeSubtreeToJson() {
+        return deserialize.deserializeSubtreeToJson(map, subtree);
+    }
+
+    @Benchmark
+    public String deserializeSubtreeToJsonSorted() {
+        return deserialize.deserializeSubtreeToJson(sortedMap, subtree);
+    }
+
+    @Benchmark
+    public String mergeWithPutAll() {
+        Map<CharSequence, Object> combined = new HashMap<>();
+        for (Map<CharSequence, Object> part : parts) {
+            combined.putAll(part);
+        }
+        return deserialize.deserializeMapToJson(combined);
+    }
+
+    @Benchmark
+    public String mergeMapsToJson() {
+        return deserialize.mergeMapsToJson(parts, MergeOptions.defaults());
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.felipemira.jpmserializer.benchmark;
+
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/***
+ Benchmark de uma mensagem de roteamento: poucos campos lidos de um documento com milhares de folhas,
+ comparando o Map completo com a projecao dos campos usados
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"flat", "nested", "carros"})
+    private String shape;
+
+    @Param({"2000"})
+    private int size;
+
+    private Serialize full;
+    private Serialize projected;
+    private String json;
+
+    @Setup
+    public void setup() {
+        full = new Serialize();
+        projected = Serialize.builder()
+                .projection(PathProjection.of("$.header.id", "$.header.origem", "$.header.destino",
+                        "$.header.prioridade", "$.header.tipo"))
+                .build();
+        json = "{\"header\":{\"id\":\"m-1\",\"origem\":\"a\",\"destino\":\"b\",\"prioridade\":3,\"tipo\":\"pedido\"},"
+                + "\"payload\":" + BenchmarkDocuments.generate(shape, size) + "}";
+    }
+
+    @Benchmark
+    public Map<CharSequence, Object> fullMap() {
+        return full.serializeJsonToMapJPath(json);
+    }
+
+    @Benchmark
+    public Map<CharSequence, Object> projectedMap() {
+        return projected.serializeJsonToMapJPath(json);
+    }
+}
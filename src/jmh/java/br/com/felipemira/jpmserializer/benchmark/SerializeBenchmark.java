@@ -0,0 +1,52 @@
+package br.com.felipemira.jpmserializer.benchmark;
+
+import br.com.felipemira.jpmserializer.Serialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/***
+ Benchmark de Serialize.serializeJsonToMapJPath para cada formato e tamanho de documento
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializeBenchmark {
+
+    @Param({"flat", "nested", "wideArray", "rootArray", "carros"})
+    private String shape;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private Serialize serialize;
+    private String json;
+
+    @Setup
+    public void setup() {
+        serialize = new Serialize();
+        json = BenchmarkDocuments.generate(shape, size);
+    }
+
+    @Benchmark
+    public Map<CharSequence, Object> serializeJsonToMapJPath() {
+        return serialize.serializeJsonToMapJPath(json);
+    }
+}
@@ -1,37 +1,491 @@
 package br.com.felipemira.jpmserializer;
 
+import br.com.felipemira.jpmserializer.avro.AvroUnflattener;
+import br.com.felipemira.jpmserializer.batch.BatchOptions;
+import br.com.felipemira.jpmserializer.batch.BatchProcessor;
+import br.com.felipemira.jpmserializer.batch.BatchResult;
+import br.com.felipemira.jpmserializer.cache.ResultCache;
+import br.com.felipemira.jpmserializer.codec.PathMapCodec;
+import br.com.felipemira.jpmserializer.diff.PathDiff;
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.map.SortedJsonPathMap;
+import br.com.felipemira.jpmserializer.merge.MergeOptions;
+import br.com.felipemira.jpmserializer.merge.PathMerger;
+import br.com.felipemira.jpmserializer.metrics.CallMetrics;
+import br.com.felipemira.jpmserializer.metrics.MetricsListener;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import br.com.felipemira.jpmserializer.writer.CanonicalJsonSink;
+import br.com.felipemira.jpmserializer.writer.GsonJsonSink;
+import br.com.felipemira.jpmserializer.writer.JsonStructureSink;
+import br.com.felipemira.jpmserializer.writer.JsonTreeSink;
+import br.com.felipemira.jpmserializer.writer.JsonUnflattener;
+import br.com.felipemira.jpmserializer.writer.Utf8Buffer;
+import br.com.felipemira.jpmserializer.writer.Utf8JsonSink;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.jayway.jsonpath.PathNotFoundException;
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
-import lombok.NoArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.util.Utf8;
 
 /***
  Classe para converter o Map em um json
+ As instancias sao imutaveis e podem ser compartilhadas entre threads, o Gson e criado uma unica vez;
+ use Deserialize.builder() para configurar as opcoes
  author: Felipe Mira
  version: 1.0
  date: 2024-03-17
- update: 2024-03-21
+ update: 2026-10-18
  */
 @Slf4j
-@NoArgsConstructor
+@Getter
 public class Deserialize {
 
+    /* Escreve o JSON sem indentacao, em vez do formato pretty padrao */
+    private final boolean compact;
+
+    /* Omite as propriedades com valor null */
+    private final boolean skipNulls;
+
+    /* Escreve JSON canonico: compacto, chaves ordenadas e numeros normalizados (ver CanonicalJsonSink),
+       entao o mesmo conteudo gera sempre os mesmos bytes, independente do tipo e da ordem do Map.
+       Vale para as saidas em texto e bytes e para o NDJSON; tem precedencia sobre compact */
+    private final boolean canonical;
+
+    @Getter(AccessLevel.NONE)
+    private final Gson gson;
+
+    /* Gson sem indentacao usado no NDJSON, onde cada registro ocupa uma linha */
+    @Getter(AccessLevel.NONE)
+    private final Gson lineGson;
+
+    /* Cache dos JSONs de Maps ja convertidos por esta instancia, usado por deserializeMapToJson(Map); null desliga */
+    private final ResultCache cache;
+
+    /* Recebe as metricas de cada deserializeMapToJson(Map); null desliga a instrumentacao sem nenhum custo */
+    private final MetricsListener metricsListener;
+
+    /* Limites de folhas, profundidade, tamanho de chave e indice de array conferidos ao montar o JSON; null nao limita */
+    private final JsonLimits limits;
+
+    /***
+     * Cria o Deserialize com as opcoes padrao: JSON pretty e nulls incluidos
+     */
+    public Deserialize() {
+        this(false, false, false, null, null, null);
+    }
+
+    @Builder(toBuilder = true)
+    private Deserialize(boolean compact, boolean skipNulls, boolean canonical, ResultCache cache, MetricsListener metricsListener,
+                        JsonLimits limits) {
+        this.compact = compact;
+        this.skipNulls = skipNulls;
+        this.canonical = canonical;
+        this.cache = cache;
+        this.metricsListener = metricsListener;
+        this.limits = limits;
+        this.lineGson = createGson(false, skipNulls);
+        this.gson = compact || canonical ? this.lineGson : createGson(true, skipNulls);
+    }
+
+    private static Gson createGson(boolean pretty, boolean skipNulls) {
+        GsonBuilder builder = new GsonBuilder();
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        if (!skipNulls) {
+            builder.serializeNulls();
+        }
+        return builder.create();
+    }
+
     /***
      * Converte uma lista de Maps contendo JSONPaths na Chave em Json
+     * Sem canonical as chaves de cada objeto saem na ordem do HashMap usado na montagem; as sobrecargas com
+     * destino (Appendable, OutputStream, ByteBuffer e Utf8Buffer) ordenam pelo caminho, entao o texto pode diferir
+     * do delas com o mesmo JSON
      * @param map Lista de Maps
      * @return Objeto JSON
      */
     public String deserializeMapToJson(Map<CharSequence, Object> map) {
+        if (this.metricsListener != null) {
+            return this.instrumentedMapToJson(map);
+        }
+        return this.cachedMapToJson(map);
+    }
+
+    private String instrumentedMapToJson(Map<CharSequence, Object> map) {
+        CallMetrics.Probe probe = CallMetrics.start(CallMetrics.Operation.DESERIALIZE);
+        String json = null;
+        RuntimeException error = null;
+        try {
+            json = this.cachedMapToJson(map);
+            return json;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            Serialize.publish(this.metricsListener, probe.finish(map, json, error));
+        }
+    }
+
+    private String cachedMapToJson(Map<CharSequence, Object> map) {
+        if (this.cache != null && map != null) {
+            return this.cache.deserialize(this, map, this::mapToJson);
+        }
+        return this.mapToJson(map);
+    }
+
+    private String mapToJson(Map<CharSequence, Object> map) {
+        if (this.canonical) {
+            // A montagem por HashMap escreve as chaves na ordem do hash; o JsonUnflattener ordena pelo caminho
+            StringBuilder out = new StringBuilder(map.size() * 32);
+            this.unflatten(map, this.textSink(new GsonJsonSink(this.gson, out)));
+            return out.toString();
+        }
         map = this.convertData(map);
         return this.getJsonObject(this.convertNestedStructureToArray(this.buildJsonStructure(map)));
     }
 
+    /***
+     * Converte um Map contendo JSONPaths na chave em JSON, escrevendo direto no destino
+     * As chaves sao ordenadas por caminho e o JSON e escrito em uma unica passada,
+     * sem copiar o Map nem montar a arvore de Maps intermediaria
+     * deserializeMapToJson(map) escreve as chaves na ordem do HashMap: o JSON e o mesmo, mas o texto pode diferir
+     * @param map Lista de Maps
+     * @param out Destino do JSON (Writer, StringBuilder, ...)
+     */
+    public void deserializeMapToJson(Map<CharSequence, Object> map, Appendable out) {
+        this.unflatten(map, this.textSink(new GsonJsonSink(this.gson, out)));
+    }
+
+    /***
+     * Converte um Map contendo JSONPaths na chave em JSON, escrevendo os bytes UTF-8 direto no OutputStream
+     * Os bytes passam por um bloco de 8 KB reaproveitado pela thread, sem String nem Writer intermediarios
+     * As chaves saem ordenadas pelo caminho, como em deserializeMapToJson(map, Appendable), e nao na ordem do HashMap
+     * de deserializeMapToJson(map)
+     * O stream nao e fechado
+     * @param map Lista de Maps
+     * @param out Destino do JSON
+     */
+    public void deserializeMapToJson(Map<CharSequence, Object> map, OutputStream out) {
+        this.unflatten(map, this.textSink(Utf8JsonSink.of(this.gson, this.isPretty(), out)));
+    }
+
+    /***
+     * Converte um Map em JSON UTF-8 escrito a partir da position do ByteBuffer, que avanca ate o fim do JSON
+     * Os bytes sao identicos aos de deserializeMapToJson(map, Appendable) codificados em UTF-8, com as chaves
+     * ordenadas pelo caminho; deserializeMapToJson(map) pode escrever as mesmas chaves em outra ordem
+     * @param map Lista de Maps
+     * @param out Destino do JSON, heap ou direto
+     * @return Quantidade de bytes escritos
+     * @throws java.nio.BufferOverflowException quando o JSON nao cabe; a position volta para onde estava
+     */
+    public int deserializeMapToJson(Map<CharSequence, Object> map, ByteBuffer out) {
+        int start = out.position();
+        try {
+            this.unflatten(map, this.textSink(Utf8JsonSink.of(this.gson, this.isPretty(), out)));
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            throw e;
+        }
+        return out.position() - start;
+    }
+
+    /***
+     * Converte um Map em JSON UTF-8 acrescentado ao fim do buffer
+     * Reaproveitando o mesmo Utf8Buffer (com reset entre os documentos), a escrita nao aloca memoria por documento
+     * As chaves saem ordenadas pelo caminho, como em deserializeMapToJson(map, Appendable), e nao na ordem do HashMap
+     * de deserializeMapToJson(map)
+     * @param map Lista de Maps
+     * @param out Destino do JSON
+     * @return O mesmo buffer
+     */
+    public Utf8Buffer deserializeMapToJson(Map<CharSequence, Object> map, Utf8Buffer out) {
+        this.unflatten(map, this.textSink(Utf8JsonSink.of(this.gson, this.isPretty(), out)));
+        return out;
+    }
+
+    /***
+     * Escreve o Map no sink pelo JsonUnflattener, conferindo os limites de cada chave
+     * @param map Lista de Maps
+     * @param sink Destino dos eventos
+     */
+    private void unflatten(Map<CharSequence, Object> map, JsonStructureSink sink) {
+        JsonUnflattener.write(map, sink, this.effectiveLimits());
+    }
+
+    private JsonLimits effectiveLimits() {
+        return this.limits == null ? JsonLimits.unlimited() : this.limits;
+    }
+
+    private boolean isPretty() {
+        return !this.compact && !this.canonical;
+    }
+
+    /***
+     * Aplica a normalizacao canonica aos eventos quando a opcao esta ligada
+     * @param sink Sink de texto ou bytes
+     * @return O proprio sink, ou o sink canonico que repassa para ele
+     */
+    private JsonStructureSink textSink(JsonStructureSink sink) {
+        return this.canonical ? new CanonicalJsonSink(sink) : sink;
+    }
+
+    /***
+     * Converte um Map contendo JSONPaths na chave direto em uma arvore do Gson, sem gerar e reler o texto
+     * O resultado e igual ao JsonParser.parseString da saida de deserializeMapToJson(map, Appendable)
+     * @param map Lista de Maps
+     * @return JsonObject ou JsonArray raiz
+     */
+    public JsonElement deserializeMapToJsonElement(Map<CharSequence, Object> map) {
+        JsonTreeSink<JsonElement> sink = JsonTreeSink.gson(this.gson, this.skipNulls);
+        this.unflatten(map, sink);
+        return sink.result();
+    }
+
+    /***
+     * Converte um Map contendo JSONPaths na chave direto em JSONObject ou JSONArray do json-smart
+     * @param map Lista de Maps
+     * @return JSONObject ou JSONArray raiz
+     */
+    public Object deserializeMapToJsonSmart(Map<CharSequence, Object> map) {
+        JsonTreeSink<Object> sink = JsonTreeSink.jsonSmart(this.skipNulls);
+        this.unflatten(map, sink);
+        return sink.result();
+    }
+
+    /***
+     * Converte um Map contendo JSONPaths na chave em Maps e Lists aninhados (LinkedHashMap e ArrayList)
+     * @param map Lista de Maps
+     * @return Map ou List raiz
+     */
+    public Object deserializeMapToTree(Map<CharSequence, Object> map) {
+        JsonTreeSink<Object> sink = JsonTreeSink.plain(this.skipNulls);
+        this.unflatten(map, sink);
+        return sink.result();
+    }
+
+    /***
+     * Converte so a subarvore de um caminho em JSON, sem remontar o documento inteiro
+     * O caminho informado vira a raiz do JSON: para $['loja']['disco'][0]['detalhes'] o resultado e o objeto detalhes
+     * @param map Lista de Maps; com um SortedJsonPathMap a subarvore e encontrada em O(log n + k)
+     * @param path JSONPath da subarvore
+     * @return JSON da subarvore
+     */
+    public String deserializeSubtreeToJson(Map<CharSequence, Object> map, CharSequence path) {
+        return this.deserializeSubtreeToJson(map, path, false);
+    }
+
+    /***
+     * Converte so a subarvore de um caminho em JSON, com as chaves ordenadas pelo caminho
+     * Com um SortedJsonPathMap so as entradas da subarvore sao lidas (O(log n + k));
+     * nos demais Maps as chaves sao filtradas em uma passada, ainda sem montar o documento inteiro.
+     * Para varias consultas no mesmo Map, copie-o uma vez para um SortedJsonPathMap
+     * @param map Lista de Maps
+     * @param path JSONPath da subarvore
+     * @param keepPrefix Mantem os objetos e arrays acima da subarvore; indices anteriores nesses arrays ficam null
+     * @return JSON da subarvore
+     * @throws PathNotFoundException quando nenhuma chave fica dentro do caminho
+     */
+    public String deserializeSubtreeToJson(Map<CharSequence, Object> map, CharSequence path, boolean keepPrefix) {
+        JsonPathKey prefix = JsonPathParser.parse(path);
+        Map<CharSequence, Object> subtree = subtreeOf(map, prefix, keepPrefix);
+        if (subtree.isEmpty()) {
+            throw new PathNotFoundException("No results for path: " + prefix);
+        }
+        StringBuilder out = new StringBuilder(subtree.size() * 32);
+        this.unflatten(subtree, this.textSink(new GsonJsonSink(this.gson, out)));
+        return out.toString();
+    }
+
+    /***
+     * Combina varios Maps achatados, como atualizacoes parciais de um mesmo documento, e escreve o JSON resultante
+     * Todas as entradas sao ordenadas uma unica vez e o JSON sai em uma unica passada,
+     * sem o putAll em um Map combinado nem a arvore de Maps intermediaria
+     * @param maps Maps, na ordem em que as atualizacoes devem ser aplicadas
+     * @param options Politica de conflito (LAST_WINS, FIRST_WINS, ERROR) e semantica dos arrays (BY_INDEX, REPLACE)
+     * @return JSON combinado, com as chaves ordenadas pelo caminho
+     */
+    public String mergeMapsToJson(List<? extends Map<CharSequence, Object>> maps, MergeOptions options) {
+        StringBuilder out = new StringBuilder();
+        this.mergeMapsToJson(maps, options, out);
+        return out.toString();
+    }
+
+    /***
+     * Combina varios Maps achatados escrevendo o JSON resultante direto no destino
+     * @param maps Maps, na ordem em que as atualizacoes devem ser aplicadas
+     * @param options Politica de conflito e semantica dos arrays
+     * @param out Destino do JSON (Writer, StringBuilder, ...)
+     */
+    public void mergeMapsToJson(List<? extends Map<CharSequence, Object>> maps, MergeOptions options, Appendable out) {
+        PathMerger.write(maps, options, this.textSink(new GsonJsonSink(this.gson, out)), this.effectiveLimits());
+    }
+
+    private static Map<CharSequence, Object> subtreeOf(Map<CharSequence, Object> map, JsonPathKey prefix, boolean keepPrefix) {
+        Map<CharSequence, Object> entries = map;
+        boolean sorted = map instanceof SortedJsonPathMap;
+        if (sorted) {
+            entries = ((SortedJsonPathMap) map).subtree(prefix);
+            if (keepPrefix) {
+                return entries;
+            }
+        }
+        Map<CharSequence, Object> subtree = new JsonPathMap(sorted ? entries.size() : 16);
+        for (Map.Entry<CharSequence, Object> entry : entries.entrySet()) {
+            JsonPathKey key = JsonPathParser.parse(entry.getKey());
+            if (sorted || key.isWithin(prefix)) {
+                subtree.put(keepPrefix ? key : key.relativeTo(prefix), entry.getValue());
+            }
+        }
+        return subtree;
+    }
+
+    /***
+     * Converte um Map codificado pelo PathMapCodec direto em JSON, lendo as entradas do buffer sem copia-lo
+     * @param buffer Bytes do Map codificado
+     * @return Objeto JSON
+     */
+    public String deserializeBinaryToJson(ByteBuffer buffer) {
+        return this.deserializeMapToJson(PathMapCodec.decode(buffer));
+    }
+
+    /***
+     * Aplica um diff em um JSON ja gerado, alterando so as subarvores dos caminhos do diff,
+     * sem achatar o documento nem remontar o JSON a partir do Map inteiro
+     * Para evitar tambem a leitura do texto, guarde a arvore e use PathDiff.applyTo(JsonElement)
+     * @param json JSON gerado anteriormente
+     * @param diff Diferenca entre os Maps achatados
+     * @return JSON atualizado, com a formatacao deste Deserialize
+     */
+    public String patchJson(String json, PathDiff diff) {
+        if (json == null || json.trim().isEmpty()) {
+            throw new IllegalArgumentException("JSON to patch is empty");
+        }
+        return this.gson.toJson(diff.applyTo(JsonParser.parseString(json)));
+    }
+
+    /***
+     * Monta um GenericRecord do Avro a partir de um Map de JSONPaths, sem passar por uma String JSON
+     * Os valores sao convertidos para os tipos do schema; Utf8 e String sao mantidos como estao
+     * @param map Lista de Maps
+     * @param schema Schema do registro
+     * @return Registro Avro
+     */
+    public GenericRecord deserializeMapToRecord(Map<CharSequence, Object> map, Schema schema) {
+        return AvroUnflattener.build(map, schema);
+    }
+
+    /***
+     * Escreve os Maps como NDJSON, um JSON compacto por linha, conforme o Iterator e consumido
+     * So o registro atual fica em memoria; o Writer recebe um flush no final e nao e fechado
+     * @param maps Registros
+     * @param out Destino do NDJSON
+     * @return Quantidade de registros escritos
+     */
+    public long deserializeNdjson(Iterator<? extends Map<CharSequence, Object>> maps, Writer out) {
+        Writer records = new RecordWriter(out);
+        long count = 0;
+        try {
+            while (maps.hasNext()) {
+                this.unflatten(maps.next(), this.textSink(new GsonJsonSink(this.lineGson, records)));
+                out.write('\n');
+                count++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    /***
+     * Escreve os Maps como NDJSON em UTF-8 no OutputStream, que nao e fechado
+     * @param maps Registros
+     * @param out Destino do NDJSON
+     * @return Quantidade de registros escritos
+     */
+    public long deserializeNdjson(Iterator<? extends Map<CharSequence, Object>> maps, OutputStream out) {
+        return this.deserializeNdjson(maps, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    /***
+     * Escreve os Maps como NDJSON em UTF-8 no arquivo, substituindo o conteudo anterior
+     * @param maps Registros
+     * @param file Arquivo de destino
+     * @return Quantidade de registros escritos
+     */
+    public long deserializeNdjson(Iterator<? extends Map<CharSequence, Object>> maps, Path file) {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return this.deserializeNdjson(maps, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Converte varios Maps em JSON em lote, distribuindo blocos de documentos pelo executor das opcoes
+     * O erro de cada documento fica no BatchResult correspondente, sem interromper o lote
+     * @param maps Lista de Maps
+     * @param options Opcoes do lote (executor, ordem, tamanho dos blocos)
+     * @return Resultados, um por documento
+     */
+    public List<BatchResult<String>> deserializeAll(List<Map<CharSequence, Object>> maps, BatchOptions options) {
+        return BatchProcessor.list(maps, this::deserializeMapToJson, options);
+    }
+
+    /***
+     * Converte um Stream de Maps em JSON em lote, consumindo a entrada sob demanda
+     * @param maps Stream de Maps
+     * @param options Opcoes do lote
+     * @return Stream de resultados, um por documento
+     */
+    public Stream<BatchResult<String>> deserializeAll(Stream<Map<CharSequence, Object>> maps, BatchOptions options) {
+        return BatchProcessor.stream(maps.iterator(), this::deserializeMapToJson, options).onClose(maps::close);
+    }
+
+    /***
+     * Converte um Iterator de Maps em JSON em lote, consumindo a entrada sob demanda
+     * @param maps Iterator de Maps
+     * @param options Opcoes do lote
+     * @return Iterator de resultados, um por documento
+     */
+    public Iterator<BatchResult<String>> deserializeAll(Iterator<Map<CharSequence, Object>> maps, BatchOptions options) {
+        return BatchProcessor.process(maps, this::deserializeMapToJson, options);
+    }
+
     /***
      * Converte valores em uma lista de Maps que contenha utf8 para String em um JSON
      * @param data Lista de Maps
@@ -41,7 +495,7 @@ public class Deserialize {
         Map<CharSequence, Object> convertedData = new HashMap<>();
 
         for (Map.Entry<CharSequence, Object> entry : data.entrySet()) {
-            CharSequence key = entry.getKey().toString();
+            CharSequence key = entry.getKey();
             Object value = entry.getValue();
             if (value instanceof Utf8) {
                 value = value.toString();
@@ -53,102 +507,381 @@ public class Deserialize {
 
     /***
      * Transforma um objeto JSON em uma String
+     * Maps e Lists sao percorridos com uma pilha explicita e escritos pelo GsonJsonSink, com a mesma formatacao
+     * do gson.toJson, cujos adapters de Map e List seriam recursivos; as folhas continuam com os adapters do Gson
      * @param jsonObject Objeto JSON
      * @return String
      */
     private String getJsonObject(Object jsonObject) {
-        Gson gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .serializeNulls()
-                .create();
-        return gson.toJson(jsonObject);
+        StringBuilder out = new StringBuilder();
+        GsonJsonSink sink = new GsonJsonSink(this.gson, out);
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        Deque<Boolean> objects = new ArrayDeque<>();
+        Object value = jsonObject;
+        while (true) {
+            if (value instanceof Map) {
+                sink.beginObject();
+                stack.push(((Map<?, ?>) value).entrySet().iterator());
+                objects.push(Boolean.TRUE);
+            } else if (value instanceof List) {
+                sink.beginArray();
+                stack.push(((List<?>) value).iterator());
+                objects.push(Boolean.FALSE);
+            } else {
+                sink.value(value);
+            }
+
+            // Fecha os containers ja escritos ate encontrar o proximo valor
+            while (!stack.isEmpty() && !stack.peek().hasNext()) {
+                stack.pop();
+                if (objects.pop()) {
+                    sink.endObject();
+                } else {
+                    sink.endArray();
+                }
+            }
+            if (stack.isEmpty()) {
+                sink.flush();
+                return out.toString();
+            }
+            value = stack.peek().next();
+            if (objects.peek()) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) value;
+                sink.name(String.valueOf(entry.getKey()));
+                value = entry.getValue();
+            }
+        }
     }
 
     /***
      * Constroi a estrutura de um JSON a partir de uma lista de Maps
+     * Cada chave e lida uma unica vez pelo JsonPathParser; objetos viram Node e arrays viram ArrayNode,
+     * enderecados diretamente pelo indice
+     * Os limites sao conferidos em cada chave antes de criar os nos, entao um indice enorme nao aloca o array
      * @param map Lista de Maps
      * @return Objeto JSON
      */
-    private Map<CharSequence, Object> buildJsonStructure(Map<CharSequence, Object> map) {
-        Map<CharSequence, Object> jsonObject = new HashMap<>();
+    private Object buildJsonStructure(Map<CharSequence, Object> map) {
+        Object jsonObject = null;
+        JsonLimits limits = this.effectiveLimits();
+        limits.checkLeaves(map.size());
 
         for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
-            String[] parts = ((String)entry.getKey()).split("\\['|']\\['|']");
-            Map<CharSequence, Object> currentMap = jsonObject;
-
-            for (int i = 1; i < parts.length; i++) {
-                String part = parts[i];
-
-                if (parts[0].matches("^\\$\\[\\d+]$")) {
-                    currentMap = jsonObject;
-                    var number = parts[0].substring(2, parts[0].length() - 1); // Remove o "$[" inicial e o "]" final
-                    String key = "["+ number +"]";
-                    Map<CharSequence, Object> list;
-                    if (currentMap.containsKey(key)) {
-                        // A chave ja existe, entao apenas adicione o valor
-                        //noinspection unchecked
-                        list = (Map<CharSequence, Object>) currentMap.get(key);
-                    } else {
-                        // A chave nao existe, entao crie uma nova entrada
-                        //noinspection unchecked
-                        list = (Map<CharSequence, Object>) currentMap.computeIfAbsent(key, k -> new HashMap<>());
-                    }
-                    if (i == parts.length - 1) {
-                        list.put(part, entry.getValue());
-                    } else {
-                        //noinspection unchecked
-                        currentMap = (Map<CharSequence, Object>) list.computeIfAbsent(part, k -> new HashMap<>());
-                    }
-                } else {
-                    if (i == parts.length - 1) {
-                        currentMap.put(part, entry.getValue());
-                    } else {
-                        //noinspection unchecked
-                        currentMap = (Map<CharSequence, Object>) currentMap.computeIfAbsent(part, k -> new HashMap<>());
-                    }
+            JsonPathKey path = JsonPathParser.parse(entry.getKey());
+            limits.checkPath(path);
+            JsonPathKey[] segments = path.segments();
+            if (segments.length == 0) {
+                // A raiz sozinha nao tem onde ser colocada na estrutura
+                continue;
+            }
+            if (jsonObject == null) {
+                jsonObject = segments[0].isIndex() ? new ArrayNode() : new Node();
+            }
+            Object current = jsonObject;
+
+            for (int i = 0; i < segments.length - 1; i++) {
+                current = this.childNode(current, segments[i], segments[i + 1].isIndex(), entry.getKey());
+            }
+
+            JsonPathKey last = segments[segments.length - 1];
+            Object existing = getChild(current, last, entry.getKey());
+            if (existing instanceof Node || existing instanceof ArrayNode) {
+                // Um array ou objeto vazio nao apaga os filhos ja montados
+                if (!isEmptyContainer(entry.getValue())) {
+                    throw conflict(entry.getKey());
                 }
+            } else {
+                setChild(current, last, entry.getValue());
             }
         }
-        return jsonObject;
+        return jsonObject == null ? new Node() : jsonObject;
+    }
+
+    /***
+     * Retorna o no filho de um objeto ou array, criando-o quando ainda nao existe
+     * @param current No atual
+     * @param segment Segmento do filho
+     * @param array Indica se o filho deve ser um array
+     * @param path Chave completa, para a mensagem de erro
+     * @return No filho
+     */
+    private Object childNode(Object current, JsonPathKey segment, boolean array, CharSequence path) {
+        Object child = getChild(current, segment, path);
+        if (array ? child instanceof ArrayNode : child instanceof Node) {
+            return child;
+        }
+        if (child != null && !isEmptyContainer(child)) {
+            throw conflict(path);
+        }
+        Object node = array ? new ArrayNode() : new Node();
+        setChild(current, segment, node);
+        return node;
+    }
+
+    private static Object getChild(Object container, JsonPathKey segment, CharSequence path) {
+        if (container instanceof ArrayNode) {
+            if (!segment.isIndex()) {
+                throw mixed(path);
+            }
+            return ((ArrayNode) container).get(segment.index());
+        }
+        if (segment.isIndex()) {
+            throw mixed(path);
+        }
+        Node node = (Node) container;
+        Object child = node.get(segment.name());
+        return child == null && node.containsKey(segment.name()) ? ArrayNode.NULL : child;
+    }
+
+    private static void setChild(Object container, JsonPathKey segment, Object value) {
+        if (container instanceof ArrayNode) {
+            ((ArrayNode) container).set(segment.index(), value);
+        } else {
+            ((Node) container).put(segment.name(), value);
+        }
+    }
+
+    private static boolean isEmptyContainer(Object value) {
+        return (value instanceof Map && ((Map<?, ?>) value).isEmpty())
+                || (value instanceof Collection && ((Collection<?>) value).isEmpty());
+    }
+
+    private static IllegalArgumentException conflict(CharSequence path) {
+        return new IllegalArgumentException("JSONPath " + path + " conflicts with a value already mapped on the same path");
+    }
+
+    private static IllegalArgumentException mixed(CharSequence path) {
+        return new IllegalArgumentException("JSONPath " + path + " mixes array indices and property names on the same level");
     }
 
     /***
      *  Converte a estrutura aninhada em Array
+     *  Um ArrayNode vira uma lista na ordem dos indices, sem precisar ordenar
+     *  A arvore e percorrida com uma pilha explicita, entao a profundidade do documento nao consome a pilha da thread
      * @param obj Objeto JSON
      * @return Objeto JSON
      */
     private Object convertNestedStructureToArray(Object obj) {
-        if (obj instanceof Map) {
-            //noinspection unchecked
-            Map<CharSequence, Object> map = (Map<CharSequence, Object>) obj;
-            Map<CharSequence, Object> newMap = new HashMap<>();
-            List<Object> list = new ArrayList<>();
-            boolean isArray = false;
-
-            for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
-                CharSequence key = entry.getKey();
-                Object value = convertNestedStructureToArray(entry.getValue());
-
-                if (((String)key).matches("\\[\\d+]")) {
-                    isArray = true;
-                    list.add(value);
-                } else {
-                    newMap.put(key, value);
+        Deque<ConvertFrame> stack = new ArrayDeque<>();
+        Object value = obj;
+        while (true) {
+            ConvertFrame frame = ConvertFrame.open(value);
+            if (frame != null) {
+                stack.push(frame);
+            } else if (stack.isEmpty()) {
+                return value;
+            } else {
+                stack.peek().add(value);
+            }
+
+            // Fecha os containers ja percorridos ate encontrar o proximo filho a converter
+            while (true) {
+                ConvertFrame top = stack.peek();
+                if (top.hasNext()) {
+                    value = top.next();
+                    break;
                 }
+                stack.pop();
+                Object converted = top.result();
+                if (stack.isEmpty()) {
+                    return converted;
+                }
+                stack.peek().add(converted);
             }
+        }
+    }
 
-            if (isArray) {
-                return list;
-            } else {
-                return newMap;
+    /***
+     * Container em conversao: entrega os filhos originais e recebe os filhos ja convertidos, na mesma ordem
+     */
+    private abstract static class ConvertFrame {
+
+        static ConvertFrame open(Object value) {
+            if (value instanceof ArrayNode) {
+                return new ArrayNodeFrame((ArrayNode) value);
+            }
+            if (value instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<CharSequence, Object> map = (Map<CharSequence, Object>) value;
+                return new MapFrame(map);
             }
-        } else if (obj instanceof List) {
-            List<Object> newList = new ArrayList<>();
-            //noinspection unchecked
-            for (Object item : (List<Object>) obj) {
-                newList.add(convertNestedStructureToArray(item));
+            if (value instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<Object> list = (List<Object>) value;
+                return new ListFrame(list);
             }
+            return null;
+        }
+
+        abstract boolean hasNext();
+
+        abstract Object next();
+
+        abstract void add(Object converted);
+
+        abstract Object result();
+    }
+
+    private static final class ArrayNodeFrame extends ConvertFrame {
+
+        private final ArrayNode array;
+        private final List<Object> list;
+        private int index;
+
+        private ArrayNodeFrame(ArrayNode array) {
+            this.array = array;
+            this.list = new ArrayList<>(array.size());
+        }
+
+        @Override
+        boolean hasNext() {
+            return index < array.size();
+        }
+
+        @Override
+        Object next() {
+            return array.value(index++);
+        }
+
+        @Override
+        void add(Object converted) {
+            list.add(converted);
+        }
+
+        @Override
+        Object result() {
+            return list;
+        }
+    }
+
+    /***
+     * Objeto: continua objeto mesmo quando um nome parece um indice ({"[0]":1}), ja que os arrays chegam como ArrayNode
+     */
+    private static final class MapFrame extends ConvertFrame {
+
+        private final Iterator<Map.Entry<CharSequence, Object>> entries;
+        private final Map<CharSequence, Object> newMap = new HashMap<>();
+        private CharSequence key;
+
+        private MapFrame(Map<CharSequence, Object> map) {
+            this.entries = map.entrySet().iterator();
+        }
+
+        @Override
+        boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        Object next() {
+            Map.Entry<CharSequence, Object> entry = entries.next();
+            key = entry.getKey();
+            return entry.getValue();
+        }
+
+        @Override
+        void add(Object converted) {
+            newMap.put(key, converted);
+        }
+
+        @Override
+        Object result() {
+            return newMap;
+        }
+    }
+
+    private static final class ListFrame extends ConvertFrame {
+
+        private final Iterator<Object> items;
+        private final List<Object> newList = new ArrayList<>();
+
+        private ListFrame(List<Object> list) {
+            this.items = list.iterator();
+        }
+
+        @Override
+        boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        Object next() {
+            return items.next();
+        }
+
+        @Override
+        void add(Object converted) {
+            newList.add(converted);
+        }
+
+        @Override
+        Object result() {
             return newList;
-        } else return obj;
+        }
+    }
+
+    /***
+     * Repassa a escrita de cada registro ao Writer de destino sem o flush do final do registro,
+     * para o NDJSON nao descarregar o buffer a cada linha
+     */
+    private static final class RecordWriter extends FilterWriter {
+
+        private RecordWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /***
+     * No de objeto criado durante a montagem, para nao confundir com Maps que sao valores folha
+     */
+    private static final class Node extends HashMap<CharSequence, Object> {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /***
+     * No de array criado durante a montagem: um array que cresce e e enderecado pelo indice ja convertido,
+     * entao preencher o array e O(n) e a ordem original volta sem ordenacao
+     * Indices que nao aparecem no Map ficam null; indices a partir de JsonLimits.MAX_ARRAY_LENGTH sao rejeitados
+     */
+    private static final class ArrayNode {
+
+        /* Marca um null vindo do Map, para diferenciar de um indice ausente */
+        private static final Object NULL = new Object();
+
+        private Object[] items = new Object[8];
+        private int size;
+
+        Object get(int index) {
+            return index < size ? items[index] : null;
+        }
+
+        Object value(int index) {
+            Object item = items[index];
+            return item == NULL ? null : item;
+        }
+
+        void set(int index, Object value) {
+            JsonLimits.checkArrayIndex(index);
+            if (index >= items.length) {
+                items = Arrays.copyOf(items, Math.max(index + 1, items.length * 2));
+            }
+            items[index] = value == null ? NULL : value;
+            if (index >= size) {
+                size = index + 1;
+            }
+        }
+
+        int size() {
+            return size;
+        }
     }
 }
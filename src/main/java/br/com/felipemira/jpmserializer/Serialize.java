@@ -1,80 +1,535 @@
 package br.com.felipemira.jpmserializer;
 
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
-import lombok.NoArgsConstructor;
+import br.com.felipemira.jpmserializer.avro.AvroFlattener;
+import br.com.felipemira.jpmserializer.batch.BatchOptions;
+import br.com.felipemira.jpmserializer.batch.BatchProcessor;
+import br.com.felipemira.jpmserializer.batch.BatchResult;
+import br.com.felipemira.jpmserializer.cache.ResultCache;
+import br.com.felipemira.jpmserializer.codec.PathMapCodec;
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.map.ColumnarBatch;
+import br.com.felipemira.jpmserializer.map.CompactJsonPathMap;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.map.LazyJsonPathMap;
+import br.com.felipemira.jpmserializer.map.SortedJsonPathMap;
+import br.com.felipemira.jpmserializer.metrics.CallMetrics;
+import br.com.felipemira.jpmserializer.metrics.MetricsListener;
+import br.com.felipemira.jpmserializer.parser.FlattenHandler;
+import br.com.felipemira.jpmserializer.parser.JsonFlattener;
+import br.com.felipemira.jpmserializer.parser.JsonTokenizer;
+import br.com.felipemira.jpmserializer.parser.MappedUtf8Reader;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.PathNotFoundException;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONArray;
+import org.apache.avro.generic.IndexedRecord;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /***
  * Classe para converter JSON em um Map de caminhos e valores
+ * As instancias sao imutaveis e podem ser compartilhadas entre threads;
+ * use Serialize.builder() para configurar as opcoes
+ * Como o json-path, aceita nomes entre aspas simples ou sem aspas ({'a':1} e {a:1} viram $['a']); os valores
+ * seguem o JSON estrito e 'x', x, NaN ou [1,,2] lancam InvalidJsonException
  author: Felipe Mira
  version: 1.0
  date: 2024-03-17
- update: 2024-03-21
+ update: 2026-10-18
  */
 @Slf4j
-@NoArgsConstructor
+@Getter
 public class Serialize {
 
+    /* Nao inclui no Map as folhas com valor null */
+    private final boolean skipNulls;
+
+    /* Nao inclui no Map os arrays e objetos vazios */
+    private final boolean skipEmptyContainers;
+
+    /* Devolve um CompactJsonPathMap, com numeros e booleans em colunas primitivas em vez de objetos boxed */
+    private final boolean compactMap;
+
+    /* Devolve um LazyJsonPathMap: o documento e lido uma vez para uma arvore e as chaves so sao montadas ao percorrer o Map
+       Vale para JSON em String e arquivo; tem precedencia sobre compactMap */
+    private final boolean lazyMap;
+
+    /* Devolve um SortedJsonPathMap, navegavel e ordenado pelo caminho, com faixas por subarvore (subtree)
+       Sem esta opcao o Map segue a ordem do documento. Tem precedencia sobre lazyMap e compactMap */
+    private final boolean sortedMap;
+
+    /* Subarvores incluidas no Map; as demais sao puladas durante a leitura. Null seleciona o documento inteiro
+       Um documento sem nenhuma folha selecionada lanca PathNotFoundException, como um documento sem folhas */
+    private final PathProjection projection;
+
+    /* Cache dos Maps de JSONs ja convertidos por esta instancia, usado por serializeJsonToMapJPath(String); null desliga */
+    private final ResultCache cache;
+
+    /* Recebe as metricas de cada serializeJsonToMapJPath(String); null desliga a instrumentacao sem nenhum custo */
+    private final MetricsListener metricsListener;
+
+    /* Limites de profundidade, folhas, chaves, arrays e tamanho conferidos durante a leitura; null nao limita.
+       Valem para JSON em String, arquivo e NDJSON */
+    private final JsonLimits limits;
+
+    /***
+     * Cria o Serialize com as opcoes padrao
+     */
+    public Serialize() {
+        this(false, false, false, false, false, null, null, null, null);
+    }
+
+    @Builder(toBuilder = true)
+    private Serialize(boolean skipNulls, boolean skipEmptyContainers, boolean compactMap, boolean lazyMap, boolean sortedMap,
+                      PathProjection projection, ResultCache cache, MetricsListener metricsListener, JsonLimits limits) {
+        this.skipNulls = skipNulls;
+        this.skipEmptyContainers = skipEmptyContainers;
+        this.compactMap = compactMap;
+        this.lazyMap = lazyMap;
+        this.sortedMap = sortedMap;
+        this.projection = projection;
+        this.cache = cache;
+        this.metricsListener = metricsListener;
+        this.limits = limits;
+    }
+
     /***
      * Converte um JSON em uma lista de Maps
+     * As chaves sao JsonPathKey e as buscas por String funcionam no Map devolvido; ao copiar para um HashMap
+     * ou outro Map padrao, converta as chaves com toString() (ver JsonPathMap)
      * @param json JSON
      * @return Lista de Maps
      */
     public Map<CharSequence, Object> serializeJsonToMapJPath(String json) {
+        if (this.metricsListener != null) {
+            return this.instrumentedJsonToMap(json);
+        }
+        return this.cachedJsonToMap(json);
+    }
+
+    private Map<CharSequence, Object> instrumentedJsonToMap(String json) {
+        CallMetrics.Probe probe = CallMetrics.start(CallMetrics.Operation.SERIALIZE);
+        Map<CharSequence, Object> map = null;
+        RuntimeException error = null;
+        try {
+            map = this.cachedJsonToMap(json);
+            return map;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            publish(this.metricsListener, probe.finish(json, map, error));
+        }
+    }
+
+    /***
+     * Entrega as metricas ao listener sem deixar uma falha dele interromper a conversao
+     * @param listener Listener
+     * @param metrics Metricas da chamada
+     */
+    static void publish(MetricsListener listener, CallMetrics metrics) {
+        try {
+            listener.onCall(metrics);
+        } catch (RuntimeException e) {
+            log.warn("Metrics listener failed for " + metrics.getOperation(), e);
+        }
+    }
+
+    private Map<CharSequence, Object> cachedJsonToMap(String json) {
+        if (this.cache != null && json != null) {
+            return this.cache.serialize(this, json, this::jsonStringToMap);
+        }
         return this.jsonStringToMap(json);
     }
 
+    /***
+     * Converte um arquivo JSON em um Map, mapeando o arquivo em memoria em vez de carregar o documento em uma String
+     * Os bytes UTF-8 sao decodificados sob demanda e so nomes e valores String sao materializados no heap,
+     * entao arquivos de centenas de MB sao lidos com memoria proporcional ao Map gerado
+     * @param file Arquivo JSON em UTF-8
+     * @return Map de JSONPaths e valores
+     */
+    public Map<CharSequence, Object> serializeJsonToMapJPath(Path file) {
+        try (Reader reader = new MappedUtf8Reader(file)) {
+            return this.flattenToMap(new JsonTokenizer(reader, this.effectiveLimits()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Converte um JSON no Map de JSONPaths ja codificado pelo PathMapCodec, para enviar a outro servico
+     * @param json JSON
+     * @return Map codificado em bytes
+     */
+    public byte[] serializeJsonToBinary(String json) {
+        return PathMapCodec.encode(this.serializeJsonToMapJPath(json));
+    }
+
+    /***
+     * Converte um registro Avro (GenericRecord ou SpecificRecord) no mesmo Map de JSONPaths gerado para JSON,
+     * percorrendo o registro pelo schema sem passar por uma String JSON
+     * Valores Utf8 sao mantidos como Utf8
+     * @param record Registro Avro
+     * @return Map de JSONPaths e valores
+     */
+    public Map<CharSequence, Object> serializeRecordToMapJPath(IndexedRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Avro record for create list of jsonPath is null");
+        }
+        MapHandler handler = this.newHandler();
+        AvroFlattener.flatten(record, handler, this.effectiveProjection());
+
+        if (!handler.found) {
+            throw new PathNotFoundException("No results for path: $..[*]");
+        }
+        return handler.map;
+    }
+
+    /***
+     * Converte varios JSONs em lote, distribuindo blocos de documentos pelo executor das opcoes
+     * O erro de cada documento fica no BatchResult correspondente, sem interromper o lote
+     * @param jsons Lista de JSONs
+     * @param options Opcoes do lote (executor, ordem, tamanho dos blocos)
+     * @return Resultados, um por documento
+     */
+    public List<BatchResult<Map<CharSequence, Object>>> serializeAll(List<String> jsons, BatchOptions options) {
+        return BatchProcessor.list(jsons, this::serializeJsonToMapJPath, options);
+    }
+
+    /***
+     * Converte um Stream de JSONs em lote, consumindo a entrada sob demanda
+     * @param jsons Stream de JSONs
+     * @param options Opcoes do lote
+     * @return Stream de resultados, um por documento
+     */
+    public Stream<BatchResult<Map<CharSequence, Object>>> serializeAll(Stream<String> jsons, BatchOptions options) {
+        return BatchProcessor.stream(jsons.iterator(), this::serializeJsonToMapJPath, options).onClose(jsons::close);
+    }
+
+    /***
+     * Converte um Iterator de JSONs em lote, consumindo a entrada sob demanda
+     * @param jsons Iterator de JSONs
+     * @param options Opcoes do lote
+     * @return Iterator de resultados, um por documento
+     */
+    public Iterator<BatchResult<Map<CharSequence, Object>>> serializeAll(Iterator<String> jsons, BatchOptions options) {
+        return BatchProcessor.process(jsons, this::serializeJsonToMapJPath, options);
+    }
+
+    /***
+     * Converte varios JSONs em um ColumnarBatch: cada JSONPath e guardado uma vez no dicionario do lote
+     * e cada documento vira uma linha de valores, sem manter um Map por documento
+     * Todos os documentos passam pelo mesmo Map de trabalho, entao so o lote fica retido em memoria
+     * Um documento invalido interrompe o lote com a mesma excecao de serializeJsonToMapJPath
+     * @param jsons JSONs do lote
+     * @return Lote colunar, com uma linha por JSON na ordem de entrada
+     */
+    public ColumnarBatch serializeColumnar(Iterable<String> jsons) {
+        ColumnarBatch batch = new ColumnarBatch();
+        JsonPathMap row = new JsonPathMap();
+        for (String json : jsons) {
+            row.clear();
+            this.flattenToMap(json, new MapHandler(row, this.skipNulls, this.skipEmptyContainers));
+            batch.add(row);
+        }
+        return batch;
+    }
+
+    /***
+     * Converte um arquivo NDJSON (um JSON por linha) entregando o Map de cada registro ao consumer
+     * A entrada e lida em blocos e so o registro atual fica em memoria, independente do tamanho do arquivo
+     * @param in Entrada em UTF-8, nao e fechada
+     * @param consumer Destino de cada registro
+     * @return Quantidade de registros lidos
+     */
+    public long serializeNdjson(InputStream in, Consumer<Map<CharSequence, Object>> consumer) {
+        NdjsonIterator records = new NdjsonIterator(new InputStreamReader(in, StandardCharsets.UTF_8));
+        records.forEachRemaining(consumer);
+        return records.count;
+    }
+
+    /***
+     * Converte um arquivo NDJSON entregando o Map de cada registro ao consumer
+     * @param file Arquivo em UTF-8
+     * @param consumer Destino de cada registro
+     * @return Quantidade de registros lidos
+     */
+    public long serializeNdjson(Path file, Consumer<Map<CharSequence, Object>> consumer) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return this.serializeNdjson(in, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Le um NDJSON como Stream de Maps, um por registro, convertidos conforme o Stream e consumido
+     * Registros vazios ({} ou []) geram um Map vazio; um registro invalido lanca InvalidJsonException com o numero do registro
+     * @param in Entrada em UTF-8, nao e fechada
+     * @return Stream sequencial de registros
+     */
+    public Stream<Map<CharSequence, Object>> streamNdjson(InputStream in) {
+        return this.streamNdjson(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /***
+     * Le um arquivo NDJSON como Stream de Maps; o arquivo e fechado junto com o Stream
+     * @param file Arquivo em UTF-8
+     * @return Stream sequencial de registros
+     */
+    public Stream<Map<CharSequence, Object>> streamNdjson(Path file) {
+        try {
+            Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            return this.streamNdjson(reader).onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Stream<Map<CharSequence, Object>> streamNdjson(Reader reader) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new NdjsonIterator(reader),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /***
      * Converte um JSON em uma lista de Maps
+     * O documento e lido uma unica vez pelo JsonFlattener, que emite cada JSONPath e valor folha
+     * As chaves sao JsonPathKey compartilhados e o JsonPathMap continua aceitando buscas por String
      * @param json JSON
      * @return Lista de Maps
      */
     private Map<CharSequence, Object> jsonStringToMap(String json){
-        Configuration conf = Configuration.builder().options(Option.AS_PATH_LIST).build();
-        List<String> paths;
+        if (this.lazyMap && !this.sortedMap) {
+            validate(json);
+            return LazyJsonPathMap.parse(this.newTokenizer(json), this.projection, this.skipNulls, this.skipEmptyContainers);
+        }
+        return this.flattenToMap(json, this.newHandler());
+    }
+
+    private Map<CharSequence, Object> flattenToMap(String json, MapHandler handler) {
+        validate(json);
+        return this.flattenToMap(this.newTokenizer(json), handler);
+    }
+
+    private Map<CharSequence, Object> flattenToMap(JsonTokenizer tokenizer) {
+        if (this.lazyMap && !this.sortedMap) {
+            return LazyJsonPathMap.parse(tokenizer, this.projection, this.skipNulls, this.skipEmptyContainers);
+        }
+        return this.flattenToMap(tokenizer, this.newHandler());
+    }
+
+    /***
+     * Achata o documento do tokenizador no Map do handler, aplicando as opcoes do Serialize
+     * @param tokenizer Tokenizador posicionado antes do documento
+     * @param handler Handler com o Map de destino
+     * @return Map de JSONPaths e valores
+     */
+    private Map<CharSequence, Object> flattenToMap(JsonTokenizer tokenizer, MapHandler handler) {
+        if (!JsonFlattener.flattenNext(tokenizer, handler, this.effectiveProjection())) {
+            throw new IllegalArgumentException("JSON for create list of jsonPath is empty");
+        }
+
+        if (!handler.found) {
+            // Mesmo comportamento do $..* do json-path para raiz escalar ou container vazio
+            throw new PathNotFoundException("No results for path: $..[*]");
+        }
+        return handler.map;
+    }
+
+    private static void validate(String json) {
         if (json == null || json.trim().isEmpty() || json.equals("{}")) {
             throw new IllegalArgumentException("JSON for create list of jsonPath is empty");
-        } else {
-            paths = JsonPath.using(conf).parse(json).read("$..*");
         }
+    }
 
-        Map<CharSequence, Object> map = new HashMap<>();
+    /***
+     * Tokenizador de um JSON em memoria; o tamanho ja conhecido e conferido antes da leitura
+     * @param json JSON validado
+     * @return Tokenizador com os limites do Serialize
+     */
+    private JsonTokenizer newTokenizer(String json) {
+        JsonLimits effective = this.effectiveLimits();
+        effective.checkInputLength(json.length());
+        return new JsonTokenizer(json, effective);
+    }
 
-        for (String path : paths) {
-            if (!path.endsWith("[*]")) {
-                Object value = JsonPath.read(json, path);
-                if(!(value instanceof LinkedHashMap<?,?>) && !(value instanceof JSONArray)) {
-                    map.put(path, value);
-                }
+    private JsonLimits effectiveLimits() {
+        return this.limits == null ? JsonLimits.unlimited() : this.limits;
+    }
 
-                if((value instanceof JSONArray) && ((JSONArray) value).isEmpty()){
-                    map.put(path, new JSONArray());
-                }
-                if(value instanceof LinkedHashMap<?,?>){
-                    if(((LinkedHashMap<?, ?>) value).isEmpty()){
-                        map.put(path, new LinkedHashMap<>());
-                    }
-                }
-            }
+    private PathProjection effectiveProjection() {
+        return this.projection == null ? PathProjection.all() : this.projection;
+    }
+
+    private MapHandler newHandler() {
+        Map<CharSequence, Object> map;
+        if (this.sortedMap) {
+            map = new SortedJsonPathMap();
+        } else {
+            map = this.compactMap ? new CompactJsonPathMap() : new JsonPathMap();
         }
-        return map;
+        return new MapHandler(map, this.skipNulls, this.skipEmptyContainers);
     }
 
     /***
      * Imprime a lista de Maps
+     * Para acompanhar volume e formato dos documentos em producao use um MetricsListener
      * @param map Lista de Maps
      */
     public void printMap(Map<CharSequence, Object> map) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
         for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
-            log.info("Key: " + entry.getKey() + ", Value: " + entry.getValue());
+            log.info("Key: {}, Value: {}", entry.getKey(), entry.getValue());
+        }
+    }
+
+    /***
+     * Percorre os registros de um NDJSON com um unico tokenizador, convertendo um registro por vez
+     */
+    private final class NdjsonIterator implements Iterator<Map<CharSequence, Object>> {
+
+        private final JsonTokenizer tokenizer;
+        private MapHandler next;
+        private boolean done;
+        private long count;
+
+        private NdjsonIterator(Reader reader) {
+            this.tokenizer = new JsonTokenizer(reader, effectiveLimits());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                MapHandler handler = newHandler();
+                try {
+                    if (JsonFlattener.flattenNext(tokenizer, handler, effectiveProjection())) {
+                        next = handler;
+                        count++;
+                    } else {
+                        done = true;
+                    }
+                } catch (InvalidJsonException e) {
+                    done = true;
+                    throw new InvalidJsonException("Invalid NDJSON record " + (count + 1) + ": " + e.getMessage(), e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map<CharSequence, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<CharSequence, Object> map = next.map;
+            next = null;
+            return map;
+        }
+    }
+
+    /***
+     * Guarda as folhas emitidas pelo JsonFlattener no Map, aplicando as opcoes do Serialize
+     * Com um CompactJsonPathMap, numeros e booleans vao direto para as colunas primitivas sem boxing
+     */
+    private static final class MapHandler implements FlattenHandler {
+
+        private final Map<CharSequence, Object> map;
+        private final CompactJsonPathMap compact;
+        private final boolean skipNulls;
+        private final boolean skipEmptyContainers;
+        private boolean found;
+
+        private MapHandler(Map<CharSequence, Object> map, boolean skipNulls, boolean skipEmptyContainers) {
+            this.map = map;
+            this.compact = map instanceof CompactJsonPathMap ? (CompactJsonPathMap) map : null;
+            this.skipNulls = skipNulls;
+            this.skipEmptyContainers = skipEmptyContainers;
+        }
+
+        @Override
+        public void intValue(CharSequence path, int value) {
+            found = true;
+            if (compact != null) {
+                compact.putInt(path, value);
+            } else {
+                map.put(path, value);
+            }
+        }
+
+        @Override
+        public void longValue(CharSequence path, long value) {
+            found = true;
+            if (compact != null) {
+                compact.putLong(path, value);
+            } else {
+                map.put(path, value);
+            }
+        }
+
+        @Override
+        public void doubleValue(CharSequence path, double value) {
+            found = true;
+            if (compact != null) {
+                compact.putDouble(path, value);
+            } else {
+                map.put(path, value);
+            }
+        }
+
+        @Override
+        public void booleanValue(CharSequence path, boolean value) {
+            found = true;
+            if (compact != null) {
+                compact.putBoolean(path, value);
+            } else {
+                map.put(path, value);
+            }
+        }
+
+        @Override
+        public void value(CharSequence path, Object value) {
+            found = true;
+            if (value == null ? skipNulls : skipEmptyContainers && isEmptyContainer(value)) {
+                return;
+            }
+            map.put(path, value);
+        }
+
+        @Override
+        public void remove(CharSequence path) {
+            map.remove(path);
+        }
+
+        private static boolean isEmptyContainer(Object value) {
+            return value instanceof JSONArray || value instanceof Map;
         }
     }
 }
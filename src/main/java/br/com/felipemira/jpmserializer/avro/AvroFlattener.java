@@ -0,0 +1,136 @@
+package br.com.felipemira.jpmserializer.avro;
+
+import br.com.felipemira.jpmserializer.parser.FlattenHandler;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import net.minidev.json.JSONArray;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.specific.SpecificData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/***
+ Achata um registro Avro (GenericRecord ou SpecificRecord) nos mesmos pares de JSONPath e valor do JsonFlattener,
+ percorrendo o registro guiado pelo schema, sem passar por uma String JSON
+ Strings (Utf8 ou String) e numeros sao emitidos como estao; enums viram o simbolo e bytes/fixed viram
+ uma String ISO-8859-1, a mesma representacao do encoder JSON do Avro
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class AvroFlattener {
+
+    private AvroFlattener() {
+    }
+
+    /***
+     * Percorre o registro emitindo cada folha para o handler
+     * Arrays, maps e registros vazios sao emitidos como JSONArray e LinkedHashMap vazios
+     * @param record Registro Avro
+     * @param handler Destino das folhas
+     */
+    public static void flatten(IndexedRecord record, FlattenHandler handler) {
+        flatten(record, handler, PathProjection.all());
+    }
+
+    /***
+     * Percorre o registro emitindo apenas as folhas selecionadas pela projecao, sem visitar os campos fora dela
+     * @param record Registro Avro
+     * @param handler Destino das folhas
+     * @param projection Projecao compilada
+     */
+    public static void flatten(IndexedRecord record, FlattenHandler handler, PathProjection projection) {
+        if (!projection.root().skips()) {
+            flattenRecord(JsonPathKey.root(), record, record.getSchema(), handler, projection.root());
+        }
+    }
+
+    private static void flattenValue(JsonPathKey path, Object value, Schema schema, FlattenHandler handler, PathProjection.State state) {
+        if (value == null) {
+            if (state.selects()) {
+                handler.value(path, null);
+            }
+            return;
+        }
+        switch (schema.getType()) {
+            case UNION:
+                int branch = SpecificData.get().resolveUnion(schema, value);
+                flattenValue(path, value, schema.getTypes().get(branch), handler, state);
+                return;
+            case RECORD:
+                flattenRecord(path, (IndexedRecord) value, schema, handler, state);
+                return;
+            case ARRAY:
+                Collection<?> items = (Collection<?>) value;
+                if (items.isEmpty() && state.selects()) {
+                    handler.value(path, new JSONArray());
+                }
+                int index = 0;
+                for (Object item : items) {
+                    PathProjection.State child = state.child(index);
+                    if (!child.skips()) {
+                        flattenValue(path.child(index), item, schema.getElementType(), handler, child);
+                    }
+                    index++;
+                }
+                return;
+            case MAP:
+                Map<?, ?> map = (Map<?, ?>) value;
+                if (map.isEmpty() && state.selects()) {
+                    handler.value(path, new LinkedHashMap<>());
+                }
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    JsonPathKey childPath = path.child((CharSequence) entry.getKey());
+                    PathProjection.State child = state.child(childPath);
+                    if (!child.skips()) {
+                        flattenValue(childPath, entry.getValue(), schema.getValueType(), handler, child);
+                    }
+                }
+                return;
+            default:
+                break;
+        }
+        if (!state.selects()) {
+            return;
+        }
+        switch (schema.getType()) {
+            case ENUM:
+                handler.value(path, value.toString());
+                break;
+            case FIXED:
+                handler.value(path, new String(((GenericFixed) value).bytes(), StandardCharsets.ISO_8859_1));
+                break;
+            case BYTES:
+                ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                handler.value(path, new String(bytes, StandardCharsets.ISO_8859_1));
+                break;
+            default:
+                handler.value(path, value);
+        }
+    }
+
+    private static void flattenRecord(JsonPathKey path, IndexedRecord record, Schema schema, FlattenHandler handler,
+                                      PathProjection.State state) {
+        if (schema.getFields().isEmpty()) {
+            if (!path.isRoot() && state.selects()) {
+                handler.value(path, new LinkedHashMap<>());
+            }
+            return;
+        }
+        for (Schema.Field field : schema.getFields()) {
+            JsonPathKey childPath = path.child(field.name());
+            PathProjection.State child = state.child(childPath);
+            if (!child.skips()) {
+                flattenValue(childPath, record.get(field.pos()), field.schema(), handler, child);
+            }
+        }
+    }
+}
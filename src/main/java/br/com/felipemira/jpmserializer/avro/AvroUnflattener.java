@@ -0,0 +1,375 @@
+package br.com.felipemira.jpmserializer.avro;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ Monta um GenericRecord a partir de um Map de JSONPaths e valores, guiado pelo schema
+ Cada valor e convertido para o tipo do campo (numeros, enums, bytes e fixed); Strings e Utf8 sao mantidos como estao
+ Campos ausentes recebem o default do schema, ou null quando o campo aceita null
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class AvroUnflattener {
+
+    private AvroUnflattener() {
+    }
+
+    /***
+     * Monta o registro descrito pelo Map
+     * @param map Map de JSONPaths e valores
+     * @param schema Schema do registro
+     * @return Registro Avro
+     * @throws IllegalArgumentException quando um caminho ou valor nao corresponde ao schema
+     */
+    public static GenericRecord build(Map<? extends CharSequence, ?> map, Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Schema " + schema.getFullName() + " is not a record");
+        }
+        RecordNode root = new RecordNode(schema);
+        for (Map.Entry<? extends CharSequence, ?> entry : map.entrySet()) {
+            JsonPathKey path = JsonPathParser.parse(entry.getKey());
+            JsonPathKey[] segments = path.segments();
+            if (segments.length == 0) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < segments.length - 1; i++) {
+                node = child(node, segments[i], segments[i + 1].isIndex(), path);
+            }
+            put(node, segments[segments.length - 1], entry.getValue(), path);
+        }
+        return (GenericRecord) root.finish(JsonPathKey.root());
+    }
+
+    private static Node child(Node node, JsonPathKey segment, boolean array, JsonPathKey path) {
+        Object existing = node.get(segment, path);
+        if (existing instanceof Node) {
+            return (Node) existing;
+        }
+        if (existing != null) {
+            throw conflict(path);
+        }
+        Node child = newNode(containerBranch(node.childSchema(segment, path), array, path), path);
+        node.set(segment, child);
+        return child;
+    }
+
+    private static void put(Node node, JsonPathKey segment, Object value, JsonPathKey path) {
+        Object existing = node.get(segment, path);
+        boolean emptyArray = value instanceof Collection && ((Collection<?>) value).isEmpty();
+        boolean emptyObject = value instanceof Map && ((Map<?, ?>) value).isEmpty();
+        if (emptyArray || emptyObject) {
+            // Um array ou objeto vazio nao apaga os filhos ja montados
+            if (existing == null) {
+                node.set(segment, newNode(containerBranch(node.childSchema(segment, path), emptyArray, path), path));
+            } else if (!(existing instanceof Node)) {
+                throw conflict(path);
+            }
+            return;
+        }
+        if (existing != null) {
+            throw conflict(path);
+        }
+        node.set(segment, convert(node.childSchema(segment, path), value, path));
+    }
+
+    /***
+     * Escolhe o schema de container: ARRAY para indices, RECORD ou MAP para nomes, resolvendo unions
+     */
+    private static Schema containerBranch(Schema schema, boolean array, JsonPathKey path) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema branch : schema.getTypes()) {
+                if (isContainer(branch, array)) {
+                    return branch;
+                }
+            }
+        } else if (isContainer(schema, array)) {
+            return schema;
+        }
+        throw mismatch(path, array ? "array" : "object", schema);
+    }
+
+    private static boolean isContainer(Schema schema, boolean array) {
+        Schema.Type type = schema.getType();
+        return array ? type == Schema.Type.ARRAY : type == Schema.Type.RECORD || type == Schema.Type.MAP;
+    }
+
+    private static Node newNode(Schema schema, JsonPathKey path) {
+        switch (schema.getType()) {
+            case RECORD:
+                return new RecordNode(schema);
+            case MAP:
+                return new MapNode(schema);
+            case ARRAY:
+                return new ArrayNode(schema);
+            default:
+                throw mismatch(path, "container", schema);
+        }
+    }
+
+    private static Object convert(Schema schema, Object value, JsonPathKey path) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema branch : schema.getTypes()) {
+                if (accepts(branch, value)) {
+                    return convertValue(branch, value);
+                }
+            }
+        } else if (accepts(schema, value)) {
+            return convertValue(schema, value);
+        }
+        throw mismatch(path, value == null ? "null" : value.getClass().getSimpleName(), schema);
+    }
+
+    private static boolean accepts(Schema schema, Object value) {
+        switch (schema.getType()) {
+            case NULL:
+                return value == null;
+            case BOOLEAN:
+                return value instanceof Boolean;
+            case INT:
+                return isIntegral(value) && ((Number) value).longValue() == ((Number) value).intValue();
+            case LONG:
+                return isIntegral(value);
+            case FLOAT:
+            case DOUBLE:
+                return value instanceof Number;
+            case STRING:
+                return value instanceof CharSequence;
+            case ENUM:
+                return value instanceof GenericEnumSymbol || value instanceof Enum
+                        || (value instanceof CharSequence && schema.hasEnumSymbol(value.toString()));
+            case BYTES:
+                return value instanceof ByteBuffer || value instanceof CharSequence;
+            case FIXED:
+                return value instanceof GenericFixed
+                        || (value instanceof CharSequence && ((CharSequence) value).length() == schema.getFixedSize());
+            case RECORD:
+                return value instanceof IndexedRecord;
+            case MAP:
+                return value instanceof Map;
+            case ARRAY:
+                return value instanceof Collection;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE);
+    }
+
+    private static Object convertValue(Schema schema, Object value) {
+        switch (schema.getType()) {
+            case INT:
+                return ((Number) value).intValue();
+            case LONG:
+                return ((Number) value).longValue();
+            case FLOAT:
+                return ((Number) value).floatValue();
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            case ENUM:
+                return value instanceof CharSequence ? new GenericData.EnumSymbol(schema, value.toString()) : value;
+            case BYTES:
+                return value instanceof CharSequence
+                        ? ByteBuffer.wrap(value.toString().getBytes(StandardCharsets.ISO_8859_1)) : value;
+            case FIXED:
+                return value instanceof CharSequence
+                        ? new GenericData.Fixed(schema, value.toString().getBytes(StandardCharsets.ISO_8859_1)) : value;
+            default:
+                return value;
+        }
+    }
+
+    private static boolean nullable(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            return schema.getTypes().stream().anyMatch(branch -> branch.getType() == Schema.Type.NULL);
+        }
+        return schema.getType() == Schema.Type.NULL;
+    }
+
+    private static IllegalArgumentException conflict(JsonPathKey path) {
+        return new IllegalArgumentException("JSONPath " + path + " conflicts with a value already mapped on the same path");
+    }
+
+    private static IllegalArgumentException mismatch(JsonPathKey path, String found, Schema schema) {
+        return new IllegalArgumentException("JSONPath " + path + " has " + found + " but schema expects " + schema);
+    }
+
+    private static IllegalArgumentException mixed(JsonPathKey path) {
+        return new IllegalArgumentException("JSONPath " + path + " mixes array indices and property names on the same level");
+    }
+
+    /***
+     * Container em montagem; os filhos ainda podem ser outros Node ate o finish
+     */
+    private abstract static class Node {
+
+        final Schema schema;
+
+        Node(Schema schema) {
+            this.schema = schema;
+        }
+
+        abstract Schema childSchema(JsonPathKey segment, JsonPathKey path);
+
+        abstract Object get(JsonPathKey segment, JsonPathKey path);
+
+        abstract void set(JsonPathKey segment, Object value);
+
+        abstract Object finish(JsonPathKey path);
+
+        static Object finish(Object value, JsonPathKey path) {
+            return value instanceof Node ? ((Node) value).finish(path) : value;
+        }
+    }
+
+    private static final class RecordNode extends Node {
+
+        private final Object[] values;
+        private final boolean[] assigned;
+
+        RecordNode(Schema schema) {
+            super(schema);
+            this.values = new Object[schema.getFields().size()];
+            this.assigned = new boolean[values.length];
+        }
+
+        private Schema.Field field(JsonPathKey segment, JsonPathKey path) {
+            Schema.Field field = segment.isIndex() ? null : schema.getField(segment.name());
+            if (field == null) {
+                throw new IllegalArgumentException("JSONPath " + path + " has no matching field in record " + schema.getFullName());
+            }
+            return field;
+        }
+
+        @Override
+        Schema childSchema(JsonPathKey segment, JsonPathKey path) {
+            return field(segment, path).schema();
+        }
+
+        @Override
+        Object get(JsonPathKey segment, JsonPathKey path) {
+            return values[field(segment, path).pos()];
+        }
+
+        @Override
+        void set(JsonPathKey segment, Object value) {
+            int pos = schema.getField(segment.name()).pos();
+            values[pos] = value;
+            assigned[pos] = true;
+        }
+
+        @Override
+        Object finish(JsonPathKey path) {
+            GenericData.Record record = new GenericData.Record(schema);
+            for (Schema.Field field : schema.getFields()) {
+                int pos = field.pos();
+                if (assigned[pos]) {
+                    record.put(pos, finish(values[pos], path.child(field.name())));
+                } else if (field.hasDefaultValue()) {
+                    record.put(pos, GenericData.get().deepCopy(field.schema(), GenericData.get().getDefaultValue(field)));
+                } else if (!nullable(field.schema())) {
+                    throw new IllegalArgumentException("JSONPath " + path.child(field.name()) + " is required by record " + schema.getFullName());
+                }
+            }
+            return record;
+        }
+    }
+
+    private static final class MapNode extends Node {
+
+        private final Map<Utf8, Object> values = new LinkedHashMap<>();
+
+        MapNode(Schema schema) {
+            super(schema);
+        }
+
+        @Override
+        Schema childSchema(JsonPathKey segment, JsonPathKey path) {
+            return schema.getValueType();
+        }
+
+        @Override
+        Object get(JsonPathKey segment, JsonPathKey path) {
+            if (segment.isIndex()) {
+                throw mixed(path);
+            }
+            return values.get(new Utf8(segment.name()));
+        }
+
+        @Override
+        void set(JsonPathKey segment, Object value) {
+            values.put(new Utf8(segment.name()), value);
+        }
+
+        @Override
+        Object finish(JsonPathKey path) {
+            Map<Utf8, Object> map = new LinkedHashMap<>(values.size() * 2);
+            for (Map.Entry<Utf8, Object> entry : values.entrySet()) {
+                map.put(entry.getKey(), finish(entry.getValue(), path.child(entry.getKey())));
+            }
+            return map;
+        }
+    }
+
+    private static final class ArrayNode extends Node {
+
+        private final List<Object> items = new ArrayList<>();
+
+        ArrayNode(Schema schema) {
+            super(schema);
+        }
+
+        @Override
+        Schema childSchema(JsonPathKey segment, JsonPathKey path) {
+            return schema.getElementType();
+        }
+
+        @Override
+        Object get(JsonPathKey segment, JsonPathKey path) {
+            if (!segment.isIndex()) {
+                throw mixed(path);
+            }
+            return segment.index() < items.size() ? items.get(segment.index()) : null;
+        }
+
+        @Override
+        void set(JsonPathKey segment, Object value) {
+            JsonLimits.checkArrayIndex(segment.index());
+            while (items.size() <= segment.index()) {
+                items.add(null);
+            }
+            items.set(segment.index(), value);
+        }
+
+        @Override
+        Object finish(JsonPathKey path) {
+            GenericData.Array<Object> array = new GenericData.Array<>(items.size(), schema);
+            for (int i = 0; i < items.size(); i++) {
+                array.add(finish(items.get(i), path.child(i)));
+            }
+            return array;
+        }
+    }
+}
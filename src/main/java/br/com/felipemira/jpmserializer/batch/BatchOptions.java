@@ -0,0 +1,118 @@
+package br.com.felipemira.jpmserializer.batch;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/***
+ Opcoes do processamento em lote de Serialize e Deserialize
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+public final class BatchOptions {
+
+    /* Executor que processa os blocos de documentos */
+    private final Executor executor;
+
+    /* Mantem os resultados na ordem da entrada; quando false, entrega na ordem em que terminam */
+    private final boolean ordered;
+
+    /* Quantidade de documentos processados por tarefa, para diluir o custo de agendamento; no minimo 1 */
+    private final int chunkSize;
+
+    /* Maximo de blocos em processamento ao mesmo tempo, 0 usa o dobro do paralelismo do executor */
+    private final int maxInFlight;
+
+    @Builder(toBuilder = true)
+    private BatchOptions(Executor executor, boolean ordered, int chunkSize, int maxInFlight) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1: " + chunkSize);
+        }
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("maxInFlight must not be negative: " + maxInFlight);
+        }
+        this.executor = executor;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /***
+     * Builder com os valores padrao: ForkJoinPool comum, resultados ordenados e blocos de 16 documentos
+     */
+    public static class BatchOptionsBuilder {
+        private Executor executor = ForkJoinPool.commonPool();
+        private boolean ordered = true;
+        private int chunkSize = 16;
+    }
+
+    /***
+     * Opcoes padrao: ForkJoinPool comum e resultados na ordem da entrada
+     * @return Opcoes
+     */
+    public static BatchOptions defaults() {
+        return BatchOptions.builder().build();
+    }
+
+    /***
+     * Processa os documentos no ForkJoinPool informado
+     * @param pool Pool de threads
+     * @return Opcoes
+     */
+    public static BatchOptions forkJoin(ForkJoinPool pool) {
+        return BatchOptions.builder().executor(pool).build();
+    }
+
+    /***
+     * Processa cada bloco em uma virtual thread
+     * Virtual threads existem a partir do Java 21; o projeto compila para Java 17, entao o executor e obtido por reflexao
+     * Todas as chamadas compartilham o mesmo executor, que nao precisa ser fechado pelo chamador
+     * @return Opcoes
+     * @throws UnsupportedOperationException quando a JVM nao suporta virtual threads
+     */
+    public static BatchOptions virtualThreads() {
+        if (VirtualThreads.EXECUTOR == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        return BatchOptions.builder().executor(VirtualThreads.EXECUTOR).maxInFlight(256).build();
+    }
+
+    /***
+     * Maximo de blocos em processamento, calculado pelo paralelismo quando nao informado
+     * @return Quantidade de blocos
+     */
+    int effectiveMaxInFlight() {
+        if (maxInFlight > 0) {
+            return maxInFlight;
+        }
+        int parallelism = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return Math.max(2, parallelism * 2);
+    }
+
+    /***
+     * Executor de virtual threads criado na primeira chamada de virtualThreads() e mantido pela JVM inteira
+     * Virtual threads sao daemon e o executor nao guarda threads ociosas, entao ele nunca precisa de shutdown
+     */
+    private static final class VirtualThreads {
+
+        /* Null quando a JVM nao suporta virtual threads */
+        private static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                return null;
+            }
+        }
+    }
+}
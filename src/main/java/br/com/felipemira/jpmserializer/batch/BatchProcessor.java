@@ -0,0 +1,157 @@
+package br.com.felipemira.jpmserializer.batch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/***
+ Distribui documentos em blocos pelo executor das BatchOptions
+ A entrada e consumida sob demanda, com no maximo maxInFlight blocos em processamento,
+ e o erro de cada documento fica no proprio BatchResult sem interromper o lote
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class BatchProcessor {
+
+    private BatchProcessor() {
+    }
+
+    /***
+     * Processa a entrada sob demanda, conforme o Iterator de resultados e consumido
+     * @param input Documentos
+     * @param task Processamento de um documento
+     * @param options Opcoes do lote
+     * @return Resultados, na ordem da entrada quando options.ordered
+     */
+    public static <I, O> Iterator<BatchResult<O>> process(Iterator<? extends I> input, Function<? super I, ? extends O> task, BatchOptions options) {
+        return new BatchIterator<>(input, task, options);
+    }
+
+    /***
+     * Processa a entrada como um Stream sequencial de resultados
+     * @param input Documentos
+     * @param task Processamento de um documento
+     * @param options Opcoes do lote
+     * @return Resultados
+     */
+    public static <I, O> Stream<BatchResult<O>> stream(Iterator<? extends I> input, Function<? super I, ? extends O> task, BatchOptions options) {
+        int characteristics = Spliterator.NONNULL | (options.isOrdered() ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(BatchProcessor.<I, O>process(input, task, options), characteristics), false);
+    }
+
+    /***
+     * Processa todos os documentos e devolve a lista de resultados
+     * @param input Documentos
+     * @param task Processamento de um documento
+     * @param options Opcoes do lote
+     * @return Resultados
+     */
+    public static <I, O> List<BatchResult<O>> list(List<? extends I> input, Function<? super I, ? extends O> task, BatchOptions options) {
+        List<BatchResult<O>> results = new ArrayList<>(input.size());
+        BatchProcessor.<I, O>process(input.iterator(), task, options).forEachRemaining(results::add);
+        return results;
+    }
+
+    private static final class BatchIterator<I, O> implements Iterator<BatchResult<O>> {
+
+        private final Iterator<? extends I> input;
+        private final Function<? super I, ? extends O> task;
+        private final BatchOptions options;
+        private final int maxInFlight;
+        private final ArrayDeque<Future<List<BatchResult<O>>>> pending = new ArrayDeque<>();
+        private final CompletionService<List<BatchResult<O>>> completion;
+        private int inFlight;
+        private long nextIndex;
+        private Iterator<BatchResult<O>> current = Collections.emptyIterator();
+
+        private BatchIterator(Iterator<? extends I> input, Function<? super I, ? extends O> task, BatchOptions options) {
+            this.input = input;
+            this.task = task;
+            this.options = options;
+            this.maxInFlight = options.effectiveMaxInFlight();
+            this.completion = options.isOrdered() ? null : new ExecutorCompletionService<>(options.getExecutor());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submit();
+                if (inFlight == 0) {
+                    return false;
+                }
+                current = take().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public BatchResult<O> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private void submit() {
+            while (inFlight < maxInFlight && input.hasNext()) {
+                List<I> chunk = new ArrayList<>(options.getChunkSize());
+                while (chunk.size() < options.getChunkSize() && input.hasNext()) {
+                    chunk.add(input.next());
+                }
+                long first = nextIndex;
+                nextIndex += chunk.size();
+                if (completion != null) {
+                    completion.submit(() -> run(chunk, first));
+                } else {
+                    FutureTask<List<BatchResult<O>>> future = new FutureTask<>(() -> run(chunk, first));
+                    options.getExecutor().execute(future);
+                    pending.add(future);
+                }
+                inFlight++;
+            }
+        }
+
+        private List<BatchResult<O>> take() {
+            try {
+                Future<List<BatchResult<O>>> future = completion != null ? completion.take() : pending.poll();
+                inFlight--;
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch results", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Batch task failed", cause);
+            }
+        }
+
+        private List<BatchResult<O>> run(List<I> chunk, long first) {
+            List<BatchResult<O>> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    results.add(BatchResult.success(first + i, task.apply(chunk.get(i))));
+                } catch (RuntimeException e) {
+                    results.add(BatchResult.failure(first + i, e));
+                }
+            }
+            return results;
+        }
+    }
+}
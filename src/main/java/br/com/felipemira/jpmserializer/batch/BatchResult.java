@@ -0,0 +1,44 @@
+package br.com.felipemira.jpmserializer.batch;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/***
+ Resultado de um documento processado em lote: o valor ou o erro daquele documento
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BatchResult<T> {
+
+    /* Posicao do documento na entrada */
+    private final long index;
+    private final T value;
+    private final RuntimeException error;
+
+    public static <T> BatchResult<T> success(long index, T value) {
+        return new BatchResult<>(index, value, null);
+    }
+
+    public static <T> BatchResult<T> failure(long index, RuntimeException error) {
+        return new BatchResult<>(index, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /***
+     * Retorna o valor ou lanca o erro do documento
+     * @return Valor processado
+     */
+    public T getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.felipemira.jpmserializer.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/***
+ Contadores de um ResultCache no momento da consulta
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /* Entradas guardadas */
+    private final long size;
+
+    /* Peso aproximado das entradas guardadas, em bytes */
+    private final long weight;
+
+    /***
+     * Fracao das consultas atendidas pelo cache
+     * @return Valor entre 0 e 1, 0 quando ainda nao houve consultas
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", size=" + size + ", weight=" + weight + "}";
+    }
+}
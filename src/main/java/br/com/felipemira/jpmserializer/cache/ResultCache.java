@@ -0,0 +1,269 @@
+package br.com.felipemira.jpmserializer.cache;
+
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import lombok.Builder;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/***
+ Cache LRU limitado dos resultados de Serialize e Deserialize, indexado por um hash de 64 bits do conteudo da entrada
+ As entradas sao divididas em segmentos com lock proprio, entao threads que consultam documentos diferentes
+ raramente disputam o mesmo lock; o documento e convertido fora do lock
+ A entrada original fica guardada junto com o hash e e comparada em cada acerto, entao colisoes nunca devolvem
+ o resultado de outro documento
+ Os Maps devolvidos sao somente leitura e compartilhados entre as chamadas
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class ResultCache {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final long DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Segment[] segments;
+    private final int mask;
+    private final long entryLimit;
+    private final long weightLimit;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /***
+     * @param maxEntries Maximo de entradas, 0 usa 10000
+     * @param maxWeight Peso aproximado maximo em bytes, contando entrada e resultado; 0 nao limita por peso
+     * @param segments Quantidade de segmentos com lock proprio, arredondada para potencia de 2; 0 usa 16
+     */
+    @Builder
+    private ResultCache(long maxEntries, long maxWeight, int segments) {
+        if (maxEntries < 0 || maxWeight < 0 || segments < 0) {
+            throw new IllegalArgumentException("Cache limits must not be negative");
+        }
+        long entries = maxEntries == 0 ? DEFAULT_MAX_ENTRIES : maxEntries;
+        int count = Integer.highestOneBit(Math.max(1, segments == 0 ? DEFAULT_SEGMENTS : segments));
+        // Cada segmento precisa comportar ao menos uma entrada sem passar do limite total
+        while (count > 1 && count > entries) {
+            count >>= 1;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.mask = count - 1;
+        this.entryLimit = Math.max(1, entries / count);
+        this.weightLimit = maxWeight == 0 ? Long.MAX_VALUE : Math.max(1, maxWeight / count);
+    }
+
+    /***
+     * Cria um cache com os limites informados e 16 segmentos
+     * @param maxEntries Maximo de entradas
+     * @param maxWeight Peso aproximado maximo em bytes, 0 nao limita por peso
+     * @return Cache
+     */
+    public static ResultCache of(long maxEntries, long maxWeight) {
+        return ResultCache.builder().maxEntries(maxEntries).maxWeight(maxWeight).build();
+    }
+
+    /***
+     * Devolve o Map achatado de um JSON ja convertido ou converte e guarda o resultado
+     * @param scope Dono das opcoes da conversao; resultados de escopos diferentes nunca se misturam
+     * @param json JSON
+     * @param flatten Conversao executada em caso de falta
+     * @return Map somente leitura
+     */
+    public Map<CharSequence, Object> serialize(Object scope, String json, Function<String, Map<CharSequence, Object>> flatten) {
+        Key key = new Key(scope, hash(json), json);
+        Object cached = lookup(key);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            Map<CharSequence, Object> map = (Map<CharSequence, Object>) cached;
+            return map;
+        }
+        Map<CharSequence, Object> map = Collections.unmodifiableMap(flatten.apply(json));
+        store(key, map, weigh(json) + weigh(map));
+        return map;
+    }
+
+    /***
+     * Devolve o JSON de um Map ja convertido ou converte e guarda o resultado
+     * O Map e copiado ao ser guardado, entao alteracoes posteriores do chamador nao afetam o cache
+     * @param scope Dono das opcoes da conversao
+     * @param map Map de JSONPaths
+     * @param write Conversao executada em caso de falta
+     * @return JSON
+     */
+    public String deserialize(Object scope, Map<CharSequence, Object> map, Function<Map<CharSequence, Object>, String> write) {
+        long hash = hash(map);
+        Object cached = lookup(new Key(scope, hash, map));
+        if (cached != null) {
+            return (String) cached;
+        }
+        String json = write.apply(map);
+        JsonPathMap copy = new JsonPathMap(map);
+        store(new Key(scope, hash, copy), json, weigh(copy) + weigh(json));
+        return json;
+    }
+
+    /***
+     * Contadores atuais do cache
+     * @return Estatisticas
+     */
+    public CacheStats stats() {
+        long size = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+                weight += segment.weight;
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+
+    /***
+     * Remove todas as entradas, mantendo os contadores
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    private Object lookup(Key key) {
+        Segment segment = segments[(int) key.hash & mask];
+        Node node;
+        synchronized (segment) {
+            node = segment.get(key);
+        }
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    private void store(Key key, Object value, long weight) {
+        if (weight > weightLimit) {
+            // Uma entrada maior que o segmento expulsaria todas as outras sem nunca ser reaproveitada
+            return;
+        }
+        Segment segment = segments[(int) key.hash & mask];
+        synchronized (segment) {
+            Node previous = segment.put(key, new Node(value, weight));
+            if (previous != null) {
+                segment.weight -= previous.weight;
+            }
+            segment.weight += weight;
+            Iterator<Node> eldest = segment.values().iterator();
+            while ((segment.size() > entryLimit || segment.weight > weightLimit) && eldest.hasNext()) {
+                segment.weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /* FNV-1a de 64 bits sobre os chars, com mistura final para espalhar os bits baixos usados pelos segmentos */
+    private static long hash(CharSequence text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /* Soma dos hashes das entradas: independe da ordem, como o equals de Map */
+    private static long hash(Map<CharSequence, Object> map) {
+        long hash = map.size();
+        for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
+            hash += mix(hash(entry.getKey()) * 31 + Objects.hashCode(entry.getValue()));
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long weigh(CharSequence text) {
+        return 40 + 2L * text.length();
+    }
+
+    private static long weigh(Map<CharSequence, Object> map) {
+        long weight = 64;
+        for (Map.Entry<CharSequence, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            weight += 48 + 2L * entry.getKey().length() + (value instanceof CharSequence ? weigh((CharSequence) value) : 16);
+        }
+        return weight;
+    }
+
+    /***
+     * Entrada de um segmento: o escopo, o hash do conteudo e a propria entrada, comparada nos acertos
+     */
+    private static final class Key {
+
+        private final Object scope;
+        private final long hash;
+        private final Object input;
+
+        private Key(Object scope, long hash, Object input) {
+            this.scope = scope;
+            this.hash = hash;
+            this.input = input;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return scope == other.scope && hash == other.hash && input.equals(other.input);
+        }
+    }
+
+    private static final class Node {
+
+        private final Object value;
+        private final long weight;
+
+        private Node(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /***
+     * LinkedHashMap em ordem de acesso: o primeiro elemento e sempre o usado ha mais tempo
+     */
+    private static final class Segment extends LinkedHashMap<Key, Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        private long weight;
+
+        private Segment() {
+            super(16, 0.75f, true);
+        }
+    }
+}
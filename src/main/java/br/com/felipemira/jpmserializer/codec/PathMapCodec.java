@@ -0,0 +1,385 @@
+package br.com.felipemira.jpmserializer.codec;
+
+import net.minidev.json.JSONArray;
+import org.apache.avro.util.Utf8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/***
+ Codificacao binaria compacta do Map de JSONPaths, para trafegar o Map entre servicos sem repetir as chaves longas
+ Cada chave guarda so o sufixo que difere da chave anterior (front coding); na ordem do documento as chaves vizinhas
+ compartilham quase todo o prefixo, entao a ordem de iteracao do Map e mantida em vez de ordenar as chaves
+ Folhas sao tipadas: inteiros em varint zigzag, decimais em 8 bytes, Strings em UTF-8 e BigInteger/BigDecimal em bytes
+ Formato: "JPM" 1 | varint entradas | por entrada: varint prefixo, varint tamanho do sufixo, sufixo UTF-8, tipo, valor
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class PathMapCodec {
+
+    private static final byte[] MAGIC = {'J', 'P', 'M', 1};
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte STRING = 6;
+    private static final byte BIG_INTEGER = 7;
+    private static final byte BIG_DECIMAL = 8;
+    private static final byte EMPTY_ARRAY = 9;
+    private static final byte EMPTY_OBJECT = 10;
+
+    private PathMapCodec() {
+    }
+
+    /***
+     * Codifica o Map em bytes
+     * @param map Map de JSONPaths e valores
+     * @return Bytes codificados
+     * @throws IllegalArgumentException quando um valor nao e uma folha JSON
+     */
+    public static byte[] encode(Map<? extends CharSequence, ?> map) {
+        Output out = new Output(Math.max(64, map.size() * 16));
+        write(map, out);
+        return out.toByteArray();
+    }
+
+    /***
+     * Codifica o Map direto no OutputStream
+     * @param map Map de JSONPaths e valores
+     * @param out Destino, nao e fechado
+     */
+    public static void encode(Map<? extends CharSequence, ?> map, OutputStream out) throws IOException {
+        Output buffer = new Output(Math.max(64, map.size() * 16));
+        write(map, buffer);
+        out.write(buffer.bytes, 0, buffer.size);
+    }
+
+    /***
+     * Le os bytes como um Map somente leitura, sem copiar o buffer: as entradas sao decodificadas
+     * durante a iteracao, direto do ByteBuffer; a posicao do buffer informado nao e alterada
+     * get e containsKey percorrem as entradas; para buscas repetidas copie para um JsonPathMap
+     * @param buffer Bytes gerados por encode
+     * @return Map de JSONPaths e valores
+     * @throws IllegalArgumentException quando os bytes nao estao no formato do codec
+     */
+    public static Map<CharSequence, Object> decode(ByteBuffer buffer) {
+        ByteBuffer data = buffer.slice();
+        for (byte b : MAGIC) {
+            if (!data.hasRemaining() || data.get() != b) {
+                throw new IllegalArgumentException("Binary path map has an invalid header");
+            }
+        }
+        long size = readVarint(data);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Binary path map has too many entries: " + size);
+        }
+        return new BinaryPathMap(data.slice(), (int) size);
+    }
+
+    /***
+     * Le os bytes como um Map somente leitura
+     * @param bytes Bytes gerados por encode
+     * @return Map de JSONPaths e valores
+     */
+    public static Map<CharSequence, Object> decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    private static void write(Map<? extends CharSequence, ?> map, Output out) {
+        out.write(MAGIC, 0, MAGIC.length);
+        out.writeVarint(map.size());
+        byte[] previous = new byte[0];
+        for (Map.Entry<? extends CharSequence, ?> entry : map.entrySet()) {
+            byte[] key = entry.getKey().toString().getBytes(StandardCharsets.UTF_8);
+            int shared = 0;
+            int max = Math.min(previous.length, key.length);
+            while (shared < max && previous[shared] == key[shared]) {
+                shared++;
+            }
+            out.writeVarint(shared);
+            out.writeVarint(key.length - shared);
+            out.write(key, shared, key.length - shared);
+            writeValue(entry.getKey(), entry.getValue(), out);
+            previous = key;
+        }
+    }
+
+    private static void writeValue(CharSequence path, Object value, Output out) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INT);
+            out.writeVarint(zigzag(((Number) value).intValue()));
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeVarint(zigzag((Long) value));
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray(), out);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeVarint(zigzag(decimal.scale()));
+            writeBytes(decimal.unscaledValue().toByteArray(), out);
+        } else if (value instanceof Utf8) {
+            Utf8 utf8 = (Utf8) value;
+            out.writeByte(STRING);
+            out.writeVarint(utf8.getByteLength());
+            out.write(utf8.getBytes(), 0, utf8.getByteLength());
+        } else if (value instanceof CharSequence) {
+            out.writeByte(STRING);
+            writeBytes(value.toString().getBytes(StandardCharsets.UTF_8), out);
+        } else if (value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+            out.writeByte(EMPTY_ARRAY);
+        } else if (value instanceof Map && ((Map<?, ?>) value).isEmpty()) {
+            out.writeByte(EMPTY_OBJECT);
+        } else {
+            throw new IllegalArgumentException("JSONPath " + path + " has a value that is not a JSON leaf: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, Output out) {
+        out.writeVarint(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static Object readValue(ByteBuffer data) {
+        byte type = data.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INT:
+                return (int) unzigzag(readVarint(data));
+            case LONG:
+                return unzigzag(readVarint(data));
+            case DOUBLE:
+                return Double.longBitsToDouble(data.getLong());
+            case STRING:
+                return readString(data, readLength(data));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(data));
+            case BIG_DECIMAL:
+                int scale = (int) unzigzag(readVarint(data));
+                return new BigDecimal(new BigInteger(readBytes(data)), scale);
+            case EMPTY_ARRAY:
+                return new JSONArray();
+            case EMPTY_OBJECT:
+                return new LinkedHashMap<>();
+            default:
+                throw new IllegalArgumentException("Binary path map has an unknown value type " + type);
+        }
+    }
+
+    private static String readString(ByteBuffer data, int length) {
+        if (data.hasArray()) {
+            String value = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+            data.position(data.position() + length);
+            return value;
+        }
+        // Buffers diretos sao decodificados no lugar, sem copiar os bytes para um array
+        ByteBuffer slice = data.slice();
+        slice.limit(length);
+        data.position(data.position() + length);
+        try {
+            CharBuffer chars = StandardCharsets.UTF_8.newDecoder().decode(slice);
+            return chars.toString();
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Binary path map has an invalid UTF-8 string", e);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer data) {
+        byte[] bytes = new byte[readLength(data)];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private static int readLength(ByteBuffer data) {
+        long length = readVarint(data);
+        if (length > data.remaining()) {
+            throw new IllegalArgumentException("Binary path map is truncated");
+        }
+        return (int) length;
+    }
+
+    private static long readVarint(ByteBuffer data) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!data.hasRemaining()) {
+                throw new IllegalArgumentException("Binary path map is truncated");
+            }
+            byte b = data.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Binary path map has an invalid varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /***
+     * Buffer de escrita que cresce sob demanda
+     */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /***
+     * Map somente leitura sobre os bytes codificados; cada iteracao decodifica as entradas em sequencia
+     */
+    private static final class BinaryPathMap extends AbstractMap<CharSequence, Object> {
+
+        private final ByteBuffer data;
+        private final int size;
+
+        BinaryPathMap(ByteBuffer data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<CharSequence, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<CharSequence, Object>>() {
+                @Override
+                public Iterator<Map.Entry<CharSequence, Object>> iterator() {
+                    return new EntryIterator(data.duplicate(), size);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    private static final class EntryIterator implements Iterator<Map.Entry<CharSequence, Object>> {
+
+        private final ByteBuffer data;
+        private int remaining;
+        private byte[] key = new byte[64];
+
+        /* Tamanho da chave anterior; o buffer pode ser maior e guardar bytes de chaves mais antigas */
+        private int previousLength;
+
+        EntryIterator(ByteBuffer data, int size) {
+            this.data = data;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, Object> next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            try {
+                long shared = readVarint(data);
+                int suffix = readLength(data);
+                if (shared > previousLength) {
+                    throw new IllegalArgumentException("Binary path map has an invalid key prefix");
+                }
+                int length = (int) shared + suffix;
+                if (length > key.length) {
+                    key = Arrays.copyOf(key, Math.max(key.length * 2, length));
+                }
+                data.get(key, (int) shared, suffix);
+                previousLength = length;
+                String path = new String(key, 0, length, StandardCharsets.UTF_8);
+                return new AbstractMap.SimpleImmutableEntry<>(path, readValue(data));
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Binary path map is truncated", e);
+            }
+        }
+    }
+}
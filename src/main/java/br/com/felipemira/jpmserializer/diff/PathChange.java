@@ -0,0 +1,58 @@
+package br.com.felipemira.jpmserializer.diff;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/***
+ Alteracao de um unico JSONPath entre dois Maps achatados
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PathChange {
+
+    private final Type type;
+    private final CharSequence path;
+
+    /* Valor antes da alteracao, null para ADDED */
+    private final Object oldValue;
+
+    /* Valor depois da alteracao, null para REMOVED */
+    private final Object newValue;
+
+    public static PathChange added(CharSequence path, Object value) {
+        return new PathChange(Type.ADDED, path, null, value);
+    }
+
+    public static PathChange removed(CharSequence path, Object value) {
+        return new PathChange(Type.REMOVED, path, value, null);
+    }
+
+    public static PathChange changed(CharSequence path, Object oldValue, Object newValue) {
+        return new PathChange(Type.CHANGED, path, oldValue, newValue);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ADDED:
+                return "+ " + path + " = " + newValue;
+            case REMOVED:
+                return "- " + path + " = " + oldValue;
+            default:
+                return "~ " + path + " = " + oldValue + " -> " + newValue;
+        }
+    }
+
+    /***
+     * Tipo da alteracao
+     */
+    public enum Type {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+}
@@ -0,0 +1,270 @@
+package br.com.felipemira.jpmserializer.diff;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import lombok.Getter;
+import org.apache.avro.util.Utf8;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/***
+ Diferenca entre dois Maps achatados: caminhos adicionados, removidos e alterados
+ O patch e aplicado caminho a caminho, tanto em um Map achatado quanto em uma arvore JSON do Gson,
+ entao o custo e proporcional a quantidade de alteracoes e nao ao tamanho do documento
+ Remocoes sao aplicadas antes das adicoes, das mais profundas e dos maiores indices para as demais,
+ para que arrays que encolhem e folhas que viram containers (ou o contrario) fiquem consistentes
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+public final class PathDiff {
+
+    /* Converte os valores das folhas em JsonElement; folhas nao dependem das opcoes de formatacao */
+    private static final Gson GSON = new Gson();
+
+    private static final Comparator<JsonPathKey> DEEPEST_FIRST = (a, b) -> {
+        if (a.depth() != b.depth()) {
+            return Integer.compare(b.depth(), a.depth());
+        }
+        return Integer.compare(b.index(), a.index());
+    };
+
+    private final List<PathChange> changes;
+
+    private PathDiff(List<PathChange> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /***
+     * Cria um diff a partir de alteracoes ja conhecidas, sem comparar Maps inteiros
+     * @param changes Alteracoes
+     * @return Diff
+     */
+    public static PathDiff of(List<PathChange> changes) {
+        return new PathDiff(new ArrayList<>(changes));
+    }
+
+    /***
+     * Compara dois Maps achatados; Utf8 e String com o mesmo texto sao considerados iguais
+     * @param before Map antes da alteracao
+     * @param after Map depois da alteracao
+     * @return Diff, com as remocoes e alteracoes na ordem de before e as adicoes na ordem de after
+     */
+    public static PathDiff between(Map<CharSequence, Object> before, Map<CharSequence, Object> after) {
+        List<PathChange> changes = new ArrayList<>();
+        if (before == after) {
+            return new PathDiff(changes);
+        }
+        for (Map.Entry<CharSequence, Object> entry : before.entrySet()) {
+            Object value = entry.getValue();
+            Object other = after.get(entry.getKey());
+            if (other == null && !after.containsKey(entry.getKey())) {
+                changes.add(PathChange.removed(entry.getKey(), value));
+            } else if (!valueEquals(value, other)) {
+                changes.add(PathChange.changed(entry.getKey(), value, other));
+            }
+        }
+        for (Map.Entry<CharSequence, Object> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                changes.add(PathChange.added(entry.getKey(), entry.getValue()));
+            }
+        }
+        return new PathDiff(changes);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    /***
+     * Aplica o diff no proprio Map achatado
+     * @param map Map achatado, alterado no lugar
+     * @return O mesmo Map
+     */
+    public Map<CharSequence, Object> applyTo(Map<CharSequence, Object> map) {
+        for (PathChange change : changes) {
+            if (change.getType() == PathChange.Type.REMOVED) {
+                map.remove(change.getPath());
+            }
+        }
+        for (PathChange change : changes) {
+            if (change.getType() != PathChange.Type.REMOVED) {
+                map.put(change.getPath(), change.getNewValue());
+            }
+        }
+        return map;
+    }
+
+    /***
+     * Aplica o diff em uma arvore JSON do Gson, alterando apenas as subarvores dos caminhos do diff
+     * Caminhos removidos que nao existem na arvore sao ignorados
+     * @param root Raiz da arvore, JsonObject ou JsonArray, alterada no lugar
+     * @return A mesma raiz
+     * @throws IllegalArgumentException quando um caminho nao corresponde a estrutura da arvore
+     */
+    public JsonElement applyTo(JsonElement root) {
+        if (!root.isJsonObject() && !root.isJsonArray()) {
+            throw new IllegalArgumentException("JSON root must be an object or an array to apply a diff");
+        }
+        List<JsonPathKey> removed = new ArrayList<>();
+        for (PathChange change : changes) {
+            if (change.getType() == PathChange.Type.REMOVED) {
+                removed.add(JsonPathParser.parse(change.getPath()));
+            }
+        }
+        removed.sort(DEEPEST_FIRST);
+        Map<JsonArray, BitSet> holes = new IdentityHashMap<>();
+        for (JsonPathKey path : removed) {
+            remove(root, path, holes);
+        }
+        for (PathChange change : changes) {
+            if (change.getType() != PathChange.Type.REMOVED) {
+                set(root, JsonPathParser.parse(change.getPath()), toJsonElement(change.getNewValue()));
+            }
+        }
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return changes.toString();
+    }
+
+    /***
+     * Remove o caminho e sobe pelos ancestrais removendo os objetos e arrays que ficaram vazios,
+     * como acontece ao remontar o JSON a partir do Map sem as chaves removidas
+     * @param holes Posicoes de cada array esvaziadas pelo diff, que saem quando ficam no fim do array
+     */
+    private static void remove(JsonElement root, JsonPathKey path, Map<JsonArray, BitSet> holes) {
+        JsonPathKey[] segments = path.segments();
+        if (segments.length == 0) {
+            return;
+        }
+        JsonElement[] containers = new JsonElement[segments.length];
+        containers[0] = root;
+        for (int i = 1; i < segments.length; i++) {
+            containers[i] = getChild(containers[i - 1], segments[i - 1]);
+            if (containers[i] == null) {
+                return;
+            }
+        }
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (!removeChild(containers[i], segments[i], holes) || i == 0 || !isEmptyContainer(containers[i])) {
+                return;
+            }
+        }
+    }
+
+    private static boolean removeChild(JsonElement container, JsonPathKey segment, Map<JsonArray, BitSet> holes) {
+        if (container.isJsonObject() && !segment.isIndex()) {
+            return container.getAsJsonObject().remove(segment.name()) != null;
+        }
+        if (!container.isJsonArray() || !segment.isIndex() || segment.index() >= container.getAsJsonArray().size()) {
+            return false;
+        }
+        // Remover do meio deslocaria os indices seguintes, que continuam no Map; a posicao vira null
+        // e so sai do array quando todas as posicoes depois dela tambem forem removidas
+        JsonArray array = container.getAsJsonArray();
+        BitSet removed = holes.computeIfAbsent(array, a -> new BitSet());
+        array.set(segment.index(), JsonNull.INSTANCE);
+        removed.set(segment.index());
+        while (array.size() > 0 && removed.get(array.size() - 1)) {
+            removed.clear(array.size() - 1);
+            array.remove(array.size() - 1);
+        }
+        return true;
+    }
+
+    private static void set(JsonElement root, JsonPathKey path, JsonElement value) {
+        JsonPathKey[] segments = path.segments();
+        if (segments.length == 0) {
+            throw new IllegalArgumentException("JSONPath $ can not be replaced by a diff");
+        }
+        JsonElement current = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            JsonElement child = getChild(current, segments[i], path);
+            boolean array = segments[i + 1].isIndex();
+            if (child == null || !(array ? child.isJsonArray() : child.isJsonObject())) {
+                if (child != null && !child.isJsonNull() && !child.isJsonPrimitive() && !isEmptyContainer(child)) {
+                    throw new IllegalArgumentException("JSONPath " + path + " conflicts with a value already in the JSON");
+                }
+                child = array ? new JsonArray() : new JsonObject();
+                setChild(current, segments[i], child);
+            }
+            current = child;
+        }
+        // Valida que o ultimo segmento e do mesmo tipo do container antes de substituir o valor
+        getChild(current, segments[segments.length - 1], path);
+        setChild(current, segments[segments.length - 1], value);
+    }
+
+    private static JsonElement getChild(JsonElement container, JsonPathKey segment) {
+        if (container.isJsonObject() && !segment.isIndex()) {
+            return container.getAsJsonObject().get(segment.name());
+        }
+        if (container.isJsonArray() && segment.isIndex() && segment.index() < container.getAsJsonArray().size()) {
+            return container.getAsJsonArray().get(segment.index());
+        }
+        return null;
+    }
+
+    private static JsonElement getChild(JsonElement container, JsonPathKey segment, JsonPathKey path) {
+        if (container.isJsonArray() != segment.isIndex()) {
+            throw new IllegalArgumentException("JSONPath " + path + " mixes array indices and property names on the same level");
+        }
+        return getChild(container, segment);
+    }
+
+    private static void setChild(JsonElement container, JsonPathKey segment, JsonElement value) {
+        if (container.isJsonObject()) {
+            container.getAsJsonObject().add(segment.name(), value);
+            return;
+        }
+        JsonArray array = container.getAsJsonArray();
+        JsonLimits.checkArrayIndex(segment.index());
+        while (array.size() <= segment.index()) {
+            array.add(JsonNull.INSTANCE);
+        }
+        array.set(segment.index(), value);
+    }
+
+    private static boolean isEmptyContainer(JsonElement element) {
+        return (element.isJsonObject() && element.getAsJsonObject().size() == 0)
+                || (element.isJsonArray() && element.getAsJsonArray().size() == 0);
+    }
+
+    private static JsonElement toJsonElement(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (value instanceof Utf8) {
+            value = value.toString();
+        }
+        return GSON.toJsonTree(value);
+    }
+
+    private static boolean valueEquals(Object a, Object b) {
+        if (a instanceof CharSequence && b instanceof CharSequence) {
+            return a.toString().equals(b.toString());
+        }
+        return Objects.equals(a, b);
+    }
+}
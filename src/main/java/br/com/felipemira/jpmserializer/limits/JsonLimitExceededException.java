@@ -0,0 +1,32 @@
+package br.com.felipemira.jpmserializer.limits;
+
+import lombok.Getter;
+
+/***
+ Documento ou Map que ultrapassa um dos limites do JsonLimits
+ Estende IllegalArgumentException, entao quem ja trata entradas invalidas continua tratando este caso
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+public class JsonLimitExceededException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Limite ultrapassado */
+    private final JsonLimits.Limit limit;
+
+    /* Valor maximo configurado */
+    private final long maximum;
+
+    /* Valor encontrado quando a leitura parou */
+    private final long actual;
+
+    public JsonLimitExceededException(JsonLimits.Limit limit, long maximum, long actual) {
+        super("JSON exceeds the " + limit + " limit of " + maximum + " (found " + actual + ")");
+        this.limit = limit;
+        this.maximum = maximum;
+        this.actual = actual;
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.felipemira.jpmserializer.limits;
+
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/***
+ Limites de tamanho e formato para documentos vindos de fontes nao confiaveis
+ Os limites sao conferidos durante a leitura (tokenizador e achatamento) e durante a montagem do JSON no Deserialize,
+ sem uma passada previa; o primeiro limite ultrapassado interrompe a conversao com JsonLimitExceededException
+ Campos nao informados no builder ficam sem limite
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class JsonLimits {
+
+    private static final JsonLimits UNLIMITED = JsonLimits.builder().build();
+
+    /* Maior array montado a partir de um Map, mesmo sem limites configurados: os indices ausentes viram null,
+       entao uma unica chave com indice alto alocaria ou escreveria o array inteiro */
+    public static final int MAX_ARRAY_LENGTH = Integer.getInteger("jpmserializer.maxArrayLength", 1 << 24);
+
+    /* Maior quantidade de objetos e arrays aninhados, contando o container raiz como 1 */
+    @Builder.Default
+    private final int maxDepth = Integer.MAX_VALUE;
+
+    /* Maior quantidade de entradas no Map de um documento */
+    @Builder.Default
+    private final long maxLeaves = Long.MAX_VALUE;
+
+    /* Maior tamanho de uma chave JSONPath, em caracteres; no JSON lido vale tambem para cada nome de propriedade */
+    @Builder.Default
+    private final int maxKeyLength = Integer.MAX_VALUE;
+
+    /* Maior quantidade de elementos de um array; no Deserialize, maior indice + 1 */
+    @Builder.Default
+    private final int maxArrayLength = Integer.MAX_VALUE;
+
+    /* Maior tamanho de um documento lido, em caracteres (bytes para JSON ASCII) */
+    @Builder.Default
+    private final long maxInputLength = Long.MAX_VALUE;
+
+    /***
+     * Sem nenhum limite, o comportamento quando o Serialize ou Deserialize nao recebe limites
+     * @return Limites
+     */
+    public static JsonLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /***
+     * Limites sugeridos para payloads de servicos: 256 niveis, 1.000.000 de folhas, chaves de 4.096 caracteres,
+     * arrays de 100.000 elementos e documentos de 64 MB
+     * @return Limites
+     */
+    public static JsonLimits defaults() {
+        return JsonLimits.builder()
+                .maxDepth(256)
+                .maxLeaves(1_000_000)
+                .maxKeyLength(4_096)
+                .maxArrayLength(100_000)
+                .maxInputLength(64L * 1024 * 1024)
+                .build();
+    }
+
+    public void checkDepth(int depth) {
+        if (depth > maxDepth) {
+            throw new JsonLimitExceededException(Limit.DEPTH, maxDepth, depth);
+        }
+    }
+
+    public void checkLeaves(long leaves) {
+        if (leaves > maxLeaves) {
+            throw new JsonLimitExceededException(Limit.LEAVES, maxLeaves, leaves);
+        }
+    }
+
+    public void checkKeyLength(int length) {
+        if (length > maxKeyLength) {
+            throw new JsonLimitExceededException(Limit.KEY_LENGTH, maxKeyLength, length);
+        }
+    }
+
+    public void checkArrayLength(long length) {
+        if (length > maxArrayLength) {
+            throw new JsonLimitExceededException(Limit.ARRAY_LENGTH, maxArrayLength, length);
+        }
+    }
+
+    public void checkInputLength(long length) {
+        if (length > maxInputLength) {
+            throw new JsonLimitExceededException(Limit.INPUT_LENGTH, maxInputLength, length);
+        }
+    }
+
+    /***
+     * Confere o indice de um array montado a partir de um Map contra MAX_ARRAY_LENGTH, que vale mesmo sem limites
+     * @param index Indice do array
+     */
+    public static void checkArrayIndex(int index) {
+        if (index >= MAX_ARRAY_LENGTH) {
+            throw new JsonLimitExceededException(Limit.ARRAY_LENGTH, MAX_ARRAY_LENGTH, index + 1L);
+        }
+    }
+
+    /***
+     * Confere profundidade, tamanho e indices de uma chave do Map, subindo pelos segmentos uma unica vez
+     * A profundidade de uma folha conta os containers acima dela, como na leitura do JSON
+     * @param path Chave ja lida
+     */
+    public void checkPath(JsonPathKey path) {
+        if (this == UNLIMITED) {
+            return;
+        }
+        checkKeyLength(path.length());
+        checkDepth(path.depth());
+        for (JsonPathKey node = path; !node.isRoot(); node = node.parent()) {
+            if (node.isIndex()) {
+                checkArrayLength(node.index() + 1L);
+            }
+        }
+    }
+
+    /***
+     * Limite ultrapassado
+     */
+    public enum Limit {
+        DEPTH,
+        LEAVES,
+        KEY_LENGTH,
+        ARRAY_LENGTH,
+        INPUT_LENGTH
+    }
+}
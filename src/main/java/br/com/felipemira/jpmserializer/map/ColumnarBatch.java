@@ -0,0 +1,301 @@
+package br.com.felipemira.jpmserializer.map;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/***
+ Lote de documentos achatados em formato colunar: cada JSONPath e guardado uma unica vez em um dicionario
+ e cada documento vira uma linha de valores indexada pelo id da chave
+ Linhas com a maioria das chaves do dicionario ficam densas (um Object[] por id); linhas esparsas guardam
+ apenas os ids presentes, entao documentos com caminhos diferentes tambem sao aceitos
+ As linhas mantem a ordem de insercao do documento, como o JsonPathMap
+ row(i) devolve uma visao Map somente leitura da linha, sem copiar, que pode ir direto para o Deserialize
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class ColumnarBatch {
+
+    /* Marca um caminho ausente em uma linha densa, para diferenciar de um valor null */
+    private static final Object MISSING = new Object();
+
+    private final JsonPathMap ids = new JsonPathMap();
+    private CharSequence[] keys = new CharSequence[16];
+
+    /* Marca e posicao de cada id na linha em montagem, para descartar chaves repetidas sem busca */
+    private int[] marks = new int[16];
+    private int[] positions = new int[16];
+
+    private Row[] rows = new Row[16];
+    private int rowCount;
+
+    /***
+     * Cria um lote com os documentos informados
+     * @param documents Documentos achatados
+     * @return Lote
+     */
+    public static ColumnarBatch of(Collection<? extends Map<? extends CharSequence, ?>> documents) {
+        ColumnarBatch batch = new ColumnarBatch();
+        for (Map<? extends CharSequence, ?> document : documents) {
+            batch.add(document);
+        }
+        return batch;
+    }
+
+    /***
+     * Adiciona um documento ao lote, registrando no dicionario os caminhos novos
+     * @param document Documento achatado
+     * @return Indice da linha criada
+     */
+    public int add(Map<? extends CharSequence, ?> document) {
+        int size = document.size();
+        int[] rowIds = new int[size];
+        Object[] values = new Object[size];
+        int stamp = rowCount + 1;
+        int count = 0;
+        boolean ascending = true;
+        for (Map.Entry<? extends CharSequence, ?> entry : document.entrySet()) {
+            int id = idFor(entry.getKey());
+            if (marks[id] == stamp) {
+                // Chaves String e JsonPathKey equivalentes caem no mesmo id; o ultimo valor prevalece, como no put
+                values[positions[id]] = entry.getValue();
+                continue;
+            }
+            marks[id] = stamp;
+            positions[id] = count;
+            ascending &= count == 0 || rowIds[count - 1] < id;
+            rowIds[count] = id;
+            values[count] = entry.getValue();
+            count++;
+        }
+
+        // A linha densa percorre os ids em ordem, entao so e usada quando isso preserva a ordem do documento
+        Row row;
+        int keyCount = ids.size();
+        if (ascending && count * 2 >= keyCount) {
+            Object[] dense = new Object[keyCount];
+            Arrays.fill(dense, MISSING);
+            for (int i = 0; i < count; i++) {
+                dense[rowIds[i]] = values[i];
+            }
+            row = new Row(null, dense, count, true);
+        } else if (count < size) {
+            row = new Row(Arrays.copyOf(rowIds, count), Arrays.copyOf(values, count), count, ascending);
+        } else {
+            row = new Row(rowIds, values, count, ascending);
+        }
+
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rowCount * 2);
+        }
+        rows[rowCount] = row;
+        return rowCount++;
+    }
+
+    /***
+     * Quantidade de documentos no lote
+     * @return Quantidade de linhas
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /***
+     * Quantidade de caminhos distintos no dicionario
+     * @return Quantidade de chaves
+     */
+    public int keyCount() {
+        return ids.size();
+    }
+
+    /***
+     * Caminho associado a um id do dicionario
+     * @param id Id da chave
+     * @return JSONPath
+     */
+    public CharSequence key(int id) {
+        if (id < 0 || id >= ids.size()) {
+            throw new IndexOutOfBoundsException("Key id " + id + " out of range: " + ids.size());
+        }
+        return keys[id];
+    }
+
+    /***
+     * Id de um caminho no dicionario
+     * @param path JSONPath
+     * @return Id da chave, ou -1 quando nenhum documento tem o caminho
+     */
+    public int keyId(CharSequence path) {
+        Object id = ids.get(path);
+        return id == null ? -1 : (Integer) id;
+    }
+
+    /***
+     * Valor de um caminho em uma linha
+     * @param row Indice da linha
+     * @param path JSONPath
+     * @return Valor, ou null quando o documento nao tem o caminho
+     */
+    public Object get(int row, CharSequence path) {
+        Object value = ((Row) row(row)).lookup(keyId(path));
+        return value == MISSING ? null : value;
+    }
+
+    /***
+     * Visao Map somente leitura de uma linha, sem copiar os valores
+     * @param row Indice da linha
+     * @return Documento achatado
+     */
+    public Map<CharSequence, Object> row(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range: " + rowCount);
+        }
+        return rows[row];
+    }
+
+    /***
+     * Visao de todas as linhas como lista de Maps, sem copiar
+     * @return Documentos achatados
+     */
+    public List<Map<CharSequence, Object>> rows() {
+        return new AbstractList<Map<CharSequence, Object>>() {
+            @Override
+            public Map<CharSequence, Object> get(int index) {
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    private int idFor(CharSequence key) {
+        int id = ids.size();
+        Object existing = ids.putIfAbsent(key, id);
+        if (existing != null) {
+            return (Integer) existing;
+        }
+        if (id == keys.length) {
+            keys = Arrays.copyOf(keys, id * 2);
+            marks = Arrays.copyOf(marks, id * 2);
+            positions = Arrays.copyOf(positions, id * 2);
+        }
+        keys[id] = key;
+        return id;
+    }
+
+    /***
+     * Linha do lote: densa quando rowIds e null (values indexado pelo id), esparsa na ordem do documento caso contrario
+     */
+    private final class Row extends AbstractMap<CharSequence, Object> {
+
+        private final int[] rowIds;
+        private final Object[] values;
+        private final int size;
+        private final boolean sorted;
+
+        private Row(int[] rowIds, Object[] values, int size, boolean sorted) {
+            this.rowIds = rowIds;
+            this.values = values;
+            this.size = size;
+            this.sorted = sorted;
+        }
+
+        private Object lookup(int id) {
+            if (id < 0) {
+                return MISSING;
+            }
+            if (rowIds == null) {
+                return id < values.length ? values[id] : MISSING;
+            }
+            if (sorted) {
+                int index = Arrays.binarySearch(rowIds, 0, size, id);
+                return index >= 0 ? values[index] : MISSING;
+            }
+            for (int i = 0; i < size; i++) {
+                if (rowIds[i] == id) {
+                    return values[i];
+                }
+            }
+            return MISSING;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof CharSequence && lookup(keyId((CharSequence) key)) != MISSING;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof CharSequence)) {
+                return null;
+            }
+            Object value = lookup(keyId((CharSequence) key));
+            return value == MISSING ? null : value;
+        }
+
+        @Override
+        public Set<Map.Entry<CharSequence, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<CharSequence, Object>>() {
+                @Override
+                public Iterator<Map.Entry<CharSequence, Object>> iterator() {
+                    return new RowIterator(Row.this);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    private final class RowIterator implements Iterator<Map.Entry<CharSequence, Object>> {
+
+        private final Row row;
+        private int position;
+        private int remaining;
+
+        private RowIterator(Row row) {
+            this.row = row;
+            this.remaining = row.size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, Object> next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            if (row.rowIds != null) {
+                int index = position++;
+                return new AbstractMap.SimpleImmutableEntry<>(keys[row.rowIds[index]], row.values[index]);
+            }
+            while (row.values[position] == MISSING) {
+                position++;
+            }
+            int id = position++;
+            return new AbstractMap.SimpleImmutableEntry<>(keys[id], row.values[id]);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package br.com.felipemira.jpmserializer.map;
+
+import java.util.Map;
+
+/***
+ JsonPathMap que guarda folhas numericas e booleanas em colunas primitivas, sem objetos boxed
+ Cada entrada tem um tipo: int, long, double e boolean ficam em um long[] (double pelos bits) e os demais
+ valores na coluna de referencias; o valor so e convertido em Integer, Long, Double ou Boolean no get
+ Os acessores tipados (getDouble, getLong, ...) leem a coluna primitiva direto, sem boxing
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public class CompactJsonPathMap extends JsonPathMap {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte REF = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private byte[] types;
+    private long[] bits;
+
+    public CompactJsonPathMap() {
+        super();
+        allocate();
+    }
+
+    /***
+     * Cria o mapa ja dimensionado
+     * @param expectedSize Quantidade esperada de entradas
+     */
+    public CompactJsonPathMap(int expectedSize) {
+        super(expectedSize);
+        allocate();
+    }
+
+    /***
+     * Cria uma copia de outro mapa de JSONPaths, convertendo as folhas boxed para as colunas primitivas
+     * @param map Mapa copiado
+     */
+    public CompactJsonPathMap(Map<? extends CharSequence, ?> map) {
+        super(map.size());
+        allocate();
+        putAll(map);
+    }
+
+    private void allocate() {
+        types = new byte[capacity()];
+        bits = new long[capacity()];
+    }
+
+    /***
+     * Associa um int ao caminho sem criar um Integer
+     * @param path JSONPath
+     * @param value Valor
+     */
+    public void putInt(CharSequence path, int value) {
+        storePrimitive(path, INT, value);
+    }
+
+    /***
+     * Associa um long ao caminho sem criar um Long
+     * @param path JSONPath
+     * @param value Valor
+     */
+    public void putLong(CharSequence path, long value) {
+        storePrimitive(path, LONG, value);
+    }
+
+    /***
+     * Associa um double ao caminho sem criar um Double
+     * @param path JSONPath
+     * @param value Valor
+     */
+    public void putDouble(CharSequence path, double value) {
+        storePrimitive(path, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /***
+     * Associa um boolean ao caminho
+     * @param path JSONPath
+     * @param value Valor
+     */
+    public void putBoolean(CharSequence path, boolean value) {
+        storePrimitive(path, BOOLEAN, value ? 1 : 0);
+    }
+
+    /***
+     * Le a folha numerica como int, com a mesma conversao de Number.intValue
+     * @param path JSONPath
+     * @return Valor
+     * @throws IllegalArgumentException quando o caminho nao existe ou nao e numerico
+     */
+    public int getInt(CharSequence path) {
+        int index = numberIndex(path);
+        switch (types[index]) {
+            case INT:
+            case LONG:
+                return (int) bits[index];
+            case DOUBLE:
+                return (int) Double.longBitsToDouble(bits[index]);
+            default:
+                return ((Number) super.valueAt(index)).intValue();
+        }
+    }
+
+    /***
+     * Le a folha numerica como long, com a mesma conversao de Number.longValue
+     * @param path JSONPath
+     * @return Valor
+     * @throws IllegalArgumentException quando o caminho nao existe ou nao e numerico
+     */
+    public long getLong(CharSequence path) {
+        int index = numberIndex(path);
+        switch (types[index]) {
+            case INT:
+            case LONG:
+                return bits[index];
+            case DOUBLE:
+                return (long) Double.longBitsToDouble(bits[index]);
+            default:
+                return ((Number) super.valueAt(index)).longValue();
+        }
+    }
+
+    /***
+     * Le a folha numerica como double, com a mesma conversao de Number.doubleValue
+     * @param path JSONPath
+     * @return Valor
+     * @throws IllegalArgumentException quando o caminho nao existe ou nao e numerico
+     */
+    public double getDouble(CharSequence path) {
+        int index = numberIndex(path);
+        switch (types[index]) {
+            case INT:
+            case LONG:
+                return bits[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(bits[index]);
+            default:
+                return ((Number) super.valueAt(index)).doubleValue();
+        }
+    }
+
+    /***
+     * Le a folha booleana
+     * @param path JSONPath
+     * @return Valor
+     * @throws IllegalArgumentException quando o caminho nao existe ou nao e booleano
+     */
+    public boolean getBoolean(CharSequence path) {
+        int index = existingIndex(path);
+        if (types[index] == BOOLEAN) {
+            return bits[index] != 0;
+        }
+        Object value = super.valueAt(index);
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("JSONPath " + path + " is not mapped to a boolean");
+        }
+        return (Boolean) value;
+    }
+
+    @Override
+    Object valueAt(int index) {
+        long value = bits[index];
+        switch (types[index]) {
+            case INT:
+                return (int) value;
+            case LONG:
+                return value;
+            case DOUBLE:
+                return Double.longBitsToDouble(value);
+            case BOOLEAN:
+                return value != 0;
+            default:
+                return super.valueAt(index);
+        }
+    }
+
+    @Override
+    Object storeValue(int index, Object value) {
+        Object previous = valueAt(index);
+        if (value instanceof Integer) {
+            setPrimitive(index, INT, (Integer) value);
+        } else if (value instanceof Long) {
+            setPrimitive(index, LONG, (Long) value);
+        } else if (value instanceof Double) {
+            setPrimitive(index, DOUBLE, Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            setPrimitive(index, BOOLEAN, (Boolean) value ? 1 : 0);
+        } else {
+            types[index] = REF;
+            bits[index] = 0;
+            super.storeValue(index, value);
+        }
+        return previous;
+    }
+
+    @Override
+    void clearValue(int index) {
+        types[index] = REF;
+        bits[index] = 0;
+        super.clearValue(index);
+    }
+
+    @Override
+    void compactValues(int capacity, int[] source, int count) {
+        super.compactValues(capacity, source, count);
+        byte[] newTypes = new byte[capacity];
+        long[] newBits = new long[capacity];
+        for (int i = 0; i < count; i++) {
+            newTypes[i] = types[source[i]];
+            newBits[i] = bits[source[i]];
+        }
+        types = newTypes;
+        bits = newBits;
+    }
+
+    private void storePrimitive(CharSequence path, byte type, long value) {
+        int index = slot(path);
+        setPrimitive(index < 0 ? -index - 1 : index, type, value);
+    }
+
+    private void setPrimitive(int index, byte type, long value) {
+        super.storeValue(index, null);
+        types[index] = type;
+        bits[index] = value;
+    }
+
+    private int existingIndex(CharSequence path) {
+        int index = indexOf(path);
+        if (index < 0) {
+            throw new IllegalArgumentException("JSONPath " + path + " is not mapped");
+        }
+        return index;
+    }
+
+    private int numberIndex(CharSequence path) {
+        int index = existingIndex(path);
+        byte type = types[index];
+        if (type == BOOLEAN || (type == REF && !(super.valueAt(index) instanceof Number))) {
+            throw new IllegalArgumentException("JSONPath " + path + " is not mapped to a number");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,385 @@
+package br.com.felipemira.jpmserializer.map;
+
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/***
+ Map de JSONPath para valor que compara as chaves pelo conteudo
+ Aceita chaves JsonPathKey e String misturadas: get("$['a']") encontra a chave JsonPathKey equivalente
+ Esse contrato e do JsonPathMap (e dos demais Maps devolvidos pelo Serialize): new HashMap<>(map) mantem as chaves
+ JsonPathKey e deixa de encontrar buscas por String; copias para Maps padrao devem usar key.toString()
+ As entradas ficam em arrays densos na ordem de insercao, com uma tabela de indices por hash,
+ sem alocar um no por entrada como o HashMap
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public class JsonPathMap extends AbstractMap<CharSequence, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private CharSequence[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int[] table;
+    private int used;
+    private int size;
+    private transient int modCount;
+    private transient Set<Map.Entry<CharSequence, Object>> entrySet;
+
+    public JsonPathMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /***
+     * Cria o mapa ja dimensionado
+     * @param expectedSize Quantidade esperada de entradas
+     */
+    public JsonPathMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        keys = new CharSequence[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        table = new int[tableSizeFor(capacity)];
+    }
+
+    /***
+     * Cria uma copia de outro mapa de JSONPaths
+     * @param map Mapa copiado
+     */
+    public JsonPathMap(Map<? extends CharSequence, ?> map) {
+        this(map.size());
+        for (Map.Entry<? extends CharSequence, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @Override
+    public Object put(CharSequence key, Object value) {
+        int index = slot(key);
+        if (index < 0) {
+            storeValue(-index - 1, value);
+            return null;
+        }
+        return storeValue(index, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = valueAt(index);
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < used; i++) {
+            clearValue(i);
+        }
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(table, 0);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<CharSequence, Object>> entrySet() {
+        Set<Map.Entry<CharSequence, Object>> result = entrySet;
+        if (result == null) {
+            result = new EntrySet();
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /***
+     * Posicao da chave nos arrays, inserindo a chave sem valor quando ainda nao existe
+     * @param key Chave
+     * @return Posicao da chave existente, ou -(posicao + 1) quando a chave foi inserida
+     */
+    int slot(CharSequence key) {
+        if (key == null) {
+            throw new NullPointerException("JSONPath key must not be null");
+        }
+        int hash = key.hashCode();
+        int index = indexOf(key, hash);
+        if (index >= 0) {
+            return index;
+        }
+        if (used == keys.length) {
+            grow();
+        }
+        keys[used] = key;
+        hashes[used] = hash;
+        insertSlot(table, hash, used);
+        used++;
+        size++;
+        modCount++;
+        return -used;
+    }
+
+    /* Leitura e escrita dos valores por posicao, sobrescritas por mapas que guardam valores em outras colunas */
+
+    Object valueAt(int index) {
+        return values[index];
+    }
+
+    Object storeValue(int index, Object value) {
+        Object previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    void clearValue(int index) {
+        values[index] = null;
+    }
+
+    /***
+     * Reorganiza as colunas de valores quando os arrays crescem
+     * @param capacity Nova capacidade
+     * @param source Posicao antiga de cada entrada mantida, na nova ordem
+     * @param count Quantidade de entradas mantidas
+     */
+    void compactValues(int capacity, int[] source, int count) {
+        Object[] newValues = new Object[capacity];
+        for (int i = 0; i < count; i++) {
+            newValues[i] = values[source[i]];
+        }
+        values = newValues;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    int indexOf(Object key) {
+        if (!(key instanceof CharSequence)) {
+            return -1;
+        }
+        return indexOf((CharSequence) key, key.hashCode());
+    }
+
+    private int indexOf(CharSequence key, int hash) {
+        int mask = table.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            int slot = table[i];
+            if (slot == 0) {
+                return -1;
+            }
+            int index = slot - 1;
+            CharSequence candidate = keys[index];
+            if (candidate != null && hashes[index] == hash && keyEquals(candidate, key)) {
+                return index;
+            }
+        }
+    }
+
+    private void removeAt(int index) {
+        keys[index] = null;
+        clearValue(index);
+        size--;
+        modCount++;
+    }
+
+    private void grow() {
+        // Entradas removidas sao descartadas ao crescer, mantendo a ordem de insercao
+        int capacity = size * 2 > keys.length ? keys.length * 2 : keys.length;
+        CharSequence[] newKeys = new CharSequence[capacity];
+        int[] newHashes = new int[capacity];
+        int[] newTable = new int[tableSizeFor(capacity)];
+        int[] source = new int[size];
+        int count = 0;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                newKeys[count] = keys[i];
+                newHashes[count] = hashes[i];
+                insertSlot(newTable, hashes[i], count);
+                source[count] = i;
+                count++;
+            }
+        }
+        compactValues(capacity, source, count);
+        keys = newKeys;
+        hashes = newHashes;
+        table = newTable;
+        used = count;
+    }
+
+    private static void insertSlot(int[] table, int hash, int index) {
+        int mask = table.length - 1;
+        int i = spread(hash) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = index + 1;
+    }
+
+    static boolean keyEquals(CharSequence stored, CharSequence key) {
+        if (stored == key) {
+            return true;
+        }
+        if (stored instanceof JsonPathKey) {
+            return stored.equals(key);
+        }
+        if (key instanceof JsonPathKey) {
+            return key.equals(stored);
+        }
+        return stored.equals(key);
+    }
+
+    static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+        return Math.max(size, 8);
+    }
+
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<CharSequence, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<CharSequence, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            JsonPathMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<CharSequence, Object>> {
+
+        private int next = advance(0);
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < used;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= used) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return new Entry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(current);
+            current = -1;
+            expectedModCount = modCount;
+        }
+
+        private int advance(int from) {
+            while (from < used && keys[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+
+    private final class Entry implements Map.Entry<CharSequence, Object> {
+
+        private final int index;
+        private final CharSequence key;
+
+        private Entry(int index) {
+            this.index = index;
+            this.key = keys[index];
+        }
+
+        @Override
+        public CharSequence getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return keys[index] == key ? valueAt(index) : null;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (keys[index] != key) {
+                throw new IllegalStateException("Entry was removed");
+            }
+            return storeValue(index, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            Object otherKey = other.getKey();
+            Object value = getValue();
+            return otherKey instanceof CharSequence && keyEquals(key, (CharSequence) otherKey)
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
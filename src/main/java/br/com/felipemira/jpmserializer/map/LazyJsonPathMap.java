@@ -0,0 +1,551 @@
+package br.com.felipemira.jpmserializer.map;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.parser.JsonToken;
+import br.com.felipemira.jpmserializer.parser.JsonTokenizer;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import com.jayway.jsonpath.PathNotFoundException;
+import net.minidev.json.JSONArray;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/***
+ Map de JSONPath para valor apoiado na arvore do documento, sem achatar o documento na criacao
+ O JSON e lido uma unica vez para uma arvore leve de arrays; get("$['a'][0]") desce pela arvore segmento a segmento
+ e as chaves JsonPathKey so sao montadas quando o Map e percorrido
+ Contem as mesmas chaves, valores e ordem que o Map do Serialize; a primeira alteracao copia as entradas
+ para um JsonPathMap e as demais operacoes passam a usar a copia
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class LazyJsonPathMap extends AbstractMap<CharSequence, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Posicao de um valor descartado pela projecao ou pelas opcoes; mantem os indices dos arrays */
+    private static final Object SKIPPED = new Object();
+
+    private static final Object MISSING = new Object();
+
+    private transient Node root;
+    private transient int size = -1;
+    private transient Set<Map.Entry<CharSequence, Object>> entrySet;
+    private JsonPathMap materialized;
+
+    private LazyJsonPathMap(Node root) {
+        this.root = root;
+    }
+
+    /***
+     * Le o proximo documento do tokenizador para a arvore do Map
+     * Subarvores fora da projecao sao puladas pelo tokenizador, como no JsonFlattener
+     * Os limites do tokenizador valem tambem para folhas e arrays; o tamanho das chaves fica limitado pelos nomes e pela profundidade
+     * @param tokenizer Tokenizador posicionado antes do documento
+     * @param projection Projecao, ou null para o documento inteiro
+     * @param skipNulls Descarta as folhas null
+     * @param skipEmptyContainers Descarta os arrays e objetos vazios
+     * @return Map sobre o documento
+     * @throws IllegalArgumentException quando a entrada nao tem documento
+     * @throws PathNotFoundException quando o documento nao tem folhas, como o $..* do json-path
+     */
+    public static LazyJsonPathMap parse(JsonTokenizer tokenizer, PathProjection projection, boolean skipNulls, boolean skipEmptyContainers) {
+        JsonToken token = tokenizer.next();
+        if (token == JsonToken.END_DOCUMENT) {
+            throw new IllegalArgumentException("JSON for create list of jsonPath is empty");
+        }
+        if (token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+            throw new PathNotFoundException("No results for path: $..[*]");
+        }
+
+        // Os caminhos so sao montados durante a leitura quando a projecao precisa deles
+        boolean projected = projection != null;
+        Node[] nodes = new Node[16];
+        JsonPathKey[] keys = projected ? new JsonPathKey[16] : null;
+        PathProjection.State[] states = projected ? new PathProjection.State[16] : null;
+        int[] sizes = new int[16];
+        int[] slots = new int[16];
+        int depth = 0;
+        nodes[0] = new Node(token == JsonToken.BEGIN_ARRAY);
+        if (projected) {
+            keys[0] = JsonPathKey.root();
+            states[0] = projection.root();
+        }
+        boolean found = false;
+        JsonLimits limits = tokenizer.limits();
+        long leaves = 0;
+
+        while (depth >= 0) {
+            Node node = nodes[depth];
+            PathProjection.State state = null;
+            JsonPathKey key = null;
+            String name = null;
+            if (node.array) {
+                boolean more;
+                if (projected && (state = states[depth].child(sizes[depth])).skips()) {
+                    more = tokenizer.skipValue();
+                    if (more) {
+                        node.add(null, SKIPPED);
+                        limits.checkArrayLength(++sizes[depth]);
+                        continue;
+                    }
+                } else {
+                    token = tokenizer.next();
+                    more = token != JsonToken.END_ARRAY;
+                }
+                if (!more) {
+                    found |= close(nodes, states, sizes, slots, depth, skipEmptyContainers);
+                    depth--;
+                    continue;
+                }
+                if (projected) {
+                    key = keys[depth].child(sizes[depth]);
+                }
+            } else {
+                token = tokenizer.next();
+                if (token == JsonToken.END_OBJECT) {
+                    found |= close(nodes, states, sizes, slots, depth, skipEmptyContainers);
+                    depth--;
+                    continue;
+                }
+                name = tokenizer.stringValue();
+                if (projected) {
+                    key = keys[depth].child(name);
+                    state = states[depth].child(key);
+                    if (state.skips()) {
+                        tokenizer.skipValue();
+                        sizes[depth]++;
+                        continue;
+                    }
+                }
+                token = tokenizer.next();
+            }
+            sizes[depth]++;
+            if (node.array) {
+                limits.checkArrayLength(sizes[depth]);
+            }
+
+            if (token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY) {
+                Node child = new Node(token == JsonToken.BEGIN_ARRAY);
+                int slot = node.add(name, child);
+                depth++;
+                if (depth == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, depth * 2);
+                    sizes = Arrays.copyOf(sizes, depth * 2);
+                    slots = Arrays.copyOf(slots, depth * 2);
+                    if (projected) {
+                        keys = Arrays.copyOf(keys, depth * 2);
+                        states = Arrays.copyOf(states, depth * 2);
+                    }
+                }
+                nodes[depth] = child;
+                sizes[depth] = 0;
+                slots[depth] = slot;
+                if (projected) {
+                    keys[depth] = key;
+                    states[depth] = state;
+                }
+                continue;
+            }
+
+            Object value;
+            if (state != null && !state.selects()) {
+                // Folha no caminho de um padrao que continua mais abaixo
+                value = SKIPPED;
+            } else {
+                found = true;
+                limits.checkLeaves(++leaves);
+                value = leafValue(tokenizer, token);
+                if (value == null && skipNulls) {
+                    value = SKIPPED;
+                }
+            }
+            node.add(name, value);
+        }
+
+        if (!found) {
+            throw new PathNotFoundException("No results for path: $..[*]");
+        }
+        return new LazyJsonPathMap(nodes[0]);
+    }
+
+    @Override
+    public int size() {
+        if (materialized != null) {
+            return materialized.size();
+        }
+        if (size < 0) {
+            size = count(root);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (materialized != null) {
+            return materialized.containsKey(key);
+        }
+        return lookup(key) != MISSING;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (materialized != null) {
+            return materialized.get(key);
+        }
+        Object value = lookup(key);
+        return value == MISSING ? null : value;
+    }
+
+    @Override
+    public Object put(CharSequence key, Object value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public Set<Map.Entry<CharSequence, Object>> entrySet() {
+        if (materialized != null) {
+            return materialized.entrySet();
+        }
+        Set<Map.Entry<CharSequence, Object>> result = entrySet;
+        if (result == null) {
+            result = new EntrySet();
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /***
+     * Indica se as entradas ainda sao lidas da arvore do documento, sem uma copia achatada
+     * @return false depois da primeira alteracao
+     */
+    public boolean isLazy() {
+        return materialized == null;
+    }
+
+    private JsonPathMap materialize() {
+        if (materialized == null) {
+            JsonPathMap map = new JsonPathMap(size());
+            for (Map.Entry<CharSequence, Object> entry : entrySet()) {
+                map.put(entry.getKey(), entry.getValue());
+            }
+            materialized = map;
+            root = null;
+            entrySet = null;
+        }
+        return materialized;
+    }
+
+    /* Serializa sempre a copia achatada; a arvore nao faz parte do formato */
+    private Object writeReplace() {
+        return materialized != null ? materialized : new JsonPathMap(this);
+    }
+
+    /***
+     * Desce pela arvore seguindo uma chave no formato gerado pelo Serialize: $['nome'][0]
+     * Outros formatos de JSONPath nao sao chaves do Map e nao sao encontrados
+     */
+    private Object lookup(Object key) {
+        if (!(key instanceof CharSequence)) {
+            return MISSING;
+        }
+        CharSequence path = (CharSequence) key;
+        int length = path.length();
+        if (length < 2 || path.charAt(0) != '$') {
+            return MISSING;
+        }
+        Object current = root;
+        int i = 1;
+        while (i < length) {
+            if (!(current instanceof Node) || path.charAt(i) != '[' || i + 1 >= length) {
+                return MISSING;
+            }
+            Node node = (Node) current;
+            char c = path.charAt(i + 1);
+            if (c == '\'') {
+                if (node.array) {
+                    return MISSING;
+                }
+                StringBuilder escaped = null;
+                int start = i + 2;
+                int j = start;
+                while (j < length && path.charAt(j) != '\'') {
+                    if (path.charAt(j) == '\\' && j + 1 < length) {
+                        if (escaped == null) {
+                            escaped = new StringBuilder().append(path, start, j);
+                        }
+                        j++;
+                    }
+                    if (escaped != null) {
+                        escaped.append(path.charAt(j));
+                    }
+                    j++;
+                }
+                if (j + 1 >= length || path.charAt(j + 1) != ']') {
+                    return MISSING;
+                }
+                String name = escaped != null ? escaped.toString() : path.subSequence(start, j).toString();
+                current = node.get(name);
+                i = j + 2;
+            } else {
+                if (!node.array) {
+                    return MISSING;
+                }
+                int j = i + 1;
+                int index = 0;
+                while (j < length && path.charAt(j) >= '0' && path.charAt(j) <= '9') {
+                    if (index > (Integer.MAX_VALUE - 9) / 10 || (j > i + 1 && index == 0)) {
+                        return MISSING;
+                    }
+                    index = index * 10 + (path.charAt(j) - '0');
+                    j++;
+                }
+                if (j == i + 1 || j >= length || path.charAt(j) != ']') {
+                    return MISSING;
+                }
+                current = index < node.size ? node.values[index] : MISSING;
+                i = j + 1;
+            }
+            if (current == SKIPPED) {
+                return MISSING;
+            }
+        }
+        // Containers com filhos nao sao entradas do Map, so as suas folhas
+        return current instanceof Node ? MISSING : current;
+    }
+
+    /***
+     * Fecha o container do topo da pilha; um container sem filhos vira a folha vazia no slot do pai
+     * @return true quando o container vazio foi selecionado
+     */
+    private static boolean close(Node[] nodes, PathProjection.State[] states, int[] sizes, int[] slots, int depth, boolean skipEmptyContainers) {
+        if (sizes[depth] > 0 || depth == 0) {
+            return false;
+        }
+        Node parent = nodes[depth - 1];
+        if (states != null && !states[depth].selects()) {
+            parent.values[slots[depth]] = SKIPPED;
+            return false;
+        }
+        if (skipEmptyContainers) {
+            parent.values[slots[depth]] = SKIPPED;
+        } else {
+            parent.values[slots[depth]] = nodes[depth].array ? new JSONArray() : new LinkedHashMap<>();
+        }
+        return true;
+    }
+
+    private static Object leafValue(JsonTokenizer tokenizer, JsonToken token) {
+        switch (token) {
+            case STRING:
+                return tokenizer.stringValue();
+            case NUMBER:
+                return tokenizer.numberValue();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case NULL:
+                return null;
+            default:
+                throw new IllegalStateException("Unexpected token " + token);
+        }
+    }
+
+    private static int count(Node root) {
+        int count = 0;
+        Node[] stack = new Node[16];
+        int top = 0;
+        stack[0] = root;
+        while (top >= 0) {
+            Node node = stack[top--];
+            for (int i = 0; i < node.size; i++) {
+                Object value = node.values[i];
+                if (value instanceof Node) {
+                    if (++top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top] = (Node) value;
+                } else if (value != SKIPPED) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /***
+     * Objeto ou array com filhos, em arrays paralelos na ordem do documento
+     * Nomes repetidos substituem o valor anterior mantendo a posicao, como o put do Map achatado
+     */
+    private static final class Node {
+
+        /* A partir desse tamanho o objeto ganha um indice por nome */
+        private static final int INDEX_THRESHOLD = 8;
+
+        private final boolean array;
+        private String[] names;
+        private Object[] values = new Object[4];
+        private int size;
+        private HashMap<String, Integer> index;
+
+        private Node(boolean array) {
+            this.array = array;
+            this.names = array ? null : new String[4];
+        }
+
+        private int add(String name, Object value) {
+            if (!array) {
+                int slot = slotOf(name);
+                if (slot >= 0) {
+                    values[slot] = value;
+                    return slot;
+                }
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                if (!array) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+            }
+            values[size] = value;
+            if (!array) {
+                names[size] = name;
+                if (index != null) {
+                    index.put(name, size);
+                } else if (size + 1 == INDEX_THRESHOLD) {
+                    index = new HashMap<>();
+                    for (int i = 0; i <= size; i++) {
+                        index.put(names[i], i);
+                    }
+                }
+            }
+            return size++;
+        }
+
+        private Object get(String name) {
+            int slot = slotOf(name);
+            return slot >= 0 ? values[slot] : MISSING;
+        }
+
+        private int slotOf(String name) {
+            if (index != null) {
+                Integer slot = index.get(name);
+                return slot != null ? slot : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<CharSequence, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<CharSequence, Object>> iterator() {
+            return new EntryIterator(root);
+        }
+
+        @Override
+        public int size() {
+            return LazyJsonPathMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object value = lookup(entry.getKey());
+            return value != MISSING && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+    }
+
+    /***
+     * Percorre a arvore em profundidade na ordem do documento, montando o JsonPathKey de cada folha
+     */
+    private static final class EntryIterator implements Iterator<Map.Entry<CharSequence, Object>> {
+
+        private Node[] nodes = new Node[16];
+        private JsonPathKey[] keys = new JsonPathKey[16];
+        private int[] positions = new int[16];
+        private int depth;
+        private Map.Entry<CharSequence, Object> next;
+
+        private EntryIterator(Node root) {
+            nodes[0] = root;
+            keys[0] = JsonPathKey.root();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, Object> next() {
+            Map.Entry<CharSequence, Object> entry = next;
+            if (entry == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int position = positions[depth];
+                if (position == node.size) {
+                    depth--;
+                    continue;
+                }
+                positions[depth]++;
+                Object value = node.values[position];
+                if (value == SKIPPED) {
+                    continue;
+                }
+                JsonPathKey key = node.array ? keys[depth].child(position) : keys[depth].child(node.names[position]);
+                if (value instanceof Node) {
+                    if (++depth == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                        positions = Arrays.copyOf(positions, depth * 2);
+                    }
+                    nodes[depth] = (Node) value;
+                    keys[depth] = key;
+                    positions[depth] = 0;
+                    continue;
+                }
+                next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+                return;
+            }
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.felipemira.jpmserializer.map;
+
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import br.com.felipemira.jpmserializer.writer.JsonUnflattener;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/***
+ Map de JSONPath para valor ordenado pelo caminho: ancestrais antes dos descendentes,
+ indices pela ordem numerica ($[2] antes de $[10]) e nomes pela ordem lexicografica
+ Todas as chaves de uma subarvore ficam contiguas, entao subtree("$['loja']['livro'][1]") e uma faixa da arvore,
+ sem percorrer as demais entradas
+ As chaves sao guardadas como JsonPathKey; buscas aceitam String em qualquer notacao aceita pelo JsonPathParser
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public class SortedJsonPathMap extends TreeMap<CharSequence, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    public SortedJsonPathMap() {
+        super(new PathOrder());
+    }
+
+    /***
+     * Cria uma copia ordenada de outro mapa de JSONPaths
+     * @param map Mapa copiado
+     */
+    public SortedJsonPathMap(Map<? extends CharSequence, ?> map) {
+        this();
+        putAll(map);
+    }
+
+    @Override
+    public Object put(CharSequence key, Object value) {
+        return super.put(JsonPathParser.parse(key), value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        JsonPathKey path = pathOf(key);
+        return path != null ? super.get(path) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        JsonPathKey path = pathOf(key);
+        return path != null && super.containsKey(path);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        JsonPathKey path = pathOf(key);
+        return path != null ? super.remove(path) : null;
+    }
+
+    /***
+     * Entradas do caminho informado e de todos os seus descendentes, em ordem
+     * A visao e ligada ao mapa: alteracoes dentro da faixa aparecem nos dois
+     * @param path JSONPath da subarvore, ex: $['loja']['livro'][1]
+     * @return Visao ordenada da subarvore, vazia quando o caminho nao existe
+     */
+    public NavigableMap<CharSequence, Object> subtree(CharSequence path) {
+        JsonPathKey prefix = JsonPathParser.parse(path);
+        return subMap(prefix, true, new SubtreeEnd(prefix), false);
+    }
+
+    private static JsonPathKey pathOf(Object key) {
+        if (!(key instanceof CharSequence)) {
+            return null;
+        }
+        try {
+            return JsonPathParser.parse((CharSequence) key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /***
+     * Ordem dos caminhos do JsonUnflattener, com o limite superior de subarvore usado por subtree
+     */
+    private static final class PathOrder implements Comparator<CharSequence>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(CharSequence a, CharSequence b) {
+            if (a instanceof SubtreeEnd) {
+                return -compareToEnd(b, (SubtreeEnd) a);
+            }
+            if (b instanceof SubtreeEnd) {
+                return compareToEnd(a, (SubtreeEnd) b);
+            }
+            return JsonUnflattener.compare(JsonPathParser.parse(a), JsonPathParser.parse(b));
+        }
+
+        private int compareToEnd(CharSequence key, SubtreeEnd end) {
+            JsonPathKey path = key instanceof SubtreeEnd ? ((SubtreeEnd) key).prefix : JsonPathParser.parse(key);
+            if (key instanceof SubtreeEnd) {
+                if (path.equals(end.prefix)) {
+                    return 0;
+                }
+                if (end.prefix.isWithin(path)) {
+                    return 1;
+                }
+            }
+            if (path.isWithin(end.prefix)) {
+                return -1;
+            }
+            return JsonUnflattener.compare(path, end.prefix);
+        }
+    }
+
+    /***
+     * Limite que fica depois de todos os descendentes do prefixo e antes do proximo irmao,
+     * para a subarvore ser um subMap sem criar um caminho sucessor
+     */
+    private static final class SubtreeEnd implements CharSequence {
+
+        private final JsonPathKey prefix;
+
+        private SubtreeEnd(JsonPathKey prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public int length() {
+            return prefix.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return prefix.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return prefix.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return prefix.toString();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.felipemira.jpmserializer.merge;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/***
+ Opcoes da combinacao de varios Maps achatados em um unico documento
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class MergeOptions {
+
+    /* Valor que fica quando mais de um Map define o mesmo caminho */
+    @Builder.Default
+    private final Conflict conflict = Conflict.LAST_WINS;
+
+    /* Como os arrays presentes em mais de um Map sao combinados */
+    @Builder.Default
+    private final ArrayMerge arrays = ArrayMerge.BY_INDEX;
+
+    /***
+     * Opcoes padrao: o ultimo Map vence e os arrays sao combinados indice a indice, como putAll em sequencia
+     * @return Opcoes
+     */
+    public static MergeOptions defaults() {
+        return MergeOptions.builder().build();
+    }
+
+    /***
+     * Politica para caminhos definidos por mais de um Map
+     */
+    public enum Conflict {
+
+        /* Os Maps sao aplicados em ordem e cada um sobrescreve os anteriores; um valor em um caminho substitui
+           a subarvore anterior e um caminho abaixo de um valor folha o transforma em objeto ou array */
+        LAST_WINS,
+
+        /* Como LAST_WINS, aplicando os Maps da lista do ultimo para o primeiro */
+        FIRST_WINS,
+
+        /* Lanca IllegalArgumentException quando dois Maps dao valores diferentes ao mesmo caminho
+           ou quando um define uma folha onde outro define filhos */
+        ERROR
+    }
+
+    /***
+     * Semantica dos arrays presentes em mais de um Map
+     */
+    public enum ArrayMerge {
+
+        /* Combina os elementos indice a indice: $[0] de um Map e $[1] de outro geram um array de dois elementos */
+        BY_INDEX,
+
+        /* O Map que vence a politica de conflito substitui o array inteiro, com os indices que ele define */
+        REPLACE
+    }
+}
@@ -0,0 +1,283 @@
+package br.com.felipemira.jpmserializer.merge;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import br.com.felipemira.jpmserializer.writer.JsonStructureSink;
+import br.com.felipemira.jpmserializer.writer.JsonUnflattener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/***
+ Combina varios Maps achatados e escreve o documento resultante em uma unica passada do JsonUnflattener
+ As entradas de todos os Maps vao para arrays paralelos e sao ordenadas pelo caminho uma unica vez;
+ como cada subarvore fica contigua, os conflitos sao resolvidos em uma varredura com uma pilha de ancestrais,
+ sem montar o Map combinado nem a arvore de Maps intermediaria
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class PathMerger {
+
+    private final JsonPathKey[] paths;
+    private final Object[] values;
+
+    /* Prioridade do Map de cada entrada: maior vence; em FIRST_WINS a ordem da lista e invertida */
+    private final int[] priorities;
+    private final int[] order;
+    private final boolean[] dropped;
+    private final MergeOptions options;
+    private final boolean strict;
+
+    private PathMerger(List<? extends Map<? extends CharSequence, ?>> maps, MergeOptions options, JsonLimits limits) {
+        int total = 0;
+        for (Map<? extends CharSequence, ?> map : maps) {
+            total += map.size();
+        }
+        limits.checkLeaves(total);
+        this.paths = new JsonPathKey[total];
+        this.values = new Object[total];
+        this.priorities = new int[total];
+        this.order = new int[total];
+        this.dropped = new boolean[total];
+        this.options = options;
+        this.strict = options.getConflict() == MergeOptions.Conflict.ERROR;
+
+        boolean reversed = options.getConflict() == MergeOptions.Conflict.FIRST_WINS;
+        int n = 0;
+        for (int m = 0; m < maps.size(); m++) {
+            int priority = reversed ? maps.size() - 1 - m : m;
+            for (Map.Entry<? extends CharSequence, ?> entry : maps.get(m).entrySet()) {
+                paths[n] = JsonPathParser.parse(entry.getKey());
+                limits.checkPath(paths[n]);
+                values[n] = entry.getValue();
+                priorities[n] = priority;
+                order[n] = n;
+                n++;
+            }
+        }
+    }
+
+    /***
+     * Combina os Maps e escreve o JSON no destino
+     * @param maps Maps achatados, na ordem em que as atualizacoes devem ser aplicadas
+     * @param options Politica de conflito e semantica dos arrays
+     * @param sink Destino dos eventos
+     */
+    public static void write(List<? extends Map<? extends CharSequence, ?>> maps, MergeOptions options, JsonStructureSink sink) {
+        write(maps, options, sink, JsonLimits.unlimited());
+    }
+
+    /***
+     * Combina os Maps conferindo os limites de cada chave na leitura das entradas; o limite de folhas vale para o total
+     * @param maps Maps achatados, na ordem em que as atualizacoes devem ser aplicadas
+     * @param options Politica de conflito e semantica dos arrays
+     * @param sink Destino dos eventos
+     * @param limits Limites das chaves
+     */
+    public static void write(List<? extends Map<? extends CharSequence, ?>> maps, MergeOptions options, JsonStructureSink sink,
+                             JsonLimits limits) {
+        new PathMerger(maps, options, limits).write(sink);
+    }
+
+    private void write(JsonStructureSink sink) {
+        JsonUnflattener.sort(paths, order);
+        if (options.getArrays() == MergeOptions.ArrayMerge.REPLACE) {
+            replaceArrays();
+        }
+        resolve();
+
+        JsonPathKey[] mergedPaths = new JsonPathKey[order.length];
+        Object[] mergedValues = new Object[order.length];
+        int size = 0;
+        for (int position : order) {
+            if (!dropped[position]) {
+                mergedPaths[size] = paths[position];
+                mergedValues[size] = values[position];
+                size++;
+            }
+        }
+        JsonUnflattener.write(mergedPaths, mergedValues, size, sink);
+    }
+
+    /***
+     * Em REPLACE, so o Map de maior prioridade entre os que escrevem dentro de um array fica com o array
+     * O array considerado e o mais externo do caminho, entao arrays aninhados seguem o array que os contem
+     */
+    private void replaceArrays() {
+        int from = 0;
+        while (from < order.length) {
+            JsonPathKey array = outermostArray(paths[order[from]]);
+            int to = from + 1;
+            if (array == null) {
+                from = to;
+                continue;
+            }
+            int max = priorities[order[from]];
+            while (to < order.length && array.equals(outermostArray(paths[order[to]]))) {
+                max = Math.max(max, priorities[order[to]]);
+                to++;
+            }
+            for (int k = from; k < to; k++) {
+                if (priorities[order[k]] < max) {
+                    if (strict) {
+                        throw new IllegalArgumentException("JSONPath array " + array + " is mapped by more than one map");
+                    }
+                    dropped[order[k]] = true;
+                }
+            }
+            from = to;
+        }
+    }
+
+    /***
+     * Agrupa as entradas com o mesmo caminho em nos e percorre os nos em ordem com uma pilha de ancestrais,
+     * calculando a maior prioridade acima (ancestrais e o proprio caminho) e abaixo (descendentes) de cada no
+     * Um no sobrevive quando nenhum Map de prioridade maior escreveu acima ou abaixo dele
+     */
+    private void resolve() {
+        int[] nodeStart = new int[order.length + 1];
+        int nodes = 0;
+        int k = 0;
+        while (k < order.length) {
+            if (dropped[order[k]]) {
+                k++;
+                continue;
+            }
+            nodeStart[nodes++] = k;
+            int next = k + 1;
+            while (next < order.length && (dropped[order[next]] || paths[order[next]].equals(paths[order[k]]))) {
+                next++;
+            }
+            k = next;
+        }
+        nodeStart[nodes] = order.length;
+
+        int[] nodePriority = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            nodePriority[node] = resolveSamePath(nodeStart[node], nodeStart[node + 1]);
+        }
+
+        int[] stack = new int[16];
+        int[] above = new int[16];
+        int[] belowMax = new int[16];
+        int[] belowMin = new int[16];
+        int[] ancestorMax = new int[nodes];
+        int top = -1;
+        for (int node = 0; node <= nodes; node++) {
+            JsonPathKey path = node < nodes ? pathOf(nodeStart[node]) : null;
+            while (top >= 0 && (path == null || !path.isWithin(pathOf(nodeStart[stack[top]])))) {
+                int closed = stack[top];
+                settle(closed, nodeStart, nodePriority[closed], ancestorMax[closed], belowMax[top], belowMin[top]);
+                if (top > 0) {
+                    belowMax[top - 1] = max(belowMax[top - 1], belowMax[top], nodePriority[closed]);
+                    belowMin[top - 1] = min(belowMin[top - 1], belowMin[top], nodePriority[closed]);
+                }
+                top--;
+            }
+            if (path == null) {
+                break;
+            }
+            ancestorMax[node] = top >= 0 ? above[top] : -1;
+            top++;
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+                above = Arrays.copyOf(above, top * 2);
+                belowMax = Arrays.copyOf(belowMax, top * 2);
+                belowMin = Arrays.copyOf(belowMin, top * 2);
+            }
+            stack[top] = node;
+            above[top] = Math.max(ancestorMax[node], nodePriority[node]);
+            belowMax[top] = -1;
+            belowMin[top] = Integer.MAX_VALUE;
+        }
+    }
+
+    /***
+     * Mantem so as entradas de maior prioridade de um caminho repetido
+     * @return Prioridade do caminho
+     */
+    private int resolveSamePath(int from, int to) {
+        int max = -1;
+        int winner = -1;
+        for (int k = from; k < to; k++) {
+            int position = order[k];
+            if (dropped[position]) {
+                continue;
+            }
+            if (winner >= 0 && priorities[position] != priorities[winner] && strict && !sameValue(values[winner], values[position])) {
+                throw new IllegalArgumentException("JSONPath " + paths[position] + " is mapped with different values by more than one map");
+            }
+            if (priorities[position] > max) {
+                max = priorities[position];
+                winner = position;
+            }
+        }
+        for (int k = from; k < to; k++) {
+            int position = order[k];
+            // Em ERROR os valores iguais de Maps diferentes ficam uma vez so; chaves repetidas no mesmo Map seguem para o JsonUnflattener
+            if (priorities[position] < max) {
+                dropped[position] = true;
+            }
+        }
+        return max;
+    }
+
+    /***
+     * Descarta o no quando um Map de prioridade maior escreveu no caminho de um ancestral ou abaixo dele
+     */
+    private void settle(int node, int[] nodeStart, int priority, int ancestorMax, int belowMax, int belowMin) {
+        boolean hasBelow = belowMax >= 0;
+        if (strict) {
+            boolean placeholder = isEmptyContainer(values[order[nodeStart[node]]]);
+            if (hasBelow && !placeholder && (belowMax != priority || belowMin != priority)) {
+                throw new IllegalArgumentException("JSONPath " + pathOf(nodeStart[node])
+                        + " is a value in one map and has children in another");
+            }
+            return;
+        }
+        if (ancestorMax > priority || belowMax > priority) {
+            for (int k = nodeStart[node]; k < nodeStart[node + 1]; k++) {
+                dropped[order[k]] = true;
+            }
+        }
+    }
+
+    private JsonPathKey pathOf(int k) {
+        return paths[order[k]];
+    }
+
+    private static JsonPathKey outermostArray(JsonPathKey path) {
+        JsonPathKey array = null;
+        for (JsonPathKey node = path; !node.isRoot(); node = node.parent()) {
+            if (node.isIndex()) {
+                array = node.parent();
+            }
+        }
+        return array;
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof CharSequence && b instanceof CharSequence) {
+            return a.toString().contentEquals((CharSequence) b);
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static boolean isEmptyContainer(Object value) {
+        return (value instanceof Map && ((Map<?, ?>) value).isEmpty())
+                || (value instanceof Collection && ((Collection<?>) value).isEmpty());
+    }
+
+    private static int max(int a, int b, int c) {
+        return Math.max(a, Math.max(b, c));
+    }
+
+    private static int min(int a, int b, int c) {
+        return Math.min(a, Math.min(b, c));
+    }
+}
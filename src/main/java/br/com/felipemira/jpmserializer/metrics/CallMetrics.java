@@ -0,0 +1,173 @@
+package br.com.felipemira.jpmserializer.metrics;
+
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/***
+ Metricas de uma chamada de Serialize ou Deserialize: duracao, tamanhos e formato do documento
+ A profundidade e a largura dos arrays sao lidas das chaves do Map achatado, entao refletem o que foi convertido
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CallMetrics {
+
+    /* Contador de bytes alocados por thread da JVM, null quando a JVM nao oferece */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+
+    private final Operation operation;
+    private final long durationNanos;
+
+    /* Tamanho do JSON lido em chars; no Deserialize, soma aproximada das chaves e Strings do Map */
+    private final long inputBytes;
+
+    /* Tamanho do JSON escrito em chars; 0 no Serialize */
+    private final long outputBytes;
+
+    /* Entradas do Map achatado */
+    private final int leafCount;
+
+    /* Maior quantidade de segmentos de um JSONPath */
+    private final int maxDepth;
+
+    /* Maior indice de array + 1 entre todos os arrays do documento */
+    private final int maxArrayWidth;
+
+    /* Bytes alocados pela thread durante a chamada, -1 quando a JVM nao mede */
+    private final long allocatedBytes;
+
+    /* Erro da chamada, null quando terminou com sucesso */
+    private final RuntimeException error;
+
+    /***
+     * Inicia a medicao de uma chamada
+     * @param operation Operacao medida
+     * @return Medicao em andamento
+     */
+    public static Probe start(Operation operation) {
+        return new Probe(operation);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return operation + "{durationNanos=" + durationNanos + ", inputBytes=" + inputBytes + ", outputBytes=" + outputBytes
+                + ", leafCount=" + leafCount + ", maxDepth=" + maxDepth + ", maxArrayWidth=" + maxArrayWidth
+                + ", allocatedBytes=" + allocatedBytes + (error != null ? ", error=" + error : "") + "}";
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // JVM sem o modulo jdk.management: as alocacoes ficam sem medicao
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /***
+     * Operacao medida
+     */
+    public enum Operation {
+        SERIALIZE,
+        DESERIALIZE
+    }
+
+    /***
+     * Medicao em andamento, criada antes da conversao e finalizada na mesma thread
+     */
+    public static final class Probe {
+
+        private final Operation operation;
+        private final long start;
+        private final long allocatedAtStart;
+
+        private Probe(Operation operation) {
+            this.operation = operation;
+            this.allocatedAtStart = allocatedBytes();
+            this.start = System.nanoTime();
+        }
+
+        /***
+         * Finaliza a medicao de um Serialize
+         * @param json JSON lido
+         * @param map Map gerado, ou null quando a chamada falhou
+         * @param error Erro da chamada, ou null
+         * @return Metricas
+         */
+        public CallMetrics finish(String json, Map<? extends CharSequence, ?> map, RuntimeException error) {
+            return finish(json != null ? json.length() : 0, 0, map, error);
+        }
+
+        /***
+         * Finaliza a medicao de um Deserialize
+         * @param map Map lido
+         * @param json JSON gerado, ou null quando a chamada falhou
+         * @param error Erro da chamada, ou null
+         * @return Metricas
+         */
+        public CallMetrics finish(Map<? extends CharSequence, ?> map, String json, RuntimeException error) {
+            return finish(-1, json != null ? json.length() : 0, map, error);
+        }
+
+        /* Com inputBytes -1, o tamanho da entrada e estimado pelas chaves e Strings do Map */
+        private CallMetrics finish(long inputBytes, long outputBytes, Map<? extends CharSequence, ?> map, RuntimeException error) {
+            long duration = System.nanoTime() - start;
+            long allocated = allocatedAtStart < 0 ? -1 : allocatedBytes() - allocatedAtStart;
+            int depth = 0;
+            int width = 0;
+            long mapBytes = 0;
+            if (map != null) {
+                for (Map.Entry<? extends CharSequence, ?> entry : map.entrySet()) {
+                    CharSequence key = entry.getKey();
+                    Object value = entry.getValue();
+                    mapBytes += key.length() + (value instanceof CharSequence ? ((CharSequence) value).length() : 8);
+                    JsonPathKey path = pathOf(key);
+                    if (path == null) {
+                        continue;
+                    }
+                    depth = Math.max(depth, path.depth());
+                    for (JsonPathKey node = path; node != null && !node.isRoot(); node = node.parent()) {
+                        if (node.isIndex()) {
+                            width = Math.max(width, node.index() + 1);
+                        }
+                    }
+                }
+            }
+            return new CallMetrics(operation, duration, inputBytes < 0 ? mapBytes : inputBytes, outputBytes,
+                    map != null ? map.size() : 0, depth, width, allocated, error);
+        }
+
+        private static JsonPathKey pathOf(CharSequence key) {
+            if (key instanceof JsonPathKey) {
+                return (JsonPathKey) key;
+            }
+            try {
+                return JsonPathParser.parse(key);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
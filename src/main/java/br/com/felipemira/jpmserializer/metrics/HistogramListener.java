@@ -0,0 +1,128 @@
+package br.com.felipemira.jpmserializer.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/***
+ MetricsListener que acumula as metricas em histogramas por operacao
+ Guarda tambem a chamada mais lenta de cada operacao, para localizar payloads patologicos
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class HistogramListener implements MetricsListener {
+
+    private final Map<CallMetrics.Operation, OperationHistograms> operations = new EnumMap<>(CallMetrics.Operation.class);
+
+    public HistogramListener() {
+        for (CallMetrics.Operation operation : CallMetrics.Operation.values()) {
+            operations.put(operation, new OperationHistograms());
+        }
+    }
+
+    @Override
+    public void onCall(CallMetrics metrics) {
+        operations.get(metrics.getOperation()).record(metrics);
+    }
+
+    /***
+     * Histogramas de uma operacao
+     * @param operation Operacao
+     * @return Histogramas acumulados desde a criacao ou o ultimo reset
+     */
+    public OperationHistograms histograms(CallMetrics.Operation operation) {
+        return operations.get(operation);
+    }
+
+    public void reset() {
+        for (OperationHistograms histograms : operations.values()) {
+            histograms.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return operations.toString();
+    }
+
+    /***
+     * Histogramas de cada metrica de uma operacao
+     */
+    @Getter
+    public static final class OperationHistograms {
+
+        private final Histogram durationNanos = new Histogram();
+        private final Histogram inputBytes = new Histogram();
+        private final Histogram outputBytes = new Histogram();
+        private final Histogram leafCount = new Histogram();
+        private final Histogram maxDepth = new Histogram();
+        private final Histogram maxArrayWidth = new Histogram();
+
+        /* Vazio quando a JVM nao mede alocacoes por thread */
+        private final Histogram allocatedBytes = new Histogram();
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder errors = new LongAdder();
+
+        @Getter(AccessLevel.NONE)
+        private final AtomicReference<CallMetrics> slowest = new AtomicReference<>();
+
+        private OperationHistograms() {
+        }
+
+        /***
+         * Quantidade de chamadas que terminaram com erro
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /***
+         * Chamada mais lenta registrada, null antes da primeira
+         */
+        public CallMetrics getSlowest() {
+            return slowest.get();
+        }
+
+        private void record(CallMetrics metrics) {
+            durationNanos.record(metrics.getDurationNanos());
+            inputBytes.record(metrics.getInputBytes());
+            outputBytes.record(metrics.getOutputBytes());
+            leafCount.record(metrics.getLeafCount());
+            maxDepth.record(metrics.getMaxDepth());
+            maxArrayWidth.record(metrics.getMaxArrayWidth());
+            if (metrics.getAllocatedBytes() >= 0) {
+                allocatedBytes.record(metrics.getAllocatedBytes());
+            }
+            if (!metrics.isSuccess()) {
+                errors.increment();
+            }
+            slowest.accumulateAndGet(metrics, (current, next) ->
+                    current == null || next.getDurationNanos() > current.getDurationNanos() ? next : current);
+        }
+
+        private void reset() {
+            durationNanos.reset();
+            inputBytes.reset();
+            outputBytes.reset();
+            leafCount.reset();
+            maxDepth.reset();
+            maxArrayWidth.reset();
+            allocatedBytes.reset();
+            errors.reset();
+            slowest.set(null);
+        }
+
+        @Override
+        public String toString() {
+            return "{durationNanos=" + durationNanos + ", inputBytes=" + inputBytes + ", leafCount=" + leafCount
+                    + ", maxDepth=" + maxDepth + ", maxArrayWidth=" + maxArrayWidth + ", allocatedBytes=" + allocatedBytes
+                    + ", errors=" + errors.sum() + "}";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.felipemira.jpmserializer.metrics;
+
+/***
+ Recebe as metricas de cada chamada instrumentada de Serialize e Deserialize
+ Chamado na thread da conversao, logo depois dela; implementacoes devem ser rapidas e thread safe
+ Excecoes do listener sao registradas no log e nao afetam a conversao
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /***
+     * Metricas de uma chamada concluida, com sucesso ou com erro
+     * @param metrics Metricas da chamada
+     */
+    void onCall(CallMetrics metrics);
+}
@@ -0,0 +1,64 @@
+package br.com.felipemira.jpmserializer.parser;
+
+/***
+ Recebe cada par de JSONPath e valor folha emitido pelo JsonFlattener
+ Numeros e booleans chegam pelos metodos tipados, que podem ser sobrescritos para evitar o boxing
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+@FunctionalInterface
+public interface FlattenHandler {
+
+    /***
+     * Recebe uma folha do documento
+     * @param path JSONPath da folha, no formato $['a']['b'][0], como JsonPathKey internado
+     * @param value Valor da folha, ou um JSONArray/LinkedHashMap vazio para arrays e objetos vazios
+     */
+    void value(CharSequence path, Object value);
+
+    /***
+     * Recebe uma folha numerica que cabe em um int; por padrao repassa o valor boxed para value
+     * @param path JSONPath da folha
+     * @param value Valor da folha
+     */
+    default void intValue(CharSequence path, int value) {
+        value(path, value);
+    }
+
+    /***
+     * Recebe uma folha numerica inteira que nao cabe em um int
+     * @param path JSONPath da folha
+     * @param value Valor da folha
+     */
+    default void longValue(CharSequence path, long value) {
+        value(path, value);
+    }
+
+    /***
+     * Recebe uma folha decimal que o json-smart leria como Double
+     * @param path JSONPath da folha
+     * @param value Valor da folha
+     */
+    default void doubleValue(CharSequence path, double value) {
+        value(path, value);
+    }
+
+    /***
+     * Recebe uma folha true ou false
+     * @param path JSONPath da folha
+     * @param value Valor da folha
+     */
+    default void booleanValue(CharSequence path, boolean value) {
+        value(path, value);
+    }
+
+    /***
+     * Descarta uma folha ja emitida: quando um nome se repete no mesmo objeto, as folhas do valor anterior
+     * sao removidas e o ultimo valor vence, como no json-smart
+     * Por padrao nao faz nada; handlers que guardam as folhas devem remove-las
+     * @param path JSONPath de uma folha emitida antes
+     */
+    default void remove(CharSequence path) {
+    }
+}
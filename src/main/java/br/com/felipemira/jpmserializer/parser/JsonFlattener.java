@@ -0,0 +1,327 @@
+package br.com.felipemira.jpmserializer.parser;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import net.minidev.json.JSONArray;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/***
+ Achata um JSON em pares de JSONPath e valor em uma unica passada sobre o tokenizador
+ Gera as mesmas chaves e valores que o $..* do json-path, sem reprocessar o documento por caminho
+ As chaves sao nos JsonPathKey internados, entao caminhos repetidos nao alocam novas Strings
+ Os limites do tokenizador de folhas, tamanho de chave e tamanho de array sao conferidos a cada caminho montado
+ Um nome repetido no mesmo objeto substitui o valor anterior, como no json-smart: as folhas ja emitidas
+ para ele sao removidas pelo handler antes do novo valor
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class JsonFlattener {
+
+    private JsonFlattener() {
+    }
+
+    /***
+     * Percorre o documento emitindo cada folha para o handler
+     * Arrays e objetos vazios sao emitidos como JSONArray e LinkedHashMap vazios
+     * Uma raiz escalar nao gera caminhos
+     * @param tokenizer Tokenizador posicionado antes do documento
+     * @param handler Destino das folhas
+     */
+    public static void flatten(JsonTokenizer tokenizer, FlattenHandler handler) {
+        flattenNext(tokenizer, handler);
+    }
+
+    /***
+     * Percorre o proximo documento da entrada, para entradas com varios documentos seguidos (NDJSON)
+     * @param tokenizer Tokenizador posicionado antes do documento
+     * @param handler Destino das folhas
+     * @return false quando a entrada terminou e nao havia outro documento
+     */
+    public static boolean flattenNext(JsonTokenizer tokenizer, FlattenHandler handler) {
+        return flattenNext(tokenizer, handler, PathProjection.all());
+    }
+
+    /***
+     * Percorre o proximo documento emitindo apenas as folhas selecionadas pela projecao
+     * As subarvores fora da projecao sao puladas pelo tokenizador sem montar caminhos nem valores
+     * @param tokenizer Tokenizador posicionado antes do documento
+     * @param handler Destino das folhas
+     * @param projection Projecao compilada
+     * @return false quando a entrada terminou e nao havia outro documento
+     */
+    public static boolean flattenNext(JsonTokenizer tokenizer, FlattenHandler handler, PathProjection projection) {
+        JsonToken token = tokenizer.next();
+        if (token == JsonToken.END_DOCUMENT) {
+            return false;
+        }
+        if (token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+            return true;
+        }
+
+        JsonLimits limits = tokenizer.limits();
+        long leaves = 0;
+        JsonPathKey[] containers = new JsonPathKey[16];
+        PathProjection.State[] states = new PathProjection.State[16];
+        int[] sizes = new int[16];
+        boolean[] arrays = new boolean[16];
+        int[] members = new int[16];
+        int[] marks = new int[16];
+        Members emitted = Members.take();
+        int member = -1;
+        int depth = 0;
+        containers[0] = JsonPathKey.root();
+        states[0] = projection.root();
+        arrays[0] = token == JsonToken.BEGIN_ARRAY;
+        members[0] = -1;
+        marks[0] = emitted.mark();
+        JsonPathKey path;
+        PathProjection.State state;
+
+        while (depth >= 0) {
+            PathProjection.State scope = states[depth];
+            if (arrays[depth]) {
+                state = scope.child(sizes[depth]);
+                boolean more;
+                if (state.skips()) {
+                    more = tokenizer.skipValue();
+                    if (more) {
+                        limits.checkArrayLength(++sizes[depth]);
+                        continue;
+                    }
+                } else {
+                    token = tokenizer.next();
+                    more = token != JsonToken.END_ARRAY;
+                }
+                if (!more) {
+                    if (sizes[depth] == 0 && depth > 0 && scope.selects()) {
+                        limits.checkLeaves(++leaves);
+                        handler.value(containers[depth], new JSONArray());
+                        emitted.add(containers[depth]);
+                    }
+                    emitted.end(members[depth]);
+                    depth--;
+                    continue;
+                }
+                member = -1;
+                path = containers[depth].child(sizes[depth]++);
+                limits.checkArrayLength(sizes[depth]);
+                limits.checkKeyLength(path.length());
+            } else {
+                token = tokenizer.next();
+                if (token == JsonToken.END_OBJECT) {
+                    if (sizes[depth] == 0 && depth > 0 && scope.selects()) {
+                        limits.checkLeaves(++leaves);
+                        handler.value(containers[depth], new LinkedHashMap<>());
+                        emitted.add(containers[depth]);
+                    }
+                    emitted.close(marks[depth]);
+                    emitted.end(members[depth]);
+                    depth--;
+                    continue;
+                }
+                path = containers[depth].child(tokenizer.text());
+                limits.checkKeyLength(path.length());
+                sizes[depth]++;
+                member = emitted.begin(path, handler);
+                state = scope.child(path);
+                if (state.skips()) {
+                    tokenizer.skipValue();
+                    emitted.end(member);
+                    continue;
+                }
+                token = tokenizer.next();
+            }
+
+            switch (token) {
+                case BEGIN_OBJECT:
+                case BEGIN_ARRAY:
+                    depth++;
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        states = Arrays.copyOf(states, depth * 2);
+                        sizes = Arrays.copyOf(sizes, depth * 2);
+                        arrays = Arrays.copyOf(arrays, depth * 2);
+                        members = Arrays.copyOf(members, depth * 2);
+                        marks = Arrays.copyOf(marks, depth * 2);
+                    }
+                    members[depth] = member;
+                    marks[depth] = emitted.mark();
+                    containers[depth] = path;
+                    states[depth] = state;
+                    sizes[depth] = 0;
+                    arrays[depth] = token == JsonToken.BEGIN_ARRAY;
+                    continue;
+                default:
+                    break;
+            }
+            if (!state.selects()) {
+                // Folha no caminho de um padrao que continua mais abaixo
+                emitted.end(member);
+                continue;
+            }
+            limits.checkLeaves(++leaves);
+
+            switch (token) {
+                case STRING:
+                    handler.value(path, tokenizer.stringValue());
+                    break;
+                case NUMBER:
+                    switch (tokenizer.numberType()) {
+                        case INT:
+                            handler.intValue(path, (int) tokenizer.longValue());
+                            break;
+                        case LONG:
+                            handler.longValue(path, tokenizer.longValue());
+                            break;
+                        case DOUBLE:
+                            handler.doubleValue(path, tokenizer.doubleValue());
+                            break;
+                        default:
+                            handler.value(path, tokenizer.numberValue());
+                    }
+                    break;
+                case TRUE:
+                    handler.booleanValue(path, true);
+                    break;
+                case FALSE:
+                    handler.booleanValue(path, false);
+                    break;
+                case NULL:
+                    handler.value(path, null);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected token " + token);
+            }
+            emitted.add(path);
+            emitted.end(member);
+        }
+        emitted.release();
+        return true;
+    }
+
+    /***
+     * Folhas emitidas no documento, em ordem, e a faixa de folhas de cada propriedade dos objetos abertos
+     * As propriedades ficam em arrays paralelos com uma tabela de indices por hash, sem um objeto por entrada;
+     * ao fechar um objeto as suas propriedades saem da tabela na ordem inversa da entrada, entao a tabela so guarda
+     * os objetos do caminho atual. Quando um nome se repete so as folhas da ocorrencia anterior sao removidas
+     * e o custo total continua linear
+     */
+    private static final class Members {
+
+        /* Reaproveitado pela thread; fica null enquanto um documento da mesma thread o usa */
+        private static final ThreadLocal<Members> POOL = new ThreadLocal<>();
+
+        private JsonPathKey[] leaves = new JsonPathKey[64];
+        private int count;
+
+        private JsonPathKey[] keys = new JsonPathKey[16];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int[] slots = new int[16];
+        private int size;
+
+        /* Posicao + 1 de cada propriedade em keys; 0 e uma posicao livre */
+        private int[] table = new int[32];
+
+        static Members take() {
+            Members members = POOL.get();
+            if (members == null) {
+                return new Members();
+            }
+            POOL.set(null);
+            return members;
+        }
+
+        void release() {
+            // Solta os caminhos nao internados; a tabela ja esta vazia depois de fechar a raiz
+            Arrays.fill(leaves, 0, count, null);
+            count = 0;
+            POOL.set(this);
+        }
+
+        void add(JsonPathKey path) {
+            if (count == leaves.length) {
+                leaves = Arrays.copyOf(leaves, count * 2);
+            }
+            leaves[count++] = path;
+        }
+
+        /***
+         * Registra o inicio do valor de uma propriedade, removendo as folhas de uma ocorrencia anterior do mesmo nome
+         * @return Posicao da propriedade, valida enquanto o objeto dela estiver aberto
+         */
+        int begin(JsonPathKey path, FlattenHandler handler) {
+            int mask = table.length - 1;
+            int slot = spread(path.hashCode()) & mask;
+            while (table[slot] != 0) {
+                int member = table[slot] - 1;
+                if (keys[member].equals(path)) {
+                    for (int i = starts[member]; i < ends[member]; i++) {
+                        handler.remove(leaves[i]);
+                    }
+                    starts[member] = count;
+                    return member;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            keys[size] = path;
+            starts[size] = count;
+            slots[size] = slot;
+            table[slot] = ++size;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        void end(int member) {
+            if (member >= 0) {
+                ends[member] = count;
+            }
+        }
+
+        int mark() {
+            return size;
+        }
+
+        /***
+         * Tira da tabela as propriedades de um objeto que fechou; como sao as ultimas inseridas,
+         * limpar a posicao de cada uma mantem as sondagens das demais validas
+         * @param mark Quantidade de propriedades quando o objeto abriu
+         */
+        void close(int mark) {
+            while (size > mark) {
+                size--;
+                table[slots[size]] = 0;
+                keys[size] = null;
+            }
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int member = 0; member < size; member++) {
+                int slot = spread(keys[member].hashCode()) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = member + 1;
+                slots[member] = slot;
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
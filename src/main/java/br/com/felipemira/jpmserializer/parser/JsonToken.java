@@ -0,0 +1,21 @@
+package br.com.felipemira.jpmserializer.parser;
+
+/***
+ Tokens emitidos pelo JsonTokenizer
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public enum JsonToken {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL,
+    END_DOCUMENT
+}
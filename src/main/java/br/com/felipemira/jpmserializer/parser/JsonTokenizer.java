@@ -0,0 +1,640 @@
+package br.com.felipemira.jpmserializer.parser;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import com.jayway.jsonpath.InvalidJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/***
+ Tokenizador de JSON em streaming, le a entrada uma unica vez em blocos de caracteres
+ Os tipos numericos seguem as regras do json-smart usado pelo json-path:
+ Integer, Long ou BigInteger para inteiros e Double ou BigDecimal para decimais
+ Com JsonLimits, a profundidade e o tamanho dos nomes sao conferidos a cada token e o tamanho do documento
+ a cada bloco lido e no fechamento da raiz
+ Como no modo permissivo do json-smart, os nomes podem vir entre aspas simples ou sem aspas ({'a':1} e {a:1});
+ os valores seguem o JSON estrito e so aceitam a virgula final em objetos e arrays
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public class JsonTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /* Maior quantidade de caracteres de um decimal convertido para Double, acima disso vira BigDecimal */
+    private static final int MAX_DOUBLE_LENGTH = 18;
+
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_OBJECT = 2;
+    private static final byte NONEMPTY_OBJECT = 3;
+    private static final byte DANGLING_NAME = 4;
+    private static final byte EMPTY_ARRAY = 5;
+    private static final byte NONEMPTY_ARRAY = 6;
+
+    private final CharSequence source;
+    private final Reader reader;
+    private int sourceOffset;
+
+    private final JsonLimits limits;
+
+    /* Posicao do inicio do documento atual, para o limite de tamanho valer por documento no NDJSON */
+    private long documentStart;
+    private boolean inDocument;
+
+    private final char[] buffer;
+    private int pos;
+    private int limit;
+    private long bufferStart;
+
+    private byte[] stack = new byte[32];
+    private int stackSize = 1;
+
+    private final StringBuilder text = new StringBuilder();
+    private boolean decimal;
+
+    /* Numero do ultimo NUMBER, convertido sob demanda */
+    private NumberType numberType;
+    private long longValue;
+    private double doubleValue;
+    private Number bigValue;
+
+    /***
+     * Cria um tokenizador sobre um JSON ja carregado em memoria
+     * @param json JSON
+     */
+    public JsonTokenizer(CharSequence json) {
+        this(json, JsonLimits.unlimited());
+    }
+
+    /***
+     * Cria um tokenizador sobre um JSON ja carregado em memoria, conferindo os limites durante a leitura
+     * @param json JSON
+     * @param limits Limites do documento
+     */
+    public JsonTokenizer(CharSequence json, JsonLimits limits) {
+        this.source = json;
+        this.reader = null;
+        this.limits = limits;
+        this.buffer = new char[Math.max(1, Math.min(BUFFER_SIZE, json.length()))];
+    }
+
+    /***
+     * Cria um tokenizador sobre um Reader, lido em blocos sem carregar o documento inteiro
+     * @param reader Reader com o JSON
+     */
+    public JsonTokenizer(Reader reader) {
+        this(reader, JsonLimits.unlimited());
+    }
+
+    /***
+     * Cria um tokenizador sobre um Reader, conferindo os limites durante a leitura
+     * @param reader Reader com o JSON
+     * @param limits Limites de cada documento
+     */
+    public JsonTokenizer(Reader reader, JsonLimits limits) {
+        this.source = null;
+        this.reader = reader;
+        this.limits = limits;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /***
+     * Limites conferidos por este tokenizador, tambem aplicados pelo JsonFlattener
+     * @return Limites
+     */
+    public JsonLimits limits() {
+        return limits;
+    }
+
+    /***
+     * Le o proximo token
+     * @return Token lido
+     */
+    public JsonToken next() {
+        int c;
+        switch (stack[stackSize - 1]) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    pop();
+                    return JsonToken.END_ARRAY;
+                }
+                return readValue(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ',') {
+                    c = nextNonWhitespace();
+                } else if (c != ']') {
+                    throw syntaxError(c, "',' or ']'");
+                }
+                // Virgula final e tolerada, assim como no json-smart
+                if (c == ']') {
+                    pop();
+                    return JsonToken.END_ARRAY;
+                }
+                return readValue(c);
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                boolean empty = stack[stackSize - 1] == EMPTY_OBJECT;
+                c = nextNonWhitespace();
+                if (!empty) {
+                    if (c == ',') {
+                        c = nextNonWhitespace();
+                    } else if (c != '}') {
+                        throw syntaxError(c, "',' or '}'");
+                    }
+                }
+                if (c == '}') {
+                    pop();
+                    return JsonToken.END_OBJECT;
+                }
+                if (c == '"' || c == '\'') {
+                    readString((char) c);
+                } else {
+                    readUnquotedName(c);
+                }
+                limits.checkKeyLength(text.length());
+                stack[stackSize - 1] = DANGLING_NAME;
+                return JsonToken.NAME;
+            case DANGLING_NAME:
+                c = nextNonWhitespace();
+                if (c != ':') {
+                    throw syntaxError(c, "':'");
+                }
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace());
+            default:
+                c = nextNonWhitespace();
+                if (c == -1) {
+                    return JsonToken.END_DOCUMENT;
+                }
+                documentStart = position() - 1;
+                stack[0] = NONEMPTY_DOCUMENT;
+                JsonToken token = readValue(c);
+                inDocument = stackSize > 1;
+                return token;
+        }
+    }
+
+    /***
+     * Pula o proximo valor do escopo atual sem montar textos ou numeros, para descartar subarvores inteiras
+     * Deve ser chamado depois de um NAME ou dentro de um array; no valor pulado so o fechamento de strings,
+     * objetos e arrays e verificado
+     * @return false quando o escopo e um array que terminou; nesse caso o END_ARRAY ja foi consumido
+     */
+    public boolean skipValue() {
+        byte scope = stack[stackSize - 1];
+        int c;
+        if (scope == DANGLING_NAME) {
+            c = nextNonWhitespace();
+            if (c != ':') {
+                throw syntaxError(c, "':'");
+            }
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+            c = nextNonWhitespace();
+        } else if (scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+            c = nextNonWhitespace();
+            if (scope == NONEMPTY_ARRAY) {
+                if (c == ',') {
+                    c = nextNonWhitespace();
+                } else if (c != ']') {
+                    throw syntaxError(c, "',' or ']'");
+                }
+            }
+            // Virgula final e tolerada, assim como em next
+            if (c == ']') {
+                pop();
+                return false;
+            }
+        } else {
+            throw new IllegalStateException("skipValue must be called after a NAME or inside an array");
+        }
+        skipValue(c);
+        return true;
+    }
+
+    /***
+     * Texto do ultimo NAME ou STRING lido, sem copiar
+     * O conteudo muda na proxima chamada de next
+     * @return Texto do token
+     */
+    public CharSequence text() {
+        return text;
+    }
+
+    /***
+     * Valor do ultimo NAME ou STRING lido
+     * @return String
+     */
+    public String stringValue() {
+        return text.toString();
+    }
+
+    /***
+     * Tipo do ultimo NUMBER lido, o mesmo que o json-smart produziria
+     * @return Tipo do numero
+     */
+    public NumberType numberType() {
+        if (numberType == null) {
+            parseNumber();
+        }
+        return numberType;
+    }
+
+    /***
+     * Valor do ultimo NUMBER lido quando o tipo e INT ou LONG, sem boxing
+     * @return Numero
+     */
+    public long longValue() {
+        numberType();
+        return longValue;
+    }
+
+    /***
+     * Valor do ultimo NUMBER lido quando o tipo e DOUBLE, sem boxing
+     * @return Numero
+     */
+    public double doubleValue() {
+        numberType();
+        return doubleValue;
+    }
+
+    /***
+     * Valor do ultimo NUMBER lido, com o mesmo tipo que o json-smart produziria
+     * @return Numero
+     */
+    public Number numberValue() {
+        switch (numberType()) {
+            case INT:
+                return (int) longValue;
+            case LONG:
+                return longValue;
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return bigValue;
+        }
+    }
+
+    private void parseNumber() {
+        int length = text.length();
+        try {
+            if (decimal) {
+                String number = text.toString();
+                if (length > MAX_DOUBLE_LENGTH) {
+                    bigValue = new BigDecimal(number);
+                    numberType = NumberType.BIG_DECIMAL;
+                } else {
+                    doubleValue = Double.parseDouble(number);
+                    numberType = NumberType.DOUBLE;
+                }
+                return;
+            }
+            int start = text.charAt(0) == '-' ? 1 : 0;
+            if (length - start > MAX_DOUBLE_LENGTH || length == start) {
+                BigInteger big = new BigInteger(text.toString());
+                if (big.bitLength() < Long.SIZE) {
+                    longValue = big.longValue();
+                    numberType = NumberType.LONG;
+                } else {
+                    bigValue = big;
+                    numberType = NumberType.BIG_INTEGER;
+                }
+                return;
+            }
+            long value = 0;
+            for (int i = start; i < length; i++) {
+                char digit = text.charAt(i);
+                if (digit < '0' || digit > '9') {
+                    throw new NumberFormatException();
+                }
+                value = value * 10 + (digit - '0');
+            }
+            if (start == 1) {
+                value = -value;
+            }
+            longValue = value;
+            numberType = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? NumberType.INT : NumberType.LONG;
+        } catch (NumberFormatException e) {
+            throw new InvalidJsonException("Invalid number '" + text + "' at position " + position());
+        }
+    }
+
+    /***
+     * Posicao, em caracteres, do proximo caractere a ser lido
+     * @return Posicao na entrada
+     */
+    public long position() {
+        return bufferStart + pos;
+    }
+
+    /***
+     * Tipos de um NUMBER: Integer, Long ou BigInteger para inteiros e Double ou BigDecimal para decimais
+     */
+    public enum NumberType {
+        INT,
+        LONG,
+        DOUBLE,
+        BIG_INTEGER,
+        BIG_DECIMAL
+    }
+
+    private JsonToken readValue(int c) {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return JsonToken.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return JsonToken.BEGIN_ARRAY;
+            case '"':
+                readString('"');
+                return JsonToken.STRING;
+            case 't':
+                expectLiteral("rue");
+                return JsonToken.TRUE;
+            case 'f':
+                expectLiteral("alse");
+                return JsonToken.FALSE;
+            case 'n':
+                expectLiteral("ull");
+                return JsonToken.NULL;
+            case -1:
+                throw new InvalidJsonException("Unexpected end of JSON input at position " + position());
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return JsonToken.NUMBER;
+                }
+                throw syntaxError(c, "value");
+        }
+    }
+
+    private void push(byte scope) {
+        limits.checkDepth(stackSize);
+        if (stackSize == stack.length) {
+            byte[] grown = new byte[stackSize * 2];
+            System.arraycopy(stack, 0, grown, 0, stackSize);
+            stack = grown;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void pop() {
+        stackSize--;
+        if (stackSize == 1) {
+            inDocument = false;
+            limits.checkInputLength(position() - documentStart);
+        }
+    }
+
+    private void readString(char quote) {
+        text.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos++];
+                if (c == quote) {
+                    text.append(buffer, start, pos - 1 - start);
+                    return;
+                }
+                if (c == '\\') {
+                    text.append(buffer, start, pos - 1 - start);
+                    readEscape();
+                    start = pos;
+                }
+            }
+            text.append(buffer, start, pos - start);
+            if (!fill()) {
+                throw new InvalidJsonException("Unterminated string at position " + position());
+            }
+        }
+    }
+
+    /* Nome sem aspas: vai ate o ':' sem incluir os espacos do fim, como o json-smart */
+    private void readUnquotedName(int first) {
+        text.setLength(0);
+        int c = first;
+        while (c != ':') {
+            if (c == -1 || c == '{' || c == '}' || c == ',' || c == '"') {
+                throw syntaxError(c, "name");
+            }
+            text.append((char) c);
+            if (pos == limit && !fill()) {
+                c = -1;
+            } else {
+                c = buffer[pos];
+                if (c != ':') {
+                    pos++;
+                }
+            }
+        }
+        int end = text.length();
+        while (end > 0 && isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        text.setLength(end);
+    }
+
+    private void readEscape() {
+        int c = nextChar();
+        switch (c) {
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                text.append((char) c);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw new InvalidJsonException("Invalid unicode escape at position " + position());
+                    }
+                    value = (value << 4) | digit;
+                }
+                text.append((char) value);
+                break;
+            default:
+                throw syntaxError(c, "escape sequence");
+        }
+    }
+
+    private void readNumber(char first) {
+        text.setLength(0);
+        text.append(first);
+        decimal = false;
+        numberType = null;
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c >= '0' && c <= '9' || c == '-' || c == '+') {
+                text.append(c);
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+                text.append(c);
+            } else {
+                break;
+            }
+            pos++;
+        }
+    }
+
+    private void skipValue(int c) {
+        if (c == '"') {
+            skipString('"');
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else if (c == 't') {
+            expectLiteral("rue");
+        } else if (c == 'f') {
+            expectLiteral("alse");
+        } else if (c == 'n') {
+            expectLiteral("ull");
+        } else if (c == -1) {
+            throw new InvalidJsonException("Unexpected end of JSON input at position " + position());
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            skipNumber();
+        } else {
+            throw syntaxError(c, "value");
+        }
+    }
+
+    private void skipString(char quote) {
+        while (pos < limit || fill()) {
+            char c = buffer[pos++];
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\') {
+                if (pos == limit && !fill()) {
+                    break;
+                }
+                pos++;
+            }
+        }
+        throw new InvalidJsonException("Unterminated string at position " + position());
+    }
+
+    private void skipContainer() {
+        int open = 1;
+        while (pos < limit || fill()) {
+            char c = buffer[pos++];
+            if (c == '"' || c == '\'') {
+                skipString(c);
+            } else if (c == '{' || c == '[') {
+                open++;
+                limits.checkDepth(stackSize - 1 + open);
+            } else if ((c == '}' || c == ']') && --open == 0) {
+                return;
+            }
+        }
+        throw new InvalidJsonException("Unexpected end of JSON input at position " + position());
+    }
+
+    private void skipNumber() {
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void expectLiteral(String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            int c = nextChar();
+            if (c != rest.charAt(i)) {
+                throw syntaxError(c, "literal");
+            }
+        }
+    }
+
+    private int nextChar() {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    private int nextNonWhitespace() {
+        while (pos < limit || fill()) {
+            char c = buffer[pos++];
+            if (!isWhitespace(c)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private boolean fill() {
+        bufferStart += limit;
+        if (inDocument) {
+            limits.checkInputLength(bufferStart - documentStart);
+        }
+        pos = 0;
+        limit = 0;
+        if (source != null) {
+            int count = Math.min(buffer.length, source.length() - sourceOffset);
+            if (count <= 0) {
+                return false;
+            }
+            if (source instanceof String) {
+                ((String) source).getChars(sourceOffset, sourceOffset + count, buffer, 0);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    buffer[i] = source.charAt(sourceOffset + i);
+                }
+            }
+            sourceOffset += count;
+            limit = count;
+            return true;
+        }
+        try {
+            int count;
+            do {
+                count = reader.read(buffer, 0, buffer.length);
+            } while (count == 0);
+            if (count < 0) {
+                return false;
+            }
+            limit = count;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private InvalidJsonException syntaxError(int c, String expected) {
+        String found = c == -1 ? "end of input" : "'" + (char) c + "'";
+        return new InvalidJsonException("Expected " + expected + " but found " + found + " at position " + (position() - 1));
+    }
+}
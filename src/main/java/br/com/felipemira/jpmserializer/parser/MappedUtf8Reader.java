@@ -0,0 +1,122 @@
+package br.com.felipemira.jpmserializer.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/***
+ Le um arquivo UTF-8 mapeado em memoria (mmap) decodificando os bytes sob demanda
+ O arquivo e mapeado em janelas, entao documentos maiores que 2 GB tambem sao aceitos;
+ o conteudo fica no page cache do sistema e o heap guarda apenas os caracteres que o leitor pede
+ A janela mapeada e liberada pelo GC, como todo MappedByteBuffer
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class MappedUtf8Reader extends Reader {
+
+    /* Tamanho padrao de cada janela mapeada */
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final long windowSize;
+    private final long size;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean eof;
+
+    /* Segunda metade de um par surrogate que nao coube no ultimo read */
+    private final CharBuffer pending = CharBuffer.allocate(2);
+
+    /***
+     * Abre e mapeia o arquivo para leitura
+     * @param file Arquivo em UTF-8
+     * @throws IOException quando o arquivo nao pode ser aberto ou mapeado
+     */
+    public MappedUtf8Reader(Path file) throws IOException {
+        this(file, WINDOW_SIZE);
+    }
+
+    /***
+     * Abre e mapeia o arquivo para leitura em janelas do tamanho informado
+     * @param file Arquivo em UTF-8
+     * @param windowSize Tamanho de cada janela em bytes, no minimo 4 para caber qualquer caractere UTF-8
+     * @throws IOException quando o arquivo nao pode ser aberto ou mapeado
+     */
+    public MappedUtf8Reader(Path file, long windowSize) throws IOException {
+        if (windowSize < 4 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window size must be between 4 and " + Integer.MAX_VALUE + " bytes: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        pending.flip();
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (pending.hasRemaining()) {
+            chars[offset] = pending.get();
+            return 1;
+        }
+        CharBuffer out = CharBuffer.wrap(chars, offset, length);
+        while (out.position() == offset) {
+            if (eof) {
+                return -1;
+            }
+            boolean last = windowStart + window.limit() == size;
+            CoderResult result = decoder.decode(window, out, last);
+            if (out.position() > offset) {
+                break;
+            }
+            if (result.isOverflow()) {
+                // Um unico char pedido e o proximo caractere e um par surrogate
+                pending.clear();
+                decoder.decode(window, pending, last);
+                pending.flip();
+                chars[offset] = pending.get();
+                return 1;
+            }
+            if (last) {
+                decoder.flush(out);
+                eof = true;
+            } else {
+                map(windowStart + window.position());
+            }
+        }
+        return out.position() - offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        // A nova janela comeca no primeiro byte nao decodificado, entao um caractere nunca fica dividido
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+}
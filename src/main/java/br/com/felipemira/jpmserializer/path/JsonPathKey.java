@@ -0,0 +1,413 @@
+package br.com.felipemira.jpmserializer.path;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ Chave JSONPath no formato $['a']['b'][0] representada como no de uma arvore de segmentos compartilhada
+ Cada caminho unico e alocado uma unica vez e reaproveitado entre documentos
+ O hashCode e o mesmo da String equivalente e equals compara com qualquer CharSequence pelo conteudo,
+ assim buscas por String continuam funcionando em mapas que comparam o conteudo da chave (ver JsonPathMap)
+ A igualdade com String vale so neste sentido: String.equals nao reconhece a chave, entao um HashMap
+ copiado do resultado nao encontra get("$['a']"); para copiar, converta as chaves com toString()
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class JsonPathKey implements CharSequence, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Limite de nos internados, acima dele os caminhos novos sao criados sem ficar na arvore */
+    private static final int MAX_INTERNED = Integer.getInteger("jpmserializer.pathkey.maxInterned", 1 << 20);
+    private static final AtomicInteger INTERNED = new AtomicInteger();
+
+    private static final JsonPathKey ROOT = new JsonPathKey(null, null, -1, "$".hashCode(), 1, true);
+
+    private final transient JsonPathKey parent;
+    private final transient String name;
+    private final transient int index;
+    private final transient int depth;
+    private final transient int length;
+    private final transient int hash;
+    private final transient boolean interned;
+    private transient String text;
+
+    private transient volatile JsonPathKey[] names;
+    private transient int nameCount;
+    private transient volatile JsonPathKey[] indices;
+
+    private JsonPathKey(JsonPathKey parent, String name, int index, int hash, int length, boolean interned) {
+        this.parent = parent;
+        this.name = name;
+        this.index = index;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.hash = hash;
+        this.length = length;
+        this.interned = interned;
+        if (parent == null) {
+            this.text = "$";
+        }
+    }
+
+    /***
+     * Raiz $ da arvore compartilhada
+     * @return No raiz
+     */
+    public static JsonPathKey root() {
+        return ROOT;
+    }
+
+    /***
+     * Retorna o filho ['name'] deste caminho, criando-o apenas na primeira vez
+     * Nao aloca nada quando o caminho ja existe, o nome pode ser um buffer reaproveitado
+     * @param name Nome da propriedade
+     * @return Caminho filho
+     */
+    public JsonPathKey child(CharSequence name) {
+        int childHash = hash * 31 + '[';
+        childHash = childHash * 31 + '\'';
+        int escapes = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\'' || c == '\\') {
+                childHash = childHash * 31 + '\\';
+                escapes++;
+            }
+            childHash = childHash * 31 + c;
+        }
+        childHash = childHash * 31 + '\'';
+        childHash = childHash * 31 + ']';
+        int childLength = length + name.length() + escapes + 4;
+
+        if (!interned) {
+            return new JsonPathKey(this, name.toString(), -1, childHash, childLength, false);
+        }
+        JsonPathKey[] table = names;
+        if (table != null) {
+            JsonPathKey found = findName(table, name, childHash);
+            if (found != null) {
+                return found;
+            }
+        }
+        return internName(name, childHash, childLength);
+    }
+
+    /***
+     * Retorna o filho [index] deste caminho, criando-o apenas na primeira vez
+     * @param index Indice do array
+     * @return Caminho filho
+     */
+    public JsonPathKey child(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Array index must not be negative: " + index);
+        }
+        JsonPathKey[] table = indices;
+        if (table != null && index < table.length) {
+            JsonPathKey found = table[index];
+            if (found != null) {
+                return found;
+            }
+        }
+        if (!interned) {
+            return newIndex(index, false);
+        }
+        return internIndex(index);
+    }
+
+    /***
+     * Caminho pai, ou null para a raiz
+     * @return Caminho pai
+     */
+    public JsonPathKey parent() {
+        return parent;
+    }
+
+    /***
+     * Indica se e a raiz $
+     * @return true para a raiz
+     */
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    /***
+     * Indica se o ultimo segmento e um indice de array
+     * @return true para [n]
+     */
+    public boolean isIndex() {
+        return index >= 0;
+    }
+
+    /***
+     * Indice do ultimo segmento, ou -1 quando e um nome
+     * @return Indice
+     */
+    public int index() {
+        return index;
+    }
+
+    /***
+     * Nome do ultimo segmento, ou null quando e um indice ou a raiz
+     * @return Nome da propriedade
+     */
+    public String name() {
+        return name;
+    }
+
+    /***
+     * Quantidade de segmentos abaixo da raiz
+     * @return Profundidade
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /***
+     * Segmentos do caminho da raiz ate este no, sem incluir a raiz
+     * @return Array com um JsonPathKey por segmento
+     */
+    public JsonPathKey[] segments() {
+        JsonPathKey[] segments = new JsonPathKey[depth];
+        JsonPathKey node = this;
+        for (int i = depth - 1; i >= 0; i--) {
+            segments[i] = node;
+            node = node.parent;
+        }
+        return segments;
+    }
+
+    /***
+     * Indica se este caminho e o proprio caminho informado ou um descendente dele
+     * @param ancestor Caminho da subarvore
+     * @return true quando este caminho fica dentro da subarvore
+     */
+    public boolean isWithin(JsonPathKey ancestor) {
+        JsonPathKey node = this;
+        while (node.depth > ancestor.depth) {
+            node = node.parent;
+        }
+        return node.equals(ancestor);
+    }
+
+    /***
+     * Caminho equivalente a partir de um ancestral: $['a']['b'][0] relativo a $['a'] e $['b'][0]
+     * @param ancestor Caminho ancestral, que vira a raiz
+     * @return Caminho relativo
+     * @throws IllegalArgumentException quando o caminho informado nao e ancestral deste
+     */
+    public JsonPathKey relativeTo(JsonPathKey ancestor) {
+        if (!isWithin(ancestor)) {
+            throw new IllegalArgumentException("JSONPath " + this + " is not inside " + ancestor);
+        }
+        JsonPathKey[] segments = segments();
+        JsonPathKey node = ROOT;
+        for (int i = ancestor.depth; i < segments.length; i++) {
+            node = segments[i].isIndex() ? node.child(segments[i].index) : node.child(segments[i].name);
+        }
+        return node;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    /***
+     * Texto do caminho, montado na primeira chamada e mantido no no
+     * @return JSONPath
+     */
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder(length);
+            appendTo(builder);
+            result = builder.toString();
+            text = result;
+        }
+        return result;
+    }
+
+    /***
+     * Escreve o texto do caminho sem materializar a String do no
+     * @param builder Destino
+     */
+    public void appendTo(StringBuilder builder) {
+        JsonPathKey[] chain = new JsonPathKey[depth];
+        int count = 0;
+        JsonPathKey node = this;
+        while (node.text == null) {
+            chain[count++] = node;
+            node = node.parent;
+        }
+        builder.append(node.text);
+        while (count > 0) {
+            chain[--count].appendSegment(builder);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /***
+     * Compara com outra chave ou com qualquer CharSequence pelo conteudo
+     * Nos internados sao unicos, entao entre eles basta a identidade
+     * @param o Objeto comparado
+     * @return true quando representam o mesmo caminho
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof JsonPathKey) {
+            JsonPathKey other = (JsonPathKey) o;
+            return !(interned && other.interned) && sameSegments(this, other);
+        }
+        if (o instanceof CharSequence) {
+            CharSequence other = (CharSequence) o;
+            return other.length() == length && (!(o instanceof String) || o.hashCode() == hash) && toString().contentEquals(other);
+        }
+        return false;
+    }
+
+    private void appendSegment(StringBuilder builder) {
+        if (index >= 0) {
+            builder.append('[').append(index).append(']');
+            return;
+        }
+        builder.append("['");
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\'' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        builder.append("']");
+    }
+
+    private static boolean sameSegments(JsonPathKey a, JsonPathKey b) {
+        while (a != b) {
+            if (a == null || b == null || a.hash != b.hash || a.depth != b.depth || a.index != b.index) {
+                return false;
+            }
+            if (a.name != null && !a.name.equals(b.name)) {
+                return false;
+            }
+            a = a.parent;
+            b = b.parent;
+        }
+        return true;
+    }
+
+    private static JsonPathKey findName(JsonPathKey[] table, CharSequence name, int childHash) {
+        int mask = table.length - 1;
+        for (int i = spread(childHash) & mask; ; i = (i + 1) & mask) {
+            JsonPathKey node = table[i];
+            if (node == null) {
+                return null;
+            }
+            if (node.hash == childHash && node.name.contentEquals(name)) {
+                return node;
+            }
+        }
+    }
+
+    private synchronized JsonPathKey internName(CharSequence name, int childHash, int childLength) {
+        JsonPathKey[] table = names;
+        if (table != null) {
+            JsonPathKey found = findName(table, name, childHash);
+            if (found != null) {
+                return found;
+            }
+        }
+        if (INTERNED.get() >= MAX_INTERNED) {
+            return new JsonPathKey(this, name.toString(), -1, childHash, childLength, false);
+        }
+        JsonPathKey node = new JsonPathKey(this, name.toString(), -1, childHash, childLength, true);
+        INTERNED.incrementAndGet();
+        if (table == null || (nameCount + 1) * 2 > table.length) {
+            JsonPathKey[] grown = new JsonPathKey[table == null ? 8 : table.length * 2];
+            if (table != null) {
+                for (JsonPathKey existing : table) {
+                    if (existing != null) {
+                        insert(grown, existing);
+                    }
+                }
+            }
+            insert(grown, node);
+            names = grown;
+        } else {
+            insert(table, node);
+        }
+        nameCount++;
+        return node;
+    }
+
+    private static void insert(JsonPathKey[] table, JsonPathKey node) {
+        int mask = table.length - 1;
+        int i = spread(node.hash) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = node;
+    }
+
+    private synchronized JsonPathKey internIndex(int index) {
+        JsonPathKey[] table = indices;
+        if (table != null && index < table.length && table[index] != null) {
+            return table[index];
+        }
+        // A tabela e indexada pelo proprio indice: um indice alto nao pode alocar uma tabela maior que o limite de nos
+        if (INTERNED.get() >= MAX_INTERNED || index >= MAX_INTERNED) {
+            return newIndex(index, false);
+        }
+        JsonPathKey node = newIndex(index, true);
+        INTERNED.incrementAndGet();
+        if (table == null || index >= table.length) {
+            JsonPathKey[] grown = new JsonPathKey[Math.max(index + 1, table == null ? 8 : table.length * 2)];
+            if (table != null) {
+                System.arraycopy(table, 0, grown, 0, table.length);
+            }
+            grown[index] = node;
+            indices = grown;
+        } else {
+            table[index] = node;
+        }
+        return node;
+    }
+
+    private JsonPathKey newIndex(int index, boolean intern) {
+        int childHash = hash * 31 + '[';
+        int digits = 0;
+        String number = Integer.toString(index);
+        for (int i = 0; i < number.length(); i++) {
+            childHash = childHash * 31 + number.charAt(i);
+            digits++;
+        }
+        childHash = childHash * 31 + ']';
+        return new JsonPathKey(this, null, index, childHash, length + digits + 2, intern);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private Object writeReplace() {
+        return toString();
+    }
+}
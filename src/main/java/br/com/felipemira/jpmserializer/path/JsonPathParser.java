@@ -0,0 +1,133 @@
+package br.com.felipemira.jpmserializer.path;
+
+/***
+ Converte chaves JSONPath em segmentos tipados (nome ou indice de array) sem usar regex
+ Aceita notacao de colchetes $['a'][0], aspas duplas $["a"] e notacao de ponto $.a.b
+ Dentro de aspas, a barra invertida escapa o proximo caractere; uma aspa sem escape so fecha o nome
+ quando seguida de ']' e do fim da chave ou de outro segmento, entao chaves geradas pelo json-path
+ com ']' ou aspas no nome continuam sendo lidas corretamente
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class JsonPathParser {
+
+    private JsonPathParser() {
+    }
+
+    /***
+     * Converte uma chave JSONPath no JsonPathKey equivalente
+     * @param path Chave JSONPath
+     * @return Caminho com os segmentos tipados
+     * @throws IllegalArgumentException quando a chave nao e um JSONPath valido
+     */
+    public static JsonPathKey parse(CharSequence path) {
+        if (path instanceof JsonPathKey) {
+            return (JsonPathKey) path;
+        }
+        int length = path.length();
+        if (length == 0 || path.charAt(0) != '$') {
+            throw invalid(path, 0, "'$'");
+        }
+
+        JsonPathKey node = JsonPathKey.root();
+        StringBuilder name = null;
+        int i = 1;
+        while (i < length) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                while (i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    i++;
+                }
+                if (i == start) {
+                    throw invalid(path, i, "property name");
+                }
+                name = reset(name);
+                name.append(path, start, i);
+                node = node.child(name);
+            } else if (c == '[') {
+                if (++i == length) {
+                    throw invalid(path, i, "property name or index");
+                }
+                c = path.charAt(i);
+                if (c == '\'' || c == '"') {
+                    name = reset(name);
+                    i = readQuoted(path, i + 1, c, name);
+                    node = node.child(name);
+                } else if (c >= '0' && c <= '9') {
+                    int index = 0;
+                    while (i < length && (c = path.charAt(i)) >= '0' && c <= '9') {
+                        if (index > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                            throw invalid(path, i, "array index");
+                        }
+                        index = index * 10 + (c - '0');
+                        i++;
+                    }
+                    if (i == length || path.charAt(i) != ']') {
+                        throw invalid(path, i, "']'");
+                    }
+                    i++;
+                    node = node.child(index);
+                } else {
+                    throw invalid(path, i, "property name or index");
+                }
+            } else {
+                throw invalid(path, i, "'[' or '.'");
+            }
+        }
+        return node;
+    }
+
+    /***
+     * Le o indice de um segmento isolado no formato [n]
+     * @param segment Segmento
+     * @return Indice, ou -1 quando o segmento nao e um indice de array
+     */
+    public static int parseIndexSegment(CharSequence segment) {
+        int length = segment.length();
+        if (length < 3 || segment.charAt(0) != '[' || segment.charAt(length - 1) != ']' || length > 12) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 1; i < length - 1; i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+
+    private static int readQuoted(CharSequence path, int i, char quote, StringBuilder name) {
+        int length = path.length();
+        while (i < length) {
+            char c = path.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                name.append(path.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == quote && i + 1 < length && path.charAt(i + 1) == ']'
+                    && (i + 2 == length || path.charAt(i + 2) == '[' || path.charAt(i + 2) == '.')) {
+                return i + 2;
+            }
+            name.append(c);
+            i++;
+        }
+        throw invalid(path, i, "closing " + quote + "]");
+    }
+
+    private static StringBuilder reset(StringBuilder name) {
+        if (name == null) {
+            return new StringBuilder(32);
+        }
+        name.setLength(0);
+        return name;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence path, int position, String expected) {
+        return new IllegalArgumentException("Invalid JSONPath key " + path + ": expected " + expected + " at position " + position);
+    }
+}
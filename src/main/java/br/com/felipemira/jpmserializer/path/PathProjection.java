@@ -0,0 +1,414 @@
+package br.com.felipemira.jpmserializer.path;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/***
+ Projecao de JSONPaths: seleciona as subarvores que casam com os padroes de include e descarta as de exclude
+ Os padroes aceitam $['a'], $.a, indices [0], curingas [*] ou .* e busca recursiva ..a
+ Sem includes tudo e selecionado; um exclude sempre vence um include
+ Os padroes sao compilados uma vez em estados reaproveitados: cada estado sabe, para um segmento do caminho,
+ qual o proximo estado, entao o JsonFlattener decide se pula uma subarvore sem olhar as folhas
+ As instancias sao imutaveis e podem ser compartilhadas entre threads
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class PathProjection {
+
+    private static final PathProjection ALL = new PathProjection(new ArrayList<>(), new ArrayList<>());
+
+    /* Padroes das subarvores selecionadas */
+    @Getter
+    private final List<String> includes;
+
+    /* Padroes das subarvores descartadas */
+    @Getter
+    private final List<String> excludes;
+
+    private final Step[][] includeSteps;
+    private final Step[][] excludeSteps;
+    private final ConcurrentHashMap<String, State> states = new ConcurrentHashMap<>();
+    private final State skipped = new State(new int[0], new int[0], false, true);
+    private final State root;
+
+    @Builder(toBuilder = true)
+    private PathProjection(List<String> includes, List<String> excludes) {
+        this.includes = includes == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(includes));
+        this.excludes = excludes == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(excludes));
+        this.includeSteps = compile(this.includes);
+        this.excludeSteps = compile(this.excludes);
+
+        boolean selected = this.includes.isEmpty();
+        boolean excluded = false;
+        List<Integer> pendingIncludes = new ArrayList<>();
+        List<Integer> pendingExcludes = new ArrayList<>();
+        for (int p = 0; p < includeSteps.length; p++) {
+            if (includeSteps[p].length == 0) {
+                selected = true;
+            } else {
+                pendingIncludes.add(position(p, 0));
+            }
+        }
+        for (int p = 0; p < excludeSteps.length; p++) {
+            if (excludeSteps[p].length == 0) {
+                excluded = true;
+            } else {
+                pendingExcludes.add(position(p, 0));
+            }
+        }
+        this.root = excluded ? skipped : state(toArray(pendingIncludes), toArray(pendingExcludes), selected);
+    }
+
+    /***
+     * Projecao que seleciona o documento inteiro
+     * @return Projecao sem padroes
+     */
+    public static PathProjection all() {
+        return ALL;
+    }
+
+    /***
+     * Projecao que seleciona apenas as subarvores dos padroes informados
+     * @param includes Padroes JSONPath
+     * @return Projecao compilada
+     */
+    public static PathProjection of(String... includes) {
+        return PathProjection.builder().includes(Arrays.asList(includes)).build();
+    }
+
+    /***
+     * Estado da raiz $, ponto de partida para percorrer um documento
+     * @return Estado inicial
+     */
+    public State root() {
+        return root;
+    }
+
+    /***
+     * Indica se o caminho informado faz parte da projecao
+     * @param path JSONPath no formato gerado pelo Serialize
+     * @return true quando o caminho esta selecionado
+     */
+    public boolean selects(CharSequence path) {
+        State state = root;
+        for (JsonPathKey segment : JsonPathParser.parse(path).segments()) {
+            if (state.skips()) {
+                return false;
+            }
+            state = segment.isIndex() ? state.child(segment.index()) : state.child(segment);
+        }
+        return state.selects();
+    }
+
+    /***
+     * Posicao de um documento em relacao aos padroes; estados equivalentes sao compartilhados
+     */
+    public final class State {
+
+        /* Passos pendentes dos padroes, codificados como padrao << 16 | passo */
+        private final int[] pendingIncludes;
+        private final int[] pendingExcludes;
+        private final boolean selected;
+        private final boolean excluded;
+
+        /* Nomes e indices que aparecem literalmente nos passos pendentes; os demais caem em otherName e otherIndex */
+        private final Set<String> literalNames = new HashSet<>();
+        private final Set<Integer> literalIndices = new HashSet<>();
+        private final ConcurrentHashMap<String, State> nameChildren = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, State> indexChildren = new ConcurrentHashMap<>();
+        private volatile State otherName;
+        private volatile State otherIndex;
+
+        private State(int[] pendingIncludes, int[] pendingExcludes, boolean selected, boolean excluded) {
+            this.pendingIncludes = pendingIncludes;
+            this.pendingExcludes = pendingExcludes;
+            this.selected = selected;
+            this.excluded = excluded;
+            collectLiterals(pendingIncludes, includeSteps);
+            collectLiterals(pendingExcludes, excludeSteps);
+        }
+
+        /***
+         * Indica que nada abaixo deste caminho pode ser selecionado, entao a subarvore pode ser pulada
+         * @return true para pular a subarvore
+         */
+        public boolean skips() {
+            return excluded || (!selected && pendingIncludes.length == 0);
+        }
+
+        /***
+         * Indica se o proprio caminho esta selecionado, para emitir folhas e containers vazios
+         * @return true quando o caminho esta selecionado
+         */
+        public boolean selects() {
+            return selected && !excluded;
+        }
+
+        /***
+         * Estado do filho ['name']
+         * @param child Caminho do filho, com o nome no ultimo segmento
+         * @return Estado do filho
+         */
+        public State child(JsonPathKey child) {
+            if (passesThrough()) {
+                return this;
+            }
+            String name = child.name();
+            if (!literalNames.contains(name)) {
+                State result = otherName;
+                if (result == null) {
+                    result = transition(name, -1);
+                    otherName = result;
+                }
+                return result;
+            }
+            return nameChildren.computeIfAbsent(name, key -> transition(key, -1));
+        }
+
+        /***
+         * Estado do filho [index]
+         * @param index Indice do array
+         * @return Estado do filho
+         */
+        public State child(int index) {
+            if (passesThrough()) {
+                return this;
+            }
+            if (literalIndices.isEmpty() || !literalIndices.contains(index)) {
+                State result = otherIndex;
+                if (result == null) {
+                    result = transition(null, index);
+                    otherIndex = result;
+                }
+                return result;
+            }
+            return indexChildren.computeIfAbsent(index, key -> transition(null, key));
+        }
+
+        private boolean passesThrough() {
+            // Subarvore ja selecionada e sem exclude pendente: todos os descendentes ficam neste mesmo estado
+            return excluded || (selected && pendingExcludes.length == 0);
+        }
+
+        private State transition(String name, int index) {
+            int[] nextExcludes = advance(pendingExcludes, excludeSteps, name, index);
+            if (nextExcludes == null) {
+                return skipped;
+            }
+            boolean nextSelected = selected;
+            int[] nextIncludes = new int[0];
+            if (!nextSelected) {
+                nextIncludes = advance(pendingIncludes, includeSteps, name, index);
+                if (nextIncludes == null) {
+                    nextSelected = true;
+                    nextIncludes = new int[0];
+                }
+            }
+            return state(nextIncludes, nextExcludes, nextSelected);
+        }
+
+        private void collectLiterals(int[] pending, Step[][] patterns) {
+            for (int position : pending) {
+                Step step = patterns[position >>> 16][position & 0xFFFF];
+                if (step.kind == Step.NAME) {
+                    literalNames.add(step.name);
+                } else if (step.kind == Step.INDEX) {
+                    literalIndices.add(step.index);
+                }
+            }
+        }
+    }
+
+    /***
+     * Avanca os passos pendentes por um segmento
+     * @return Novos passos pendentes, ou null quando algum padrao terminou neste segmento
+     */
+    private static int[] advance(int[] pending, Step[][] patterns, String name, int index) {
+        int[] next = new int[pending.length * 2];
+        int count = 0;
+        for (int position : pending) {
+            int pattern = position >>> 16;
+            int step = position & 0xFFFF;
+            Step current = patterns[pattern][step];
+            if (current.deep) {
+                next[count++] = position;
+            }
+            if (current.matches(name, index)) {
+                if (step + 1 == patterns[pattern].length) {
+                    return null;
+                }
+                next[count++] = position(pattern, step + 1);
+            }
+        }
+        int[] result = Arrays.copyOf(next, count);
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return distinct == count ? result : Arrays.copyOf(result, distinct);
+    }
+
+    private State state(int[] pendingIncludes, int[] pendingExcludes, boolean selected) {
+        if (selected) {
+            pendingIncludes = new int[0];
+        } else if (pendingIncludes.length == 0) {
+            return skipped;
+        }
+        String key = (selected ? "+" : "-") + Arrays.toString(pendingIncludes) + Arrays.toString(pendingExcludes);
+        int[] includesKey = pendingIncludes;
+        return states.computeIfAbsent(key, k -> new State(includesKey, pendingExcludes, selected, false));
+    }
+
+    private static int position(int pattern, int step) {
+        return pattern << 16 | step;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static Step[][] compile(List<String> patterns) {
+        if (patterns.size() > 0x7FFF) {
+            throw new IllegalArgumentException("Too many JSONPath patterns: " + patterns.size());
+        }
+        Step[][] compiled = new Step[patterns.size()][];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(patterns.get(i));
+        }
+        return compiled;
+    }
+
+    private static Step[] compile(String pattern) {
+        int length = pattern.length();
+        if (length == 0 || pattern.charAt(0) != '$') {
+            throw invalid(pattern, 0, "'$'");
+        }
+        List<Step> steps = new ArrayList<>();
+        int i = 1;
+        while (i < length) {
+            boolean deep = false;
+            if (pattern.startsWith("..", i)) {
+                deep = true;
+                i += 2;
+            } else if (pattern.charAt(i) == '.') {
+                i++;
+            } else if (pattern.charAt(i) != '[') {
+                throw invalid(pattern, i, "'.' or '['");
+            }
+
+            if (i < length && pattern.charAt(i) == '[') {
+                if (++i == length) {
+                    throw invalid(pattern, i, "property name, index or '*'");
+                }
+                char c = pattern.charAt(i);
+                if (c == '*') {
+                    if (i + 1 == length || pattern.charAt(i + 1) != ']') {
+                        throw invalid(pattern, i + 1, "']'");
+                    }
+                    steps.add(new Step(Step.ANY, null, -1, deep));
+                    i += 2;
+                } else if (c == '\'' || c == '"') {
+                    StringBuilder name = new StringBuilder();
+                    i = readQuoted(pattern, i + 1, c, name);
+                    steps.add(new Step(Step.NAME, name.toString(), -1, deep));
+                } else if (c >= '0' && c <= '9') {
+                    int start = i;
+                    while (i < length && pattern.charAt(i) >= '0' && pattern.charAt(i) <= '9') {
+                        i++;
+                    }
+                    if (i == length || pattern.charAt(i) != ']' || i - start > 9) {
+                        throw invalid(pattern, i, "']'");
+                    }
+                    steps.add(new Step(Step.INDEX, null, Integer.parseInt(pattern.substring(start, i)), deep));
+                    i++;
+                } else {
+                    throw invalid(pattern, i, "property name, index or '*'");
+                }
+            } else {
+                int start = i;
+                while (i < length && pattern.charAt(i) != '.' && pattern.charAt(i) != '[') {
+                    i++;
+                }
+                if (i == start) {
+                    throw invalid(pattern, i, "property name");
+                }
+                String name = pattern.substring(start, i);
+                steps.add("*".equals(name) ? new Step(Step.ANY, null, -1, deep) : new Step(Step.NAME, name, -1, deep));
+            }
+        }
+        if (steps.size() > 0xFFFF) {
+            throw new IllegalArgumentException("JSONPath pattern " + pattern + " has too many segments");
+        }
+        return steps.toArray(new Step[0]);
+    }
+
+    private static int readQuoted(String pattern, int i, char quote, StringBuilder name) {
+        int length = pattern.length();
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                name.append(pattern.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == quote && i + 1 < length && pattern.charAt(i + 1) == ']') {
+                return i + 2;
+            }
+            name.append(c);
+            i++;
+        }
+        throw invalid(pattern, i, "closing " + quote + "]");
+    }
+
+    private static IllegalArgumentException invalid(String pattern, int position, String expected) {
+        return new IllegalArgumentException("Invalid JSONPath pattern " + pattern + ": expected " + expected + " at position " + position);
+    }
+
+    /***
+     * Um segmento do padrao: nome, indice ou curinga, opcionalmente precedido de busca recursiva (..)
+     */
+    private static final class Step {
+
+        static final byte NAME = 0;
+        static final byte INDEX = 1;
+        static final byte ANY = 2;
+
+        final byte kind;
+        final String name;
+        final int index;
+        final boolean deep;
+
+        Step(byte kind, String name, int index, boolean deep) {
+            this.kind = kind;
+            this.name = name;
+            this.index = index;
+            this.deep = deep;
+        }
+
+        boolean matches(String segmentName, int segmentIndex) {
+            if (kind == NAME) {
+                return segmentName != null && segmentName.equals(name);
+            }
+            if (kind == INDEX) {
+                return segmentName == null && segmentIndex == index;
+            }
+            return true;
+        }
+    }
+}
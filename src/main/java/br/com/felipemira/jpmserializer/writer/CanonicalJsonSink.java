@@ -0,0 +1,172 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/***
+ Repassa os eventos a outro sink normalizando as folhas para a forma canonica, no estilo do RFC 8785 (JCS)
+ Numeros viram o texto mais curto do valor: 1.0 e 1 geram 1, 1.50 gera 1.5, 1e21 gera 1e+21 e 0.0000001 gera 1e-7
+ Utf8 e outras CharSequence viram String; NaN e infinitos lancam IllegalArgumentException
+ A ordem das chaves vem do JsonUnflattener (nomes pela ordem dos chars UTF-16), entao, com um Gson compacto,
+ o mesmo conteudo gera sempre os mesmos bytes, independente do tipo e da ordem do Map
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class CanonicalJsonSink implements JsonStructureSink {
+
+    private final JsonStructureSink delegate;
+
+    public CanonicalJsonSink(JsonStructureSink delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void beginObject() {
+        delegate.beginObject();
+    }
+
+    @Override
+    public void endObject() {
+        delegate.endObject();
+    }
+
+    @Override
+    public void beginArray() {
+        delegate.beginArray();
+    }
+
+    @Override
+    public void endArray() {
+        delegate.endArray();
+    }
+
+    @Override
+    public void name(String name) {
+        delegate.name(name);
+    }
+
+    @Override
+    public void value(Object value) {
+        if (value instanceof Number) {
+            delegate.value(new CanonicalNumber(format((Number) value)));
+        } else if (value instanceof CharSequence && !(value instanceof String)) {
+            delegate.value(value.toString());
+        } else {
+            delegate.value(value);
+        }
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    /***
+     * Texto canonico de um numero, com as regras do Number.prototype.toString do ECMAScript:
+     * notacao decimal para expoentes entre -7 e 21 e notacao cientifica fora dessa faixa
+     * Inteiros (Integer, Long, BigInteger, ...) sao escritos com todos os digitos
+     * @param number Numero
+     * @return Texto do numero
+     */
+    public static String format(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger) {
+            return number.toString();
+        }
+        BigDecimal decimal;
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + number);
+            }
+            // Float.toString evita os digitos extras da conversao para double (0.1f -> 0.10000000149011612)
+            decimal = new BigDecimal(number instanceof Float ? Float.toString(number.floatValue()) : Double.toString(value));
+        } else if (number instanceof BigDecimal) {
+            decimal = (BigDecimal) number;
+        } else {
+            try {
+                decimal = new BigDecimal(number.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + number, e);
+            }
+        }
+        return format(decimal);
+    }
+
+    private static String format(BigDecimal decimal) {
+        if (decimal.signum() == 0) {
+            return "0";
+        }
+        decimal = decimal.stripTrailingZeros();
+        String digits = decimal.unscaledValue().abs().toString();
+        int k = digits.length();
+        // Valor = 0.digits x 10^n
+        int n = k - decimal.scale();
+        StringBuilder text = new StringBuilder(k + 8);
+        if (decimal.signum() < 0) {
+            text.append('-');
+        }
+        if (k <= n && n <= 21) {
+            text.append(digits);
+            for (int i = k; i < n; i++) {
+                text.append('0');
+            }
+        } else if (0 < n && n <= 21) {
+            text.append(digits, 0, n).append('.').append(digits, n, k);
+        } else if (-6 < n && n <= 0) {
+            text.append("0.");
+            for (int i = n; i < 0; i++) {
+                text.append('0');
+            }
+            text.append(digits);
+        } else {
+            text.append(digits.charAt(0));
+            if (k > 1) {
+                text.append('.').append(digits, 1, k);
+            }
+            int exponent = n - 1;
+            text.append('e').append(exponent < 0 ? '-' : '+').append(Math.abs(exponent));
+        }
+        return text.toString();
+    }
+
+    /***
+     * Numero com o texto ja formatado, escrito como esta pelos sinks de texto
+     */
+    private static final class CanonicalNumber extends Number {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+
+        private CanonicalNumber(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) doubleValue();
+        }
+
+        @Override
+        public long longValue() {
+            return new BigDecimal(text).longValue();
+        }
+
+        @Override
+        public float floatValue() {
+            return (float) doubleValue();
+        }
+
+        @Override
+        public double doubleValue() {
+            return Double.parseDouble(text);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
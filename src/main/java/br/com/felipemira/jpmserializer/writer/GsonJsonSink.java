@@ -0,0 +1,170 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/***
+ Escreve os eventos de estrutura em um JsonWriter do Gson, com a mesma formatacao do Gson informado
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public class GsonJsonSink implements JsonStructureSink {
+
+    private final Gson gson;
+    private final JsonWriter writer;
+
+    /***
+     * Cria o destino sobre um Writer usando as configuracoes do Gson (indentacao, html safe, nulls)
+     * @param gson Gson configurado
+     * @param writer Destino do texto
+     */
+    public GsonJsonSink(Gson gson, Writer writer) {
+        this.gson = gson;
+        try {
+            this.writer = gson.newJsonWriter(writer);
+            // O newJsonWriter nao copia o html safe, que o gson.toJson liga em toda escrita
+            this.writer.setHtmlSafe(gson.htmlSafe());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Cria o destino sobre qualquer Appendable (StringBuilder, CharBuffer, Writer)
+     * @param gson Gson configurado
+     * @param out Destino do texto
+     */
+    public GsonJsonSink(Gson gson, Appendable out) {
+        this(gson, out instanceof Writer ? (Writer) out : new AppendableWriter(out));
+    }
+
+    @Override
+    public void beginObject() {
+        try {
+            writer.beginObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endObject() {
+        try {
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void beginArray() {
+        try {
+            writer.beginArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endArray() {
+        try {
+            writer.endArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void name(String name) {
+        try {
+            writer.name(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void value(Object value) {
+        try {
+            if (value == null) {
+                writer.nullValue();
+            } else if (value instanceof String) {
+                writer.value((String) value);
+            } else if (value instanceof Boolean) {
+                writer.value((boolean) (Boolean) value);
+            } else if (value instanceof Number) {
+                writer.value((Number) value);
+            } else if (value instanceof CharSequence) {
+                writer.value(value.toString());
+            } else {
+                gson.toJson(value, value.getClass(), writer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Adapta um Appendable para Writer, repassando os caracteres sem buffer
+     */
+    private static final class AppendableWriter extends Writer {
+
+        private final Appendable out;
+
+        private AppendableWriter(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(buffer, offset, length);
+            } else {
+                out.append(CharBuffer.wrap(buffer, offset, length));
+            }
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.append((char) c);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            out.append(text, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence text) throws IOException {
+            out.append(text);
+            return this;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out instanceof Flushable) {
+                ((Flushable) out).flush();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.felipemira.jpmserializer.writer;
+
+/***
+ Destino dos eventos de estrutura emitidos pelo JsonUnflattener
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public interface JsonStructureSink {
+
+    void beginObject();
+
+    void endObject();
+
+    void beginArray();
+
+    void endArray();
+
+    /***
+     * Nome da proxima propriedade do objeto aberto
+     * @param name Nome da propriedade
+     */
+    void name(String name);
+
+    /***
+     * Valor folha, que pode ser null, String, Number, Boolean, CharSequence (ex: Utf8) ou outro objeto
+     * @param value Valor folha
+     */
+    void value(Object value);
+
+    /***
+     * Finaliza a escrita, chamado uma vez depois do documento completo
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,237 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ Monta uma arvore JSON em memoria a partir dos eventos de estrutura, sem passar por texto
+ O tipo dos nos vem do Model: JsonElement do Gson, JSONObject/JSONArray do json-smart ou Map/List simples
+ Com skipNulls, propriedades null sao omitidas e nulls em arrays sao mantidos, como na saida em texto
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class JsonTreeSink<T> implements JsonStructureSink {
+
+    private final Model model;
+    private final boolean skipNulls;
+    private Object[] containers = new Object[16];
+    private boolean[] arrays = new boolean[16];
+    private int depth = -1;
+    private String name;
+    private Object root;
+
+    private JsonTreeSink(Model model, boolean skipNulls) {
+        this.model = model;
+        this.skipNulls = skipNulls;
+    }
+
+    /***
+     * Arvore do Gson; valores que nao sao String, Number ou Boolean sao convertidos pelo Gson informado
+     * @param gson Gson usado nos valores nao primitivos
+     * @param skipNulls Omite as propriedades null
+     * @return Sink de JsonElement
+     */
+    public static JsonTreeSink<JsonElement> gson(Gson gson, boolean skipNulls) {
+        return new JsonTreeSink<>(new GsonModel(gson), skipNulls);
+    }
+
+    /***
+     * Arvore do json-smart, com os mesmos tipos que o JSONValue.parse produziria para o texto
+     * @param skipNulls Omite as propriedades null
+     * @return Sink de JSONObject ou JSONArray
+     */
+    public static JsonTreeSink<Object> jsonSmart(boolean skipNulls) {
+        return new JsonTreeSink<>(new MapModel(true), skipNulls);
+    }
+
+    /***
+     * Arvore de LinkedHashMap e ArrayList
+     * @param skipNulls Omite as propriedades null
+     * @return Sink de Map ou List
+     */
+    public static JsonTreeSink<Object> plain(boolean skipNulls) {
+        return new JsonTreeSink<>(new MapModel(false), skipNulls);
+    }
+
+    /***
+     * Raiz montada, disponivel depois do documento completo
+     * @return Objeto ou array raiz
+     */
+    @SuppressWarnings("unchecked")
+    public T result() {
+        return (T) root;
+    }
+
+    @Override
+    public void beginObject() {
+        open(model.newObject(), false);
+    }
+
+    @Override
+    public void endObject() {
+        depth--;
+    }
+
+    @Override
+    public void beginArray() {
+        open(model.newArray(), true);
+    }
+
+    @Override
+    public void endArray() {
+        depth--;
+    }
+
+    @Override
+    public void name(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void value(Object value) {
+        if (value == null && skipNulls && !arrays[depth]) {
+            name = null;
+            return;
+        }
+        attach(model.leaf(value));
+    }
+
+    private void open(Object container, boolean array) {
+        if (depth < 0) {
+            root = container;
+        } else {
+            attach(container);
+        }
+        depth++;
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+            arrays = Arrays.copyOf(arrays, depth * 2);
+        }
+        containers[depth] = container;
+        arrays[depth] = array;
+    }
+
+    private void attach(Object value) {
+        if (arrays[depth]) {
+            model.add(containers[depth], value);
+        } else {
+            model.put(containers[depth], name, value);
+            name = null;
+        }
+    }
+
+    /***
+     * Cria os nos da arvore e converte as folhas
+     */
+    private interface Model {
+
+        Object newObject();
+
+        Object newArray();
+
+        void put(Object object, String name, Object value);
+
+        void add(Object array, Object value);
+
+        Object leaf(Object value);
+    }
+
+    private static final class GsonModel implements Model {
+
+        private final Gson gson;
+
+        private GsonModel(Gson gson) {
+            this.gson = gson;
+        }
+
+        @Override
+        public Object newObject() {
+            return new JsonObject();
+        }
+
+        @Override
+        public Object newArray() {
+            return new JsonArray();
+        }
+
+        @Override
+        public void put(Object object, String name, Object value) {
+            ((JsonObject) object).add(name, (JsonElement) value);
+        }
+
+        @Override
+        public void add(Object array, Object value) {
+            ((JsonArray) array).add((JsonElement) value);
+        }
+
+        @Override
+        public Object leaf(Object value) {
+            if (value == null) {
+                return JsonNull.INSTANCE;
+            }
+            if (value instanceof String) {
+                return new JsonPrimitive((String) value);
+            }
+            if (value instanceof Number) {
+                return new JsonPrimitive((Number) value);
+            }
+            if (value instanceof Boolean) {
+                return new JsonPrimitive((Boolean) value);
+            }
+            if (value instanceof CharSequence) {
+                return new JsonPrimitive(value.toString());
+            }
+            return gson.toJsonTree(value);
+        }
+    }
+
+    private static final class MapModel implements Model {
+
+        private final boolean jsonSmart;
+
+        private MapModel(boolean jsonSmart) {
+            this.jsonSmart = jsonSmart;
+        }
+
+        @Override
+        public Object newObject() {
+            return jsonSmart ? new JSONObject() : new LinkedHashMap<String, Object>();
+        }
+
+        @Override
+        public Object newArray() {
+            return jsonSmart ? new JSONArray() : new ArrayList<>();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void put(Object object, String name, Object value) {
+            ((Map<String, Object>) object).put(name, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(Object array, Object value) {
+            ((List<Object>) array).add(value);
+        }
+
+        @Override
+        public Object leaf(Object value) {
+            // Utf8 do Avro e outras CharSequence viram String, como na leitura de um texto JSON
+            return value instanceof CharSequence && !(value instanceof String) ? value.toString() : value;
+        }
+    }
+}
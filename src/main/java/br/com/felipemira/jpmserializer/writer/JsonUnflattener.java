@@ -0,0 +1,353 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/***
+ Reconstroi o JSON de um Map de JSONPaths escrevendo direto no destino, sem montar arvores intermediarias
+ As chaves sao ordenadas por caminho (indices pela ordem numerica, nomes pela ordem lexicografica),
+ o que deixa cada objeto e array contiguo; depois uma unica passada abre e fecha os containers
+ Indices ausentes em um array sao preenchidos com null
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class JsonUnflattener {
+
+    private final JsonPathKey[] paths;
+    private final Object[] values;
+    private final int[] order;
+    private final JsonStructureSink sink;
+
+    private JsonPathKey[] open = new JsonPathKey[16];
+    private int[] lastIndex = new int[16];
+    private boolean[] arrays = new boolean[16];
+    private int top;
+    private JsonPathKey[] segments = new JsonPathKey[16];
+
+    private JsonUnflattener(JsonPathKey[] paths, Object[] values, JsonStructureSink sink) {
+        this.paths = paths;
+        this.values = values;
+        this.order = new int[paths.length];
+        this.sink = sink;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+    }
+
+    private JsonUnflattener(Map<? extends CharSequence, ?> map, JsonStructureSink sink, JsonLimits limits) {
+        int size = map.size();
+        limits.checkLeaves(size);
+        this.paths = new JsonPathKey[size];
+        this.values = new Object[size];
+        this.order = new int[size];
+        this.sink = sink;
+        int i = 0;
+        for (Map.Entry<? extends CharSequence, ?> entry : map.entrySet()) {
+            paths[i] = JsonPathParser.parse(entry.getKey());
+            limits.checkPath(paths[i]);
+            values[i] = entry.getValue();
+            order[i] = i;
+            i++;
+        }
+    }
+
+    /***
+     * Escreve o JSON representado pelo Map no destino
+     * @param map Map de JSONPaths e valores
+     * @param sink Destino dos eventos
+     */
+    public static void write(Map<? extends CharSequence, ?> map, JsonStructureSink sink) {
+        write(map, sink, JsonLimits.unlimited());
+    }
+
+    /***
+     * Escreve o JSON representado pelo Map conferindo os limites de cada chave antes de escrever
+     * Um indice muito alto geraria um array preenchido com null ate ele; com maxArrayLength a escrita nem comeca
+     * @param map Map de JSONPaths e valores
+     * @param sink Destino dos eventos
+     * @param limits Limites de folhas, profundidade, tamanho de chave e indice de array
+     */
+    public static void write(Map<? extends CharSequence, ?> map, JsonStructureSink sink, JsonLimits limits) {
+        new JsonUnflattener(map, sink, limits).write();
+    }
+
+    /***
+     * Escreve o JSON de caminhos ja lidos, sem passar por um Map
+     * Caminhos ja ordenados sao conferidos em O(n), sem reordenar
+     * @param paths Caminhos
+     * @param values Valor de cada caminho, na mesma posicao
+     * @param size Quantidade de entradas usadas nos arrays
+     * @param sink Destino dos eventos
+     */
+    public static void write(JsonPathKey[] paths, Object[] values, int size, JsonStructureSink sink) {
+        if (size == paths.length && size == values.length) {
+            new JsonUnflattener(paths, values, sink).write();
+        } else {
+            new JsonUnflattener(Arrays.copyOf(paths, size), Arrays.copyOf(values, size), sink).write();
+        }
+    }
+
+    /***
+     * Ordena posicoes pelo caminho na ordem de escrita, com merge sort estavel:
+     * posicoes com o mesmo caminho mantem a ordem em que estavam
+     * @param paths Caminhos
+     * @param order Posicoes dos caminhos, ordenadas no proprio array
+     */
+    public static void sort(JsonPathKey[] paths, int[] order) {
+        sort(paths, order, new int[order.length], 0, order.length);
+    }
+
+    /***
+     * Compara dois caminhos na ordem de escrita: ancestrais antes dos descendentes,
+     * indices pela ordem numerica e nomes pela ordem lexicografica
+     * @param a Caminho
+     * @param b Caminho
+     * @return Resultado da comparacao
+     */
+    public static int compare(JsonPathKey a, JsonPathKey b) {
+        if (a == b) {
+            return 0;
+        }
+        JsonPathKey x = a;
+        JsonPathKey y = b;
+        while (x.depth() > b.depth()) {
+            x = x.parent();
+        }
+        while (y.depth() > a.depth()) {
+            y = y.parent();
+        }
+        if (x.equals(y)) {
+            return Integer.compare(a.depth(), b.depth());
+        }
+        while (!x.parent().equals(y.parent())) {
+            x = x.parent();
+            y = y.parent();
+        }
+        return compareSegments(x, y);
+    }
+
+    private static int compareSegments(JsonPathKey x, JsonPathKey y) {
+        if (x.isIndex() && y.isIndex()) {
+            return Integer.compare(x.index(), y.index());
+        }
+        if (x.isIndex() != y.isIndex()) {
+            return x.isIndex() ? -1 : 1;
+        }
+        return x.name().compareTo(y.name());
+    }
+
+    private void write() {
+        int size = paths.length;
+        if (size == 0) {
+            sink.beginObject();
+            sink.endObject();
+            sink.flush();
+            return;
+        }
+        sort(paths, order, new int[size], 0, size);
+
+        JsonPathKey first = paths[order[0]];
+        if (first.isRoot()) {
+            writeRoot(size);
+            return;
+        }
+        open[0] = JsonPathKey.root();
+        arrays[0] = first.segments()[0].isIndex();
+        lastIndex[0] = -1;
+        top = 0;
+        if (arrays[0]) {
+            sink.beginArray();
+        } else {
+            sink.beginObject();
+        }
+
+        for (int n = 0; n < size; n++) {
+            JsonPathKey path = paths[order[n]];
+            Object value = values[order[n]];
+            JsonPathKey next = n + 1 < size ? paths[order[n + 1]] : null;
+            boolean hasChildren = next != null && isAncestor(path, next);
+
+            if (next != null && next.equals(path)) {
+                throw conflict(path);
+            }
+            if (hasChildren) {
+                // Um array ou objeto vazio e ignorado quando o mesmo caminho tem filhos
+                if (isEmptyContainer(value)) {
+                    continue;
+                }
+                throw conflict(path);
+            }
+            writeEntry(path, value);
+        }
+
+        while (top > 0) {
+            close();
+        }
+        if (arrays[0]) {
+            sink.endArray();
+        } else {
+            sink.endObject();
+        }
+        sink.flush();
+    }
+
+    private void writeRoot(int size) {
+        Object value = values[order[0]];
+        if (size > 1 && !isEmptyContainer(value)) {
+            throw conflict(paths[order[0]]);
+        }
+        if (size > 1) {
+            // O placeholder da raiz e ignorado e os demais caminhos montam o documento
+            Map<CharSequence, Object> rest = new LinkedHashMap<>();
+            for (int n = 1; n < size; n++) {
+                rest.put(paths[order[n]], values[order[n]]);
+            }
+            write(rest, sink);
+            return;
+        }
+        writeValue(value);
+        sink.flush();
+    }
+
+    private void writeEntry(JsonPathKey path, Object value) {
+        int depth = path.depth();
+        if (segments.length < depth) {
+            segments = new JsonPathKey[Math.max(depth, segments.length * 2)];
+        }
+        JsonPathKey node = path;
+        for (int i = depth - 1; i >= 0; i--) {
+            segments[i] = node;
+            node = node.parent();
+        }
+
+        int common = 0;
+        while (common < top && common < depth && open[common + 1].equals(segments[common])) {
+            common++;
+        }
+        while (top > common) {
+            close();
+        }
+
+        for (int i = common; i < depth - 1; i++) {
+            writeSlot(segments[i]);
+            push(segments[i], segments[i + 1].isIndex());
+        }
+        writeSlot(segments[depth - 1]);
+        writeValue(value);
+    }
+
+    private void writeSlot(JsonPathKey segment) {
+        if (arrays[top] != segment.isIndex()) {
+            throw new IllegalArgumentException("JSONPath " + segment + " mixes array indices and property names on the same level");
+        }
+        if (arrays[top]) {
+            JsonLimits.checkArrayIndex(segment.index());
+            for (int i = lastIndex[top] + 1; i < segment.index(); i++) {
+                sink.value(null);
+            }
+            lastIndex[top] = segment.index();
+        } else {
+            sink.name(segment.name());
+        }
+    }
+
+    private void writeValue(Object value) {
+        if (value instanceof Map && ((Map<?, ?>) value).isEmpty()) {
+            sink.beginObject();
+            sink.endObject();
+        } else if (value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+            sink.beginArray();
+            sink.endArray();
+        } else {
+            sink.value(value);
+        }
+    }
+
+    private void push(JsonPathKey container, boolean array) {
+        top++;
+        if (top == open.length) {
+            open = Arrays.copyOf(open, top * 2);
+            lastIndex = Arrays.copyOf(lastIndex, top * 2);
+            arrays = Arrays.copyOf(arrays, top * 2);
+        }
+        open[top] = container;
+        arrays[top] = array;
+        lastIndex[top] = -1;
+        if (array) {
+            sink.beginArray();
+        } else {
+            sink.beginObject();
+        }
+    }
+
+    private void close() {
+        if (arrays[top]) {
+            sink.endArray();
+        } else {
+            sink.endObject();
+        }
+        open[top] = null;
+        top--;
+    }
+
+    private static boolean isAncestor(JsonPathKey ancestor, JsonPathKey path) {
+        if (path.depth() <= ancestor.depth()) {
+            return false;
+        }
+        JsonPathKey node = path;
+        while (node.depth() > ancestor.depth()) {
+            node = node.parent();
+        }
+        return node.equals(ancestor);
+    }
+
+    private static boolean isEmptyContainer(Object value) {
+        return (value instanceof Map && ((Map<?, ?>) value).isEmpty())
+                || (value instanceof Collection && ((Collection<?>) value).isEmpty());
+    }
+
+    private static IllegalArgumentException conflict(JsonPathKey path) {
+        return new IllegalArgumentException("JSONPath " + path + " conflicts with a value already mapped on the same path");
+    }
+
+    /***
+     * Ordena as posicoes pelo caminho com merge sort estavel, sem criar objetos por entrada
+     */
+    private static void sort(JsonPathKey[] paths, int[] items, int[] buffer, int from, int to) {
+        if (to - from < 8) {
+            for (int i = from + 1; i < to; i++) {
+                int item = items[i];
+                int j = i - 1;
+                while (j >= from && compare(paths[items[j]], paths[item]) > 0) {
+                    items[j + 1] = items[j];
+                    j--;
+                }
+                items[j + 1] = item;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(paths, items, buffer, from, middle);
+        sort(paths, items, buffer, middle, to);
+        if (compare(paths[items[middle - 1]], paths[items[middle]]) <= 0) {
+            return;
+        }
+        System.arraycopy(items, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(paths[buffer[left]], paths[buffer[right]]) <= 0)) {
+                items[i] = buffer[left++];
+            } else {
+                items[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/***
+ Array de bytes crescente e reutilizavel que recebe o JSON em UTF-8
+ Mantenha uma instancia por thread e chame reset entre os documentos: o array so cresce, entao depois dos
+ primeiros documentos nenhuma escrita aloca memoria
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class Utf8Buffer {
+
+    private byte[] bytes;
+    private int size;
+
+    public Utf8Buffer() {
+        this(8192);
+    }
+
+    /***
+     * @param capacity Capacidade inicial em bytes
+     */
+    public Utf8Buffer(int capacity) {
+        this.bytes = new byte[Math.max(capacity, 16)];
+    }
+
+    /***
+     * Array interno; apenas os primeiros size() bytes sao validos e o array muda quando o buffer cresce
+     * @return Array de bytes
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /***
+     * Descarta o conteudo mantendo o array alocado
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /***
+     * Visao do conteudo sem copia, valida ate a proxima escrita ou reset
+     * @return ByteBuffer de leitura com position 0 e limit size()
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size).asReadOnlyBuffer();
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /***
+     * Garante espaco para mais bytes e devolve o array atual
+     */
+    byte[] ensure(int extra) {
+        int required = size + extra;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+        return bytes;
+    }
+
+    void write(int b) {
+        if (size == bytes.length) {
+            ensure(1);
+        }
+        bytes[size++] = (byte) b;
+    }
+
+    void advance(int count) {
+        size += count;
+    }
+
+    int position() {
+        return size;
+    }
+}
@@ -0,0 +1,403 @@
+package br.com.felipemira.jpmserializer.writer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+/***
+ Escreve os eventos de estrutura direto em bytes UTF-8, sem passar por String nem por Writer
+ Reproduz a saida do GsonJsonSink byte a byte: mesma indentacao, escape, tratamento de nulls e formatacao de numeros;
+ com o escape html safe do Gson (o padrao), todo nome e toda string sao escapados (<, >, &, = e ' viram escapes unicode)
+ Para OutputStream e ByteBuffer os bytes passam por um bloco reutilizado da thread, descarregado a cada 8 KB
+ author: Felipe Mira
+ version: 1.0
+ date: 2026-10-18
+ */
+public final class Utf8JsonSink implements JsonStructureSink {
+
+    private static final int CHUNK = 8192;
+
+    /* Quantidade de chars convertidos por vez, para reservar no maximo 6 bytes por char sem superdimensionar o buffer */
+    private static final int STRING_SLICE = 1024;
+
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_ARRAY = 2;
+    private static final byte NONEMPTY_ARRAY = 3;
+    private static final byte EMPTY_OBJECT = 4;
+    private static final byte NONEMPTY_OBJECT = 5;
+    private static final byte DANGLING_NAME = 6;
+
+    /* Escapados pelo Gson porque terminam linhas em JavaScript */
+    private static final char LINE_SEPARATOR = 0x2028;
+    private static final char PARAGRAPH_SEPARATOR = 0x2029;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    /* Bloco de cada thread para OutputStream e ByteBuffer; fica null enquanto um sink da mesma thread o usa */
+    private static final ThreadLocal<Utf8Buffer> POOL = new ThreadLocal<>();
+
+    private final Gson gson;
+    private final boolean pretty;
+    private final boolean serializeNulls;
+    private final boolean htmlSafe;
+
+    /* Dentro de um valor convertido pelo Gson, que escreve leniente como o toJson */
+    private boolean converting;
+    private final Utf8Buffer buffer;
+    private final boolean pooled;
+    private final OutputStream stream;
+    private final ByteBuffer target;
+
+    private byte[] stack = new byte[32];
+    private int stackSize = 1;
+    private String deferredName;
+
+    private Utf8JsonSink(Gson gson, boolean pretty, Utf8Buffer buffer, OutputStream stream, ByteBuffer target) {
+        this.gson = gson;
+        this.pretty = pretty;
+        this.serializeNulls = gson.serializeNulls();
+        this.htmlSafe = gson.htmlSafe();
+        this.stream = stream;
+        this.target = target;
+        if (buffer != null) {
+            this.buffer = buffer;
+            this.pooled = false;
+        } else {
+            Utf8Buffer chunk = POOL.get();
+            POOL.set(null);
+            this.buffer = chunk != null ? chunk : new Utf8Buffer(CHUNK * 2);
+            this.buffer.reset();
+            this.pooled = true;
+        }
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /***
+     * Escreve no fim do buffer informado, que pode ser reaproveitado entre documentos
+     * @param gson Gson com as opcoes de nulls e escape
+     * @param pretty Indenta como o setPrettyPrinting do Gson
+     * @param buffer Destino
+     * @return Sink
+     */
+    public static Utf8JsonSink of(Gson gson, boolean pretty, Utf8Buffer buffer) {
+        return new Utf8JsonSink(gson, pretty, buffer, null, null);
+    }
+
+    /***
+     * Escreve no OutputStream em blocos; o stream recebe flush no fim do documento e nao e fechado
+     */
+    public static Utf8JsonSink of(Gson gson, boolean pretty, OutputStream stream) {
+        return new Utf8JsonSink(gson, pretty, null, stream, null);
+    }
+
+    /***
+     * Escreve a partir da position do ByteBuffer, que avanca conforme os blocos sao descarregados
+     * @throws java.nio.BufferOverflowException quando o documento nao cabe no espaco restante
+     */
+    public static Utf8JsonSink of(Gson gson, boolean pretty, ByteBuffer target) {
+        return new Utf8JsonSink(gson, pretty, null, null, target);
+    }
+
+    @Override
+    public void beginObject() {
+        writeDeferredName();
+        open(EMPTY_OBJECT, '{');
+    }
+
+    @Override
+    public void endObject() {
+        close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    @Override
+    public void beginArray() {
+        writeDeferredName();
+        open(EMPTY_ARRAY, '[');
+    }
+
+    @Override
+    public void endArray() {
+        close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    @Override
+    public void name(String name) {
+        if (deferredName != null || stack[stackSize - 1] != EMPTY_OBJECT && stack[stackSize - 1] != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("Name " + name + " outside of an object");
+        }
+        deferredName = name;
+    }
+
+    @Override
+    public void value(Object value) {
+        if (value == null) {
+            if (deferredName != null) {
+                if (!serializeNulls) {
+                    // Gson sem serializeNulls descarta o nome junto com o valor
+                    deferredName = null;
+                    return;
+                }
+                writeDeferredName();
+            }
+            beforeValue();
+            writeAscii("null");
+        } else if (value instanceof CharSequence) {
+            writeDeferredName();
+            beforeValue();
+            string(value.toString());
+        } else if (value instanceof Boolean) {
+            writeDeferredName();
+            beforeValue();
+            writeAscii((Boolean) value ? "true" : "false");
+        } else if (value instanceof Number) {
+            writeDeferredName();
+            String text = value.toString();
+            if (!converting && (text.equals("-Infinity") || text.equals("Infinity") || text.equals("NaN"))) {
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+            }
+            beforeValue();
+            writeAscii(text);
+        } else {
+            converting = true;
+            try {
+                element(gson.toJsonTree(value));
+            } finally {
+                converting = false;
+            }
+        }
+        drainIfFull();
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        if (pooled) {
+            POOL.set(buffer);
+        }
+        if (stream != null) {
+            try {
+                stream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void element(JsonElement element) {
+        if (element.isJsonObject()) {
+            beginObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                name(entry.getKey());
+                element(entry.getValue());
+            }
+            endObject();
+        } else if (element.isJsonArray()) {
+            beginArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                element(item);
+            }
+            endArray();
+        } else if (element.isJsonNull()) {
+            value(null);
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                value(primitive.getAsString());
+            } else if (primitive.isBoolean()) {
+                value(primitive.getAsBoolean());
+            } else {
+                value(primitive.getAsNumber());
+            }
+        }
+    }
+
+    private void open(byte empty, char bracket) {
+        beforeValue();
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = empty;
+        buffer.write(bracket);
+    }
+
+    private void close(byte empty, byte nonempty, char bracket) {
+        byte context = stack[stackSize - 1];
+        if (context != empty && context != nonempty || deferredName != null) {
+            throw new IllegalStateException("Nesting problem closing " + bracket);
+        }
+        stackSize--;
+        if (context == nonempty) {
+            newline();
+        }
+        buffer.write(bracket);
+        drainIfFull();
+    }
+
+    private void writeDeferredName() {
+        if (deferredName != null) {
+            byte context = stack[stackSize - 1];
+            if (context == NONEMPTY_OBJECT) {
+                buffer.write(',');
+            }
+            newline();
+            stack[stackSize - 1] = DANGLING_NAME;
+            string(deferredName);
+            deferredName = null;
+        }
+    }
+
+    private void beforeValue() {
+        byte context = stack[stackSize - 1];
+        if (context == EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        } else if (context == EMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+            newline();
+        } else if (context == NONEMPTY_ARRAY) {
+            buffer.write(',');
+            newline();
+        } else if (context == DANGLING_NAME) {
+            buffer.write(':');
+            if (pretty) {
+                buffer.write(' ');
+            }
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+        } else {
+            throw new IllegalStateException("JSON must have only one top-level value");
+        }
+    }
+
+    private void newline() {
+        if (!pretty) {
+            return;
+        }
+        int length = 1 + 2 * (stackSize - 1);
+        byte[] bytes = buffer.ensure(length);
+        int position = buffer.position();
+        bytes[position] = '\n';
+        Arrays.fill(bytes, position + 1, position + length, (byte) ' ');
+        buffer.advance(length);
+    }
+
+    private void writeAscii(String text) {
+        byte[] bytes = buffer.ensure(text.length());
+        int position = buffer.position();
+        for (int i = 0; i < text.length(); i++) {
+            bytes[position + i] = (byte) text.charAt(i);
+        }
+        buffer.advance(text.length());
+    }
+
+    /***
+     * Escreve a String entre aspas com o mesmo escape do JsonWriter; surrogates sem par viram '?',
+     * como no OutputStreamWriter em UTF-8
+     */
+    private void string(String value) {
+        buffer.write('"');
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            int end = Math.min(length, i + STRING_SLICE);
+            byte[] bytes = buffer.ensure((end - i + 1) * 6);
+            int start = buffer.position();
+            int p = start;
+            for (; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c >= 0x20 && c != '"' && c != '\\' && !(htmlSafe && isHtml(c))) {
+                        bytes[p++] = (byte) c;
+                    } else {
+                        p = escape(bytes, p, c);
+                    }
+                } else if (c < 0x800) {
+                    bytes[p++] = (byte) (0xc0 | c >> 6);
+                    bytes[p++] = (byte) (0x80 | c & 0x3f);
+                } else if (c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+                    p = unicodeEscape(bytes, p, c);
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int code = Character.toCodePoint(c, value.charAt(++i));
+                        bytes[p++] = (byte) (0xf0 | code >> 18);
+                        bytes[p++] = (byte) (0x80 | code >> 12 & 0x3f);
+                        bytes[p++] = (byte) (0x80 | code >> 6 & 0x3f);
+                        bytes[p++] = (byte) (0x80 | code & 0x3f);
+                    } else {
+                        bytes[p++] = '?';
+                    }
+                } else {
+                    bytes[p++] = (byte) (0xe0 | c >> 12);
+                    bytes[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    bytes[p++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            buffer.advance(p - start);
+        }
+        buffer.write('"');
+    }
+
+    private static boolean isHtml(char c) {
+        return c == '<' || c == '>' || c == '&' || c == '=' || c == '\'';
+    }
+
+    private static int escape(byte[] bytes, int p, char c) {
+        char simple;
+        if (c == '"' || c == '\\') {
+            simple = c;
+        } else if (c == '\t') {
+            simple = 't';
+        } else if (c == '\b') {
+            simple = 'b';
+        } else if (c == '\n') {
+            simple = 'n';
+        } else if (c == '\r') {
+            simple = 'r';
+        } else if (c == '\f') {
+            simple = 'f';
+        } else {
+            return unicodeEscape(bytes, p, c);
+        }
+        bytes[p++] = '\\';
+        bytes[p++] = (byte) simple;
+        return p;
+    }
+
+    private static int unicodeEscape(byte[] bytes, int p, char c) {
+        bytes[p++] = '\\';
+        bytes[p++] = 'u';
+        bytes[p++] = HEX[c >> 12 & 0xf];
+        bytes[p++] = HEX[c >> 8 & 0xf];
+        bytes[p++] = HEX[c >> 4 & 0xf];
+        bytes[p++] = HEX[c & 0xf];
+        return p;
+    }
+
+    private void drainIfFull() {
+        if (buffer.size() >= CHUNK) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (buffer.size() == 0 || stream == null && target == null) {
+            return;
+        }
+        if (stream != null) {
+            try {
+                buffer.writeTo(stream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            target.put(buffer.array(), 0, buffer.size());
+        }
+        buffer.reset();
+    }
+}
@@ -0,0 +1,128 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvroTest {
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Pedido\",\"fields\":["
+            + "{\"name\":\"id\",\"type\":\"long\"},"
+            + "{\"name\":\"cliente\",\"type\":{\"type\":\"record\",\"name\":\"Cliente\",\"fields\":["
+            + "  {\"name\":\"nome\",\"type\":\"string\"},{\"name\":\"email\",\"type\":[\"null\",\"string\"]}]}},"
+            + "{\"name\":\"itens\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"Item\",\"fields\":["
+            + "  {\"name\":\"sku\",\"type\":\"string\"},{\"name\":\"preco\",\"type\":\"double\"}]}}},"
+            + "{\"name\":\"atributos\",\"type\":{\"type\":\"map\",\"values\":\"int\"}},"
+            + "{\"name\":\"status\",\"type\":{\"type\":\"enum\",\"name\":\"Status\",\"symbols\":[\"NOVO\",\"PAGO\"]}},"
+            + "{\"name\":\"hash\",\"type\":{\"type\":\"fixed\",\"name\":\"Hash\",\"size\":4}},"
+            + "{\"name\":\"payload\",\"type\":\"bytes\"},"
+            + "{\"name\":\"canal\",\"type\":\"string\",\"default\":\"web\"}]}");
+
+    private static GenericRecord pedido() {
+        Schema cliente = SCHEMA.getField("cliente").schema();
+        Schema item = SCHEMA.getField("itens").schema().getElementType();
+
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("id", 42L);
+        GenericRecord c = new GenericData.Record(cliente);
+        c.put("nome", new Utf8("Joao"));
+        c.put("email", null);
+        record.put("cliente", c);
+        GenericRecord i1 = new GenericData.Record(item);
+        i1.put("sku", new Utf8("A-1"));
+        i1.put("preco", 10.5);
+        GenericRecord i2 = new GenericData.Record(item);
+        i2.put("sku", new Utf8("B-2"));
+        i2.put("preco", 3.0);
+        record.put("itens", new GenericData.Array<>(SCHEMA.getField("itens").schema(), Arrays.asList(i1, i2)));
+        Map<Utf8, Integer> atributos = new LinkedHashMap<>();
+        atributos.put(new Utf8("peso"), 7);
+        record.put("atributos", atributos);
+        record.put("status", new GenericData.EnumSymbol(SCHEMA.getField("status").schema(), "PAGO"));
+        record.put("hash", new GenericData.Fixed(SCHEMA.getField("hash").schema(), new byte[]{1, 2, (byte) 0xFE, 0}));
+        record.put("payload", ByteBuffer.wrap(new byte[]{9, 8, 7}));
+        record.put("canal", new Utf8("app"));
+        return record;
+    }
+
+    @Test
+    public void shouldFlattenRecordWithoutJson() {
+        Map<CharSequence, Object> map = new Serialize().serializeRecordToMapJPath(pedido());
+
+        assertEquals(42L, map.get("$['id']"));
+        assertEquals(new Utf8("Joao"), map.get("$['cliente']['nome']"));
+        assertTrue(map.get("$['cliente']['nome']") instanceof Utf8);
+        assertTrue(map.containsKey("$['cliente']['email']"));
+        assertEquals(new Utf8("B-2"), map.get("$['itens'][1]['sku']"));
+        assertEquals(7, map.get("$['atributos']['peso']"));
+        assertEquals("PAGO", map.get("$['status']"));
+        assertEquals(12, map.size());
+    }
+
+    @Test
+    public void shouldRebuildTheSameRecord() throws IOException {
+        GenericRecord original = decode(encode(pedido()));
+        Map<CharSequence, Object> map = new Serialize().serializeRecordToMapJPath(original);
+
+        GenericRecord rebuilt = new Deserialize().deserializeMapToRecord(map, SCHEMA);
+
+        assertArrayEquals(encode(original), encode(rebuilt));
+        assertTrue(((GenericRecord) rebuilt.get("cliente")).get("nome") instanceof Utf8);
+    }
+
+    @Test
+    public void shouldBuildRecordFromJsonMapWithDefaults() throws IOException {
+        String json = "{\"id\":1,\"cliente\":{\"nome\":\"Ana\"},\"itens\":[{\"sku\":\"X\",\"preco\":2}],"
+                + "\"atributos\":{},\"status\":\"NOVO\",\"hash\":\"abcd\",\"payload\":\"\"}";
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(json);
+
+        GenericRecord record = new Deserialize().deserializeMapToRecord(map, SCHEMA);
+
+        assertEquals(1L, record.get("id"));
+        assertEquals(2.0, ((GenericRecord) ((GenericData.Array<?>) record.get("itens")).get(0)).get("preco"));
+        assertNull(((GenericRecord) record.get("cliente")).get("email"));
+        assertEquals("web", record.get("canal").toString());
+        assertTrue(((Map<?, ?>) record.get("atributos")).isEmpty());
+        assertEquals(record, decode(encode(record)));
+    }
+
+    @Test
+    public void shouldRejectPathsOutsideTheSchema() {
+        Map<CharSequence, Object> map = new Serialize().serializeRecordToMapJPath(pedido());
+        map.put("$['desconhecido']", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new Deserialize().deserializeMapToRecord(map, SCHEMA));
+
+        map.remove("$['desconhecido']");
+        map.remove("$['id']");
+        assertThrows(IllegalArgumentException.class, () -> new Deserialize().deserializeMapToRecord(map, SCHEMA));
+    }
+
+    private static byte[] encode(GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(SCHEMA).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static GenericRecord decode(byte[] bytes) throws IOException {
+        return new GenericDatumReader<GenericRecord>(SCHEMA).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    }
+}
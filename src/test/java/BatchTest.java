@@ -0,0 +1,115 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.batch.BatchOptions;
+import br.com.felipemira.jpmserializer.batch.BatchResult;
+import com.jayway.jsonpath.InvalidJsonException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BatchTest {
+
+    private static List<String> documents(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "{\"id\":" + i + ",\"tags\":[\"t" + i + "\"],\"nested\":{\"v\":" + (i * 2) + "}}")
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void shouldKeepInputOrder() {
+        Serialize serialize = new Serialize();
+        List<String> jsons = documents(500);
+
+        List<BatchResult<Map<CharSequence, Object>>> results = serialize.serializeAll(jsons,
+                BatchOptions.builder().chunkSize(7).build());
+
+        assertEquals(jsons.size(), results.size());
+        for (int i = 0; i < jsons.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(serialize.serializeJsonToMapJPath(jsons.get(i)), results.get(i).getOrThrow());
+        }
+    }
+
+    @Test
+    public void shouldReportErrorsPerDocument() {
+        List<String> jsons = documents(10);
+        jsons.set(3, "{\"a\":}");
+
+        List<BatchResult<Map<CharSequence, Object>>> results = new Serialize().serializeAll(jsons, BatchOptions.defaults());
+
+        assertFalse(results.get(3).isSuccess());
+        assertTrue(results.get(3).getError() instanceof InvalidJsonException);
+        assertThrows(InvalidJsonException.class, () -> results.get(3).getOrThrow());
+        assertEquals(9, results.stream().filter(BatchResult::isSuccess).count());
+    }
+
+    @Test
+    public void shouldReturnEveryDocumentWhenUnordered() {
+        List<String> jsons = documents(300);
+
+        List<Long> all = new Serialize().serializeAll(jsons.stream(), BatchOptions.builder().ordered(false).chunkSize(5).build())
+                .map(BatchResult::getIndex)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(LongStream.range(0, 300).boxed().collect(Collectors.toList()), all);
+    }
+
+    @Test
+    public void shouldDeserializeWithCustomExecutor() {
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        List<Map<CharSequence, Object>> maps = documents(50).stream()
+                .map(serialize::serializeJsonToMapJPath)
+                .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<String> jsons = deserialize.deserializeAll(maps.stream(), BatchOptions.builder().executor(executor).maxInFlight(2).build())
+                    .map(BatchResult::getOrThrow)
+                    .collect(Collectors.toList());
+            assertEquals(maps.stream().map(deserialize::deserializeMapToJson).collect(Collectors.toList()), jsons);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidChunkSizes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> BatchOptions.builder().chunkSize(0).build());
+        assertEquals("chunkSize must be at least 1: 0", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.builder().chunkSize(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.builder().maxInFlight(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.defaults().toBuilder().chunkSize(0).build());
+
+        BatchOptions options = BatchOptions.builder().chunkSize(1).maxInFlight(1).build();
+        assertEquals(1, options.getChunkSize());
+        assertTrue(options.isOrdered());
+        assertEquals(5, new Serialize().serializeAll(documents(5), options).size());
+        assertEquals(16, BatchOptions.defaults().getChunkSize());
+    }
+
+    @Test
+    public void shouldUseVirtualThreadsWhenAvailable() {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21 or later");
+        BatchOptions options = BatchOptions.virtualThreads();
+        List<BatchResult<Map<CharSequence, Object>>> results = new Serialize().serializeAll(documents(20), options);
+        assertTrue(results.stream().allMatch(BatchResult::isSuccess));
+        assertSame(options.getExecutor(), BatchOptions.virtualThreads().getExecutor());
+    }
+
+    @Test
+    public void shouldRejectVirtualThreadsBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21, "Virtual threads are available on this JVM");
+        UnsupportedOperationException e = assertThrows(UnsupportedOperationException.class, BatchOptions::virtualThreads);
+        assertEquals("Virtual threads require Java 21 or later", e.getMessage());
+    }
+}
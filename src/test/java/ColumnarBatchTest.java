@@ -0,0 +1,81 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.ColumnarBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarBatchTest {
+
+    private static final List<String> JSONS = Arrays.asList(
+            "{\"id\":1,\"nome\":\"Ana\",\"tags\":[\"a\",\"b\"]}",
+            "{\"id\":2,\"nome\":null,\"tags\":[]}",
+            "{\"id\":3,\"nome\":\"Caio\",\"tags\":[\"c\"]}",
+            "{\"outro\":{\"x\":1.5}}",
+            "{\"tags\":[\"d\"],\"id\":5}");
+
+    @Test
+    public void shouldShareKeysAcrossRows() {
+        Serialize serialize = new Serialize();
+        ColumnarBatch batch = serialize.serializeColumnar(JSONS);
+
+        assertEquals(5, batch.size());
+        assertEquals(6, batch.keyCount());
+        for (int i = 0; i < JSONS.size(); i++) {
+            Map<CharSequence, Object> expected = serialize.serializeJsonToMapJPath(JSONS.get(i));
+            assertEquals(expected, batch.row(i));
+            assertEquals(expected.hashCode(), batch.row(i).hashCode());
+            assertEquals(expected.keySet().toString(), batch.row(i).keySet().toString());
+        }
+        assertSame(batch.key(batch.keyId("$['id']")), batch.row(2).keySet().iterator().next());
+    }
+
+    @Test
+    public void shouldDistinguishMissingFromNull() {
+        ColumnarBatch batch = new Serialize().serializeColumnar(JSONS);
+
+        Map<CharSequence, Object> second = batch.row(1);
+        assertTrue(second.containsKey("$['nome']"));
+        assertNull(second.get("$['nome']"));
+        assertFalse(second.containsKey("$['tags'][0]"));
+        assertFalse(batch.row(3).containsKey("$['id']"));
+        assertEquals(1.5, batch.get(3, "$['outro']['x']"));
+        assertNull(batch.get(0, "$['desconhecido']"));
+        assertEquals(-1, batch.keyId("$['desconhecido']"));
+        assertThrows(UnsupportedOperationException.class, () -> second.put("$['id']", 9));
+    }
+
+    @Test
+    public void shouldDeserializeRowsWithoutCopying() {
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        ColumnarBatch batch = serialize.serializeColumnar(JSONS);
+
+        for (int i = 0; i < JSONS.size(); i++) {
+            assertEquals(deserialize.deserializeMapToJson(serialize.serializeJsonToMapJPath(JSONS.get(i))),
+                    deserialize.deserializeMapToJson(batch.row(i)));
+        }
+    }
+
+    @Test
+    public void shouldBuildFromMaps() {
+        Map<CharSequence, Object> first = new HashMap<>();
+        first.put("$['a']", 1);
+        first.put("$['b']", "x");
+        Map<CharSequence, Object> second = new HashMap<>();
+        second.put("$['b']", "y");
+
+        ColumnarBatch batch = ColumnarBatch.of(Arrays.asList(first, second, new HashMap<>()));
+
+        assertEquals(first, batch.row(0));
+        assertEquals(second, batch.row(1));
+        assertTrue(batch.row(2).isEmpty());
+        assertEquals(3, batch.rows().size());
+        assertEquals(second, batch.rows().get(1));
+    }
+}
@@ -0,0 +1,93 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.CompactJsonPathMap;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactJsonPathMapTest {
+
+    private static final String JSON = "{\"int\":7,\"long\":2147483648,\"big\":99999999999999999999,\"double\":1.5,"
+            + "\"flag\":true,\"off\":false,\"text\":\"x\",\"none\":null,\"list\":[1,2.25,{}],\"empty\":[]}";
+
+    @Test
+    public void shouldMatchDefaultMap() {
+        Map<CharSequence, Object> expected = new Serialize().serializeJsonToMapJPath(JSON);
+        Map<CharSequence, Object> compact = Serialize.builder().compactMap(true).build().serializeJsonToMapJPath(JSON);
+
+        assertTrue(compact instanceof CompactJsonPathMap);
+        assertEquals(expected, compact);
+        assertEquals(compact, expected);
+        assertEquals(expected.hashCode(), compact.hashCode());
+        assertEquals(7, compact.get("$['int']"));
+        assertEquals(2147483648L, compact.get("$['long']"));
+        assertEquals(new BigInteger("99999999999999999999"), compact.get("$['big']"));
+        assertEquals(Boolean.FALSE, compact.get("$['off']"));
+        assertEquals(new Deserialize().deserializeMapToJson(expected), new Deserialize().deserializeMapToJson(compact));
+    }
+
+    @Test
+    public void shouldReadTypedValuesWithoutBoxing() {
+        CompactJsonPathMap map = (CompactJsonPathMap) Serialize.builder().compactMap(true).build().serializeJsonToMapJPath(JSON);
+
+        assertEquals(7.0, map.getDouble("$['int']"));
+        assertEquals(2147483648L, map.getLong("$['long']"));
+        assertEquals(1, map.getInt("$['double']"));
+        assertEquals(2.25, map.getDouble("$['list'][1]"));
+        assertTrue(map.getBoolean("$['flag']"));
+        assertEquals(new BigInteger("99999999999999999999").doubleValue(), map.getDouble("$['big']"));
+        assertThrows(IllegalArgumentException.class, () -> map.getDouble("$['text']"));
+        assertThrows(IllegalArgumentException.class, () -> map.getDouble("$['flag']"));
+        assertThrows(IllegalArgumentException.class, () -> map.getBoolean("$['int']"));
+        assertThrows(IllegalArgumentException.class, () -> map.getLong("$['missing']"));
+    }
+
+    @Test
+    public void shouldKeepColumnsAlignedWhenGrowingAndRemoving() {
+        CompactJsonPathMap map = new CompactJsonPathMap(4);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 4 == 0) {
+                map.putInt("$['k" + i + "']", i);
+            } else if (i % 4 == 1) {
+                map.putDouble("$['k" + i + "']", i + 0.5);
+            } else if (i % 4 == 2) {
+                map.put("$['k" + i + "']", "v" + i);
+            } else {
+                map.putBoolean("$['k" + i + "']", i % 8 == 3);
+            }
+        }
+        Iterator<Map.Entry<CharSequence, Object>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<CharSequence, Object> entry = entries.next();
+            if (entry.getKey().toString().hashCode() % 3 == 0) {
+                entries.remove();
+            }
+        }
+        for (int i = 1000; i < 3000; i++) {
+            map.put("$['k" + i + "']", (long) i);
+        }
+
+        for (int i = 0; i < 3000; i++) {
+            String key = "$['k" + i + "']";
+            if (key.hashCode() % 3 == 0 && i < 1000) {
+                assertFalse(map.containsKey(key), key);
+                continue;
+            }
+            Object expected = i >= 1000 ? (Object) (long) i
+                    : i % 4 == 0 ? (Object) i
+                    : i % 4 == 1 ? (Object) (i + 0.5)
+                    : i % 4 == 2 ? "v" + i
+                    : (Object) (i % 8 == 3);
+            assertEquals(expected, map.get(key), key);
+        }
+
+        map.put("$['k0']", "replaced");
+        assertEquals("replaced", map.get("$['k0']"));
+        assertEquals(1000L, map.put("$['k1000']", 3.0));
+        assertEquals(3.0, map.getDouble("$['k1000']"));
+    }
+}
@@ -0,0 +1,66 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EngineBuilderTest {
+
+    private static final String JSON = "{\"a\":1,\"b\":null,\"c\":[],\"d\":{\"e\":\"x\"}}";
+
+    @Test
+    public void shouldKeepDefaultsOfNoArgsConstructor() {
+        Deserialize deserialize = Deserialize.builder().build();
+        Map<CharSequence, Object> map = Serialize.builder().build().serializeJsonToMapJPath(JSON);
+
+        assertEquals(4, map.size());
+        assertEquals(new Deserialize().deserializeMapToJson(map), deserialize.deserializeMapToJson(map));
+        assertFalse(deserialize.isCompact());
+    }
+
+    @Test
+    public void shouldWriteCompactJson() {
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath("{\"d\":{\"e\":\"x\"}}");
+
+        assertEquals("{\"d\":{\"e\":\"x\"}}", deserialize.deserializeMapToJson(map));
+        StringBuilder out = new StringBuilder();
+        deserialize.deserializeMapToJson(map, out);
+        assertEquals("{\"d\":{\"e\":\"x\"}}", out.toString());
+    }
+
+    @Test
+    public void shouldSkipNullsAndEmptyContainers() {
+        Serialize serialize = Serialize.builder().skipNulls(true).skipEmptyContainers(true).build();
+        Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(JSON);
+
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("$['b']"));
+
+        Deserialize deserialize = Deserialize.builder().compact(true).skipNulls(true).build();
+        Map<CharSequence, Object> withNull = new Serialize().serializeJsonToMapJPath("{\"a\":1,\"b\":null}");
+        assertEquals("{\"a\":1}", deserialize.deserializeMapToJson(withNull));
+    }
+
+    @Test
+    public void shouldShareInstancesAcrossThreads() {
+        Serialize serialize = Serialize.builder().build();
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+
+        List<String> results = IntStream.range(0, 2000).parallel()
+                .mapToObj(i -> "{\"id\":" + i + ",\"itens\":[" + i + "," + (i + 1) + "]}")
+                .map(json -> deserialize.deserializeMapToJson(serialize.serializeJsonToMapJPath(json)))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(JsonParser.parseString("{\"id\":" + i + ",\"itens\":[" + i + "," + (i + 1) + "]}"),
+                    JsonParser.parseString(results.get(i)));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.parser.JsonFlattener;
+import br.com.felipemira.jpmserializer.parser.JsonTokenizer;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import com.google.gson.JsonParser;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.PathNotFoundException;
+import net.minidev.json.JSONArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonFlattenerTest {
+
+    private static final String[] DOCUMENTS = {
+            "{\"name\":\"John\", \"age\":30, \"city\":\"New York\"}",
+            "[{\"name\":\"John\", \"age\":30}, {\"name\":\"Jane\", \"age\":25, \"detalhe\":{}}]",
+            "{\"person\":{\"name\":\"John\"}, \"phones\":[], \"nested\":[[1,2],[],[{}]]}",
+            "{\"a\":1,\"b\":2147483648,\"c\":99999999999999999999,\"d\":1.5,\"e\":1e5,\"f\":1.23456789012345678901,"
+                    + "\"g\":-0,\"h\":true,\"i\":null,\"j\":\"s\\n\\u00e9\",\"k\":false,\"l\":-1.0,\"m\":-0.1234567890123456}",
+            "{\"carros\":[{\"cor\":\"vermelho\",\"consumoMedio\":15.5,\"potenciaMotor\":2.0,\"proprietarioAnterior\":null}]}",
+            "{\"a\":{\"b\":{\"c\":{\"d\":[1,{\"e\":[true]}]}}}}"
+    };
+
+    @Test
+    public void shouldMatchJsonPathOutput() {
+        Serialize serialize = new Serialize();
+        for (String json : DOCUMENTS) {
+            assertEquals(legacyJsonStringToMap(json), serialize.serializeJsonToMapJPath(json), json);
+        }
+    }
+
+    @Test
+    public void shouldKeepTheLastValueOfRepeatedNames() {
+        String[] documents = {
+                "{\"a\":{\"x\":1},\"a\":2}",
+                "{\"a\":{\"b\":1},\"a\":{\"c\":2}}",
+                "{\"a\":1,\"b\":[{\"x\":1,\"x\":{\"y\":[1,2]}}],\"a\":[3],\"a\":{}}",
+                "{\"a\":[1,{\"b\":1}],\"c\":true,\"a\":null,\"c\":1.5}"
+        };
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        for (String json : documents) {
+            Map<CharSequence, Object> expected = legacyJsonStringToMap(json);
+            Map<CharSequence, Object> eager = serialize.serializeJsonToMapJPath(json);
+
+            assertEquals(expected, eager, json);
+            assertEquals(expected, serialize.toBuilder().compactMap(true).build().serializeJsonToMapJPath(json), json);
+            assertEquals(expected, serialize.toBuilder().lazyMap(true).build().serializeJsonToMapJPath(json), json);
+            assertEquals(expected, serialize.toBuilder().sortedMap(true).build().serializeJsonToMapJPath(json), json);
+            assertEquals(JsonParser.parseString(json), JsonParser.parseString(deserialize.deserializeMapToJson(eager)), json);
+        }
+    }
+
+    @Test
+    public void shouldAcceptSingleQuotedAndUnquotedNames() {
+        String[] documents = {
+                "{'a':1}",
+                "{a:1}",
+                "{ a b :{'c}':[1,{d-e.f:true}]},'g \"h':null}"
+        };
+        Serialize serialize = new Serialize();
+        for (String json : documents) {
+            Map<CharSequence, Object> expected = legacyJsonStringToMap(json);
+            assertEquals(expected, serialize.serializeJsonToMapJPath(json), json);
+            assertEquals(expected, serialize.toBuilder().lazyMap(true).build().serializeJsonToMapJPath(json), json);
+        }
+        Map<CharSequence, Object> projected = Serialize.builder().projection(PathProjection.of("$['x']")).build()
+                .serializeJsonToMapJPath("{'a':{'b}':[1]},x:2}");
+        assertEquals(1, projected.size());
+        assertEquals(2, projected.get("$['x']"));
+
+        Map<CharSequence, Object> map = new JsonPathMap();
+        JsonFlattener.flatten(new JsonTokenizer("{'a\\'b':1}"), map::put);
+        assertEquals(1, map.get("$['a\\'b']"));
+    }
+
+    @Test
+    public void shouldEmitPlaceholdersForEmptyContainers() {
+        Map<CharSequence, Object> map = new JsonPathMap();
+        JsonFlattener.flatten(new JsonTokenizer("{\"a\":[],\"b\":{}}"), map::put);
+
+        assertTrue(map.get("$['a']") instanceof JSONArray);
+        assertTrue(map.get("$['b']") instanceof LinkedHashMap);
+    }
+
+    @Test
+    public void shouldEscapeQuotesInNames() {
+        Map<CharSequence, Object> map = new JsonPathMap();
+        JsonFlattener.flatten(new JsonTokenizer("{\"a'b\":1,\"c\\\\d\":2}"), map::put);
+
+        assertEquals(1, map.get("$['a\\'b']"));
+        assertEquals(2, map.get("$['c\\\\d']"));
+    }
+
+    @Test
+    public void shouldRejectInvalidJson() {
+        Serialize serialize = new Serialize();
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{\"a\":}"));
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{\"a\":[1,2"));
+        // Os valores seguem o JSON estrito, ao contrario do modo permissivo do json-smart
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{\"a\":'x'}"));
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{\"a\":x}"));
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{\"a\":NaN}"));
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("[1,,2]"));
+        assertThrows(InvalidJsonException.class, () -> serialize.serializeJsonToMapJPath("{a}"));
+    }
+
+    @Test
+    public void shouldRejectDocumentsWithoutPaths() {
+        Serialize serialize = new Serialize();
+        assertThrows(PathNotFoundException.class, () -> serialize.serializeJsonToMapJPath("[ ]"));
+        assertThrows(PathNotFoundException.class, () -> serialize.serializeJsonToMapJPath("\"abc\""));
+    }
+
+    private static Map<CharSequence, Object> legacyJsonStringToMap(String json) {
+        Configuration conf = Configuration.builder().options(Option.AS_PATH_LIST).build();
+        List<String> paths = JsonPath.using(conf).parse(json).read("$..*");
+        Map<CharSequence, Object> map = new HashMap<>();
+        for (String path : paths) {
+            if (!path.endsWith("[*]")) {
+                Object value = JsonPath.read(json, path);
+                if (!(value instanceof LinkedHashMap<?, ?>) && !(value instanceof JSONArray)) {
+                    map.put(path, value);
+                }
+                if ((value instanceof JSONArray) && ((JSONArray) value).isEmpty()) {
+                    map.put(path, new JSONArray());
+                }
+                if (value instanceof LinkedHashMap<?, ?> && ((LinkedHashMap<?, ?>) value).isEmpty()) {
+                    map.put(path, new LinkedHashMap<>());
+                }
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,105 @@
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPathKeyTest {
+
+    @Test
+    public void shouldInternRepeatedPaths() {
+        JsonPathKey first = JsonPathKey.root().child("carros").child(0).child(new StringBuilder("cor"));
+        JsonPathKey second = JsonPathKey.root().child("carros").child(0).child("cor");
+
+        assertSame(first, second);
+        assertEquals("$['carros'][0]['cor']", first.toString());
+        assertEquals("$['carros'][0]['cor']".hashCode(), first.hashCode());
+        assertEquals(first, "$['carros'][0]['cor']");
+    }
+
+    @Test
+    public void shouldReuseKeysAcrossDocuments() {
+        Serialize serialize = new Serialize();
+        Map<CharSequence, Object> first = serialize.serializeJsonToMapJPath("{\"a\":{\"b\":1}}");
+        Map<CharSequence, Object> second = serialize.serializeJsonToMapJPath("{\"a\":{\"b\":2}}");
+
+        assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+    }
+
+    @Test
+    public void shouldFindPathKeysByString() {
+        Map<CharSequence, Object> map = new JsonPathMap();
+        map.put(JsonPathKey.root().child("a").child(1), "x");
+        map.put("$['b']", "y");
+
+        assertEquals("x", map.get("$['a'][1]"));
+        assertEquals("y", map.get(JsonPathKey.root().child("b")));
+        assertTrue(map.containsKey("$['a'][1]"));
+        assertEquals("x", map.remove("$['a'][1]"));
+        assertEquals(1, map.size());
+
+        Map<CharSequence, Object> expected = new HashMap<>();
+        expected.put("$['b']", "y");
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+    }
+
+    @Test
+    public void shouldFindStringKeysOnlyInCopiesWithStringKeys() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath("{\"a\":1}");
+        assertEquals(1, map.get("$['a']"));
+        assertNull(new HashMap<>(map).get("$['a']"));
+
+        Map<String, Object> copy = new HashMap<>();
+        map.forEach((key, value) -> copy.put(key.toString(), value));
+        assertEquals(1, copy.get("$['a']"));
+    }
+
+    @Test
+    public void shouldKeepInsertionOrderAfterRemovals() {
+        JsonPathMap map = new JsonPathMap(2);
+        for (int i = 0; i < 100; i++) {
+            map.put(JsonPathKey.root().child(i), i);
+        }
+        Iterator<Map.Entry<CharSequence, Object>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if ((Integer) iterator.next().getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        map.put("$[1000]", 1000);
+
+        assertEquals(51, map.size());
+        int previous = -1;
+        for (Object value : map.values()) {
+            assertTrue((Integer) value > previous);
+            previous = (Integer) value;
+        }
+    }
+
+    @Test
+    public void shouldSerializeKeysAsStrings() throws Exception {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath("{\"a\":[1,2]}");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        assertEquals(map, copy);
+        assertEquals(2, ((Map<?, ?>) copy).get("$['a'][1]"));
+    }
+}
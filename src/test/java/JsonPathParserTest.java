@@ -0,0 +1,82 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPathParserTest {
+
+    @Test
+    public void shouldParseTypedSegments() {
+        JsonPathKey[] segments = JsonPathParser.parse("$['loja']['livro'][12]['autor']").segments();
+
+        assertEquals(4, segments.length);
+        assertEquals("loja", segments[0].name());
+        assertEquals(12, segments[2].index());
+        assertTrue(segments[2].isIndex());
+        assertEquals("autor", segments[3].name());
+    }
+
+    @Test
+    public void shouldParseEquivalentNotations() {
+        JsonPathKey expected = JsonPathKey.root().child("a").child(0).child("b");
+
+        assertSame(expected, JsonPathParser.parse("$['a'][0]['b']"));
+        assertSame(expected, JsonPathParser.parse("$.a[0].b"));
+        assertSame(expected, JsonPathParser.parse("$[\"a\"][0][\"b\"]"));
+    }
+
+    @Test
+    public void shouldParseQuotedNamesWithSpecialCharacters() {
+        assertEquals("c']['d", JsonPathParser.parse("$['c\\']\\['d']").name());
+        assertEquals("a'b", JsonPathParser.parse("$['a'b']").name());
+        assertEquals("x']y", JsonPathParser.parse("$['x']y']['z']").parent().name());
+        assertEquals("e\\f", JsonPathParser.parse("$['e\\\\f']").name());
+    }
+
+    @Test
+    public void shouldRejectInvalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPathParser.parse("key"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPathParser.parse("$['a'"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPathParser.parse("$[1a]"));
+        assertEquals(-1, JsonPathParser.parseIndexSegment("[a]"));
+        assertEquals(7, JsonPathParser.parseIndexSegment("[7]"));
+    }
+
+    @Test
+    public void shouldRoundTripSpecialNamesAndNestedArrays() {
+        String json = "{\"c']['d\":1,\"a'b\":{\"x\":[[1]]},\"e\\\\f\":[{\"y\":null}]}";
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(json);
+
+        String result = new Deserialize().deserializeMapToJson(map);
+
+        assertEquals(JsonParser.parseString(json), JsonParser.parseString(result));
+    }
+
+    @Test
+    public void shouldRejectConflictingPaths() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['a']", 1);
+        map.put("$['a']['b']", 2);
+
+        assertThrows(IllegalArgumentException.class, () -> new Deserialize().deserializeMapToJson(map));
+    }
+
+    @Test
+    public void shouldKeepChildrenWhenEmptyPlaceholderIsPresent() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['a']", new HashMap<>());
+        map.put("$['a']['b']", 2);
+
+        JsonElement result = JsonParser.parseString(new Deserialize().deserializeMapToJson(map));
+
+        assertEquals(JsonParser.parseString("{\"a\":{\"b\":2}}"), result);
+    }
+}
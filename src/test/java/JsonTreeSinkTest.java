@@ -0,0 +1,74 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTreeSinkTest {
+
+    private static final List<String> DOCUMENTS = Arrays.asList(
+            "{\"pedido\":{\"id\":1,\"cliente\":{\"nome\":\"Ana\",\"email\":null},\"itens\":[{\"sku\":\"A\",\"preco\":10.5},null,{\"qtd\":3000000000}],"
+                    + "\"tags\":[],\"extra\":{},\"total\":99999999999999999999,\"ativo\":true}}",
+            "[{\"id\":1},{\"id\":2,\"lista\":[[1,2],[3]]}]");
+
+    @Test
+    public void shouldBuildTheSameTreeAsParsingTheText() {
+        Serialize serialize = new Serialize();
+        for (Deserialize deserialize : Arrays.asList(new Deserialize(), Deserialize.builder().skipNulls(true).build())) {
+            for (String document : DOCUMENTS) {
+                Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(document);
+                StringBuilder text = new StringBuilder();
+                deserialize.deserializeMapToJson(map, text);
+
+                assertEquals(JsonParser.parseString(text.toString()), deserialize.deserializeMapToJsonElement(map));
+                assertEquals(JSONValue.parse(text.toString()), deserialize.deserializeMapToJsonSmart(map));
+                assertEquals(JSONValue.parse(text.toString()), deserialize.deserializeMapToTree(map));
+            }
+        }
+    }
+
+    @Test
+    public void shouldUseTheRequestedNodeTypes() {
+        Deserialize deserialize = new Deserialize();
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(DOCUMENTS.get(1));
+
+        Object smart = deserialize.deserializeMapToJsonSmart(map);
+        assertTrue(smart instanceof JSONArray);
+        assertTrue(((JSONArray) smart).get(0) instanceof JSONObject);
+
+        Object plain = deserialize.deserializeMapToTree(map);
+        assertEquals(ArrayList.class, plain.getClass());
+        assertEquals(LinkedHashMap.class, ((List<?>) plain).get(0).getClass());
+
+        JsonElement element = deserialize.deserializeMapToJsonElement(map);
+        assertEquals(3, element.getAsJsonArray().get(1).getAsJsonObject().get("lista").getAsJsonArray().get(1).getAsJsonArray().get(0).getAsInt());
+    }
+
+    @Test
+    public void shouldConvertAvroStringsAndDropNullPropertiesOnly() {
+        Map<CharSequence, Object> map = new LinkedHashMap<>();
+        map.put("$['nome']", new Utf8("Ana"));
+        map.put("$['apelido']", null);
+        map.put("$['lista'][1]", 2);
+        Deserialize deserialize = Deserialize.builder().skipNulls(true).build();
+
+        Map<?, ?> tree = (Map<?, ?>) deserialize.deserializeMapToTree(map);
+
+        assertEquals("Ana", tree.get("nome"));
+        assertFalse(tree.containsKey("apelido"));
+        assertEquals(Arrays.asList(null, 2), tree.get("lista"));
+        assertEquals("Ana", deserialize.deserializeMapToJsonElement(map).getAsJsonObject().get("nome").getAsString());
+    }
+}
@@ -0,0 +1,80 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonUnflattenerTest {
+
+    private final Serialize serialize = new Serialize();
+    private final Deserialize deserialize = new Deserialize();
+
+    @Test
+    public void shouldWriteSameDocumentAsTreeDeserialization() {
+        String[] documents = {
+                "{\"name\":\"John\", \"age\":30, \"city\":\"New York\", \"phones\":[], \"extra\":{}}",
+                "[{\"rua\":\"Rua das Flores\",\"detalhe\":{}},{\"rua\":\"Avenida do Sol\",\"detalhe\":{\"complemento\":\"Casa 1\"}}]",
+                "{\"carros\":[{\"cor\":\"vermelho\",\"potenciaMotor\":2.0,\"proprietarioAnterior\":null,\"ar\":true}]}",
+                "{\"a\":{\"b\":[[1],[{\"c\":\"<&>\"}]]}}"
+        };
+        for (String json : documents) {
+            Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(json);
+            StringWriter out = new StringWriter();
+
+            deserialize.deserializeMapToJson(map, out);
+
+            assertEquals(JsonParser.parseString(json), JsonParser.parseString(out.toString()), json);
+        }
+    }
+
+    @Test
+    public void shouldWriteSortedPrettyJson() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['b'][1]", 2);
+        map.put("$['a']", "x");
+        map.put("$['b'][0]", 1);
+        StringBuilder out = new StringBuilder();
+
+        deserialize.deserializeMapToJson(map, out);
+
+        assertEquals("{\n  \"a\": \"x\",\n  \"b\": [\n    1,\n    2\n  ]\n}", out.toString());
+    }
+
+    @Test
+    public void shouldFillMissingIndicesWithNull() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$[2]", "c");
+        map.put("$[0]", "a");
+        StringBuilder out = new StringBuilder();
+
+        deserialize.deserializeMapToJson(map, out);
+
+        assertEquals(JsonParser.parseString("[\"a\",null,\"c\"]"), JsonParser.parseString(out.toString()));
+    }
+
+    @Test
+    public void shouldWriteUtf8ToOutputStream() {
+        Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath("{\"endereco\":{\"pontoDeReferencia\":\"Próximo a padaria\"}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        deserialize.deserializeMapToJson(map, out);
+
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).contains("Próximo a padaria"));
+    }
+
+    @Test
+    public void shouldRejectMixedArrayAndObjectPaths() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['a'][0]", 1);
+        map.put("$['a']['b']", 2);
+
+        assertThrows(IllegalArgumentException.class, () -> deserialize.deserializeMapToJson(map, new StringBuilder()));
+    }
+}
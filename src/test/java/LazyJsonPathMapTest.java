@@ -0,0 +1,90 @@
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.LazyJsonPathMap;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import com.jayway.jsonpath.PathNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyJsonPathMapTest {
+
+    private static final String JSON = "{\"pedido\":{\"id\":10,\"cliente\":{\"nome\":\"Ana\",\"email\":null},"
+            + "\"itens\":[{\"sku\":\"A\",\"qtd\":2,\"preco\":10.5},null,{\"sku\":\"B\",\"qtd\":3000000000,\"tags\":[]}],"
+            + "\"extra\":{},\"it's\":\"aspas\",\"total\":99999999999999999999}}";
+
+    private static final List<Serialize> OPTIONS = Arrays.asList(
+            new Serialize(),
+            Serialize.builder().skipNulls(true).skipEmptyContainers(true).build(),
+            Serialize.builder().projection(PathProjection.of("$.pedido.itens[*].sku", "$.pedido.extra", "$..tags")).build(),
+            Serialize.builder().projection(PathProjection.builder().includes(Arrays.asList("$.pedido"))
+                    .excludes(Arrays.asList("$.pedido.itens[1]", "$..email")).build()).build());
+
+    @Test
+    public void shouldMatchTheFlattenedMap() {
+        for (Serialize eager : OPTIONS) {
+            Map<CharSequence, Object> expected = eager.serializeJsonToMapJPath(JSON);
+            Map<CharSequence, Object> lazy = eager.toBuilder().lazyMap(true).build().serializeJsonToMapJPath(JSON);
+
+            assertTrue(lazy instanceof LazyJsonPathMap);
+            assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(lazy.entrySet()));
+            assertEquals(expected, lazy);
+            assertEquals(expected.size(), lazy.size());
+            for (CharSequence key : expected.keySet()) {
+                assertTrue(lazy.containsKey(key.toString()), key.toString());
+                assertEquals(expected.get(key), lazy.get(key.toString()), key.toString());
+            }
+        }
+    }
+
+    @Test
+    public void shouldResolveOnlyLeafKeysInTheFlattenedFormat() {
+        Map<CharSequence, Object> lazy = Serialize.builder().lazyMap(true).build().serializeJsonToMapJPath(JSON);
+
+        assertEquals("aspas", lazy.get("$['pedido']['it\\'s']"));
+        assertEquals(3000000000L, lazy.get("$['pedido']['itens'][2]['qtd']"));
+        assertTrue(lazy.containsKey("$['pedido']['itens'][1]"));
+        assertNull(lazy.get("$['pedido']['itens'][1]"));
+        assertFalse(lazy.containsKey("$['pedido']['cliente']"));
+        assertFalse(lazy.containsKey("$.pedido.id"));
+        assertFalse(lazy.containsKey("$['pedido']['itens'][01]['sku']"));
+        assertFalse(lazy.containsKey("$['pedido']['itens'][3]"));
+        assertFalse(lazy.containsKey("$['pedido'][0]"));
+        assertFalse(lazy.containsKey("$"));
+        assertFalse(lazy.containsKey(10));
+    }
+
+    @Test
+    public void shouldCopyOnFirstChangeAndKeepDuplicateNameSemantics() {
+        Serialize serialize = Serialize.builder().lazyMap(true).build();
+        String json = "{\"a\":1,\"b\":2,\"a\":3}";
+        LazyJsonPathMap lazy = (LazyJsonPathMap) serialize.serializeJsonToMapJPath(json);
+
+        assertEquals(new Serialize().serializeJsonToMapJPath(json), lazy);
+        assertEquals("[$['a'], $['b']]", lazy.keySet().toString());
+        assertEquals(3, lazy.get("$['a']"));
+        assertTrue(lazy.isLazy());
+
+        lazy.put("$['c']", true);
+        lazy.remove("$['a']");
+
+        assertFalse(lazy.isLazy());
+        assertEquals("{$['b']=2, $['c']=true}", lazy.toString());
+    }
+
+    @Test
+    public void shouldKeepTheSerializeErrors() {
+        Serialize serialize = Serialize.builder().lazyMap(true).build();
+
+        assertThrows(IllegalArgumentException.class, () -> serialize.serializeJsonToMapJPath("{}"));
+        assertThrows(IllegalArgumentException.class, () -> serialize.serializeJsonToMapJPath(" "));
+        assertThrows(PathNotFoundException.class, () -> serialize.serializeJsonToMapJPath("[]"));
+        assertThrows(PathNotFoundException.class, () -> serialize.serializeJsonToMapJPath("10"));
+        assertThrows(PathNotFoundException.class, () -> serialize.toBuilder().projection(PathProjection.of("$.x")).build()
+                .serializeJsonToMapJPath("{\"a\":1}"));
+    }
+}
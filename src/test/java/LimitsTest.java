@@ -0,0 +1,119 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.limits.JsonLimitExceededException;
+import br.com.felipemira.jpmserializer.limits.JsonLimits;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitsTest {
+
+    @Test
+    public void shouldStopReadingWhenAJsonLimitIsExceeded() {
+        Serialize serialize = Serialize.builder().limits(JsonLimits.builder()
+                .maxDepth(3).maxLeaves(4).maxKeyLength(20).maxArrayLength(3).maxInputLength(100).build()).build();
+
+        assertEquals(4, serialize.serializeJsonToMapJPath("{\"a\":{\"b\":[1,2,3]},\"c\":true}").size());
+        assertLimit(JsonLimits.Limit.DEPTH, () -> serialize.serializeJsonToMapJPath("{\"a\":{\"b\":[[1]]}}"));
+        assertLimit(JsonLimits.Limit.LEAVES, () -> serialize.serializeJsonToMapJPath("{\"a\":1,\"b\":2,\"c\":{},\"d\":[],\"e\":5}"));
+        assertLimit(JsonLimits.Limit.KEY_LENGTH, () -> serialize.serializeJsonToMapJPath("{\"a\":{\"nome_comprido\":1}}"));
+        assertLimit(JsonLimits.Limit.ARRAY_LENGTH, () -> serialize.serializeJsonToMapJPath("{\"a\":[1,2,3,4]}"));
+        assertLimit(JsonLimits.Limit.INPUT_LENGTH, () -> serialize.serializeJsonToMapJPath("{\"a\":\"" + repeat('x', 100) + "\"}"));
+        assertLimit(JsonLimits.Limit.DEPTH, () -> serialize.toBuilder().lazyMap(true).build()
+                .serializeJsonToMapJPath("{\"a\":{\"b\":[[1]]}}"));
+    }
+
+    @Test
+    public void shouldCheckTheInputLengthOfEachNdjsonRecord() {
+        Serialize serialize = Serialize.builder().limits(JsonLimits.builder().maxInputLength(10_000).build()).build();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"id\":").append(i).append(",\"texto\":\"").append(repeat('x', 5_000)).append("\"}\n");
+        }
+        ndjson.append("{\"texto\":\"").append(repeat('y', 20_000)).append("\"}\n");
+
+        List<Map<CharSequence, Object>> records = new ArrayList<>();
+        assertLimit(JsonLimits.Limit.INPUT_LENGTH, () -> serialize.serializeNdjson(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), records::add));
+        assertEquals(20, records.size());
+    }
+
+    @Test
+    public void shouldCheckTheKeysBeforeBuildingTheJson() {
+        Deserialize deserialize = Deserialize.builder().compact(true)
+                .limits(JsonLimits.builder().maxDepth(3).maxArrayLength(1_000).maxLeaves(2).build()).build();
+        Map<CharSequence, Object> hugeIndex = new JsonPathMap();
+        hugeIndex.put("$['a'][2000000000]", 1);
+        Map<CharSequence, Object> deep = new JsonPathMap();
+        deep.put("$['a']['b']['c']['d']", 1);
+        Map<CharSequence, Object> wide = new JsonPathMap();
+        wide.put("$['a']", 1);
+        wide.put("$['b']", 2);
+        wide.put("$['c']", 3);
+
+        for (Map<CharSequence, Object> map : Arrays.asList(hugeIndex, deep, wide)) {
+            assertThrows(JsonLimitExceededException.class, () -> deserialize.deserializeMapToJson(map));
+            assertThrows(JsonLimitExceededException.class, () -> deserialize.deserializeMapToJson(map, new StringBuilder()));
+            assertThrows(JsonLimitExceededException.class, () -> deserialize.deserializeMapToTree(map));
+        }
+        assertLimit(JsonLimits.Limit.ARRAY_LENGTH, () -> deserialize.deserializeMapToJson(hugeIndex));
+        assertEquals("{\"a\":[1,2]}", deserialize.deserializeMapToJson(map("$['a'][0]", 1, "$['a'][1]", 2)));
+    }
+
+    @Test
+    public void shouldHandleDeepDocumentsWithoutRecursion() {
+        int depth = 20_000;
+        String json = repeat('[', depth) + "1" + repeat(']', depth);
+
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(json);
+        assertEquals(depth, map.keySet().iterator().next().toString().split("\\[0]", -1).length - 1);
+
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        StringBuilder out = new StringBuilder();
+        deserialize.deserializeMapToJson(map, out);
+        assertEquals(json, out.toString());
+        assertEquals(json, deserialize.deserializeMapToJson(map));
+
+        StringBuilder key = new StringBuilder("$");
+        StringBuilder objects = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            key.append("['a']");
+            objects.append("{\"a\":");
+        }
+        objects.append('1').append(repeat('}', depth));
+        assertEquals(objects.toString(), deserialize.deserializeMapToJson(map(key.toString(), 1)));
+
+        assertLimit(JsonLimits.Limit.DEPTH, () -> Serialize.builder().limits(JsonLimits.defaults()).build().serializeJsonToMapJPath(json));
+    }
+
+    private static void assertLimit(JsonLimits.Limit limit, Executable executable) {
+        JsonLimitExceededException e = assertThrows(JsonLimitExceededException.class, executable);
+        assertEquals(limit, e.getLimit());
+        assertTrue(e.getActual() > e.getMaximum());
+    }
+
+    private static Map<CharSequence, Object> map(Object... entries) {
+        Map<CharSequence, Object> map = new JsonPathMap();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((CharSequence) entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,55 @@
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.parser.MappedUtf8Reader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileTest {
+
+    private static final String JSON = "{\"nome\":\"João € 😀\",\"itens\":[1,2.5,{\"a\\u00e9\":true}],\"vazio\":{},\"nulo\":null}";
+
+    @Test
+    public void shouldMatchStringInput(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("doc.json");
+        Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+
+        Serialize serialize = new Serialize();
+        Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(file);
+
+        assertEquals(serialize.serializeJsonToMapJPath(JSON), map);
+        assertEquals("João € 😀", map.get("$['nome']"));
+    }
+
+    @Test
+    public void shouldDecodeAcrossWindowBoundaries(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("doc.json");
+        Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+
+        for (int window = 4; window <= 11; window++) {
+            StringBuilder text = new StringBuilder();
+            try (Reader reader = new MappedUtf8Reader(file, window)) {
+                char[] buffer = new char[window % 2 == 0 ? 1 : 7];
+                int count;
+                while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+                    text.append(buffer, 0, count);
+                }
+            }
+            assertEquals(JSON, text.toString(), "window " + window);
+        }
+    }
+
+    @Test
+    public void shouldRejectEmptyFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("empty.json");
+        Files.write(file, new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> new Serialize().serializeJsonToMapJPath(file));
+    }
+}
@@ -0,0 +1,90 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.JsonPathMap;
+import br.com.felipemira.jpmserializer.merge.MergeOptions;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MergeTest {
+
+    private final Serialize serialize = new Serialize();
+    private final Deserialize deserialize = Deserialize.builder().compact(true).build();
+
+    private final List<Map<CharSequence, Object>> updates = Arrays.asList(
+            serialize.serializeJsonToMapJPath("{\"a\":1,\"l\":[1,2,3],\"o\":{\"x\":1}}"),
+            serialize.serializeJsonToMapJPath("{\"a\":2,\"l\":[9],\"o\":{\"y\":2}}"));
+
+    @Test
+    public void shouldMergeLikeSequentialPutAllByDefault() {
+        Map<CharSequence, Object> combined = new JsonPathMap();
+        updates.forEach(combined::putAll);
+
+        String merged = deserialize.mergeMapsToJson(updates, MergeOptions.defaults());
+        assertEquals("{\"a\":2,\"l\":[9,2,3],\"o\":{\"x\":1,\"y\":2}}", merged);
+        assertEquals(JsonParser.parseString(deserialize.deserializeMapToJson(combined)), JsonParser.parseString(merged));
+
+        assertEquals("{\"a\":1,\"l\":[1,2,3],\"o\":{\"x\":1,\"y\":2}}", deserialize.mergeMapsToJson(updates,
+                MergeOptions.builder().conflict(MergeOptions.Conflict.FIRST_WINS).build()));
+    }
+
+    @Test
+    public void shouldReplaceWholeArrays() {
+        MergeOptions replace = MergeOptions.builder().arrays(MergeOptions.ArrayMerge.REPLACE).build();
+
+        assertEquals("{\"a\":2,\"l\":[9],\"o\":{\"x\":1,\"y\":2}}", deserialize.mergeMapsToJson(updates, replace));
+        assertEquals("{\"a\":1,\"l\":[1,2,3],\"o\":{\"x\":1,\"y\":2}}", deserialize.mergeMapsToJson(updates,
+                replace.toBuilder().conflict(MergeOptions.Conflict.FIRST_WINS).build()));
+
+        List<Map<CharSequence, Object>> nested = Arrays.asList(
+                map("$['l'][0]['t'][0]", "a", "$['l'][1]['t'][0]", "b"),
+                map("$['l'][0]['u']", true));
+        assertEquals("{\"l\":[{\"u\":true}]}", deserialize.mergeMapsToJson(nested, replace));
+    }
+
+    @Test
+    public void shouldApplyValuesAndChildrenInOrder() {
+        List<Map<CharSequence, Object>> maps = Arrays.asList(
+                map("$['a']['b']", 1, "$['z']", "z"),
+                map("$['a']", 5),
+                map("$['a']['c']", 2));
+
+        assertEquals("{\"a\":{\"c\":2},\"z\":\"z\"}", deserialize.mergeMapsToJson(maps, MergeOptions.defaults()));
+        assertEquals("{\"a\":{\"b\":1},\"z\":\"z\"}", deserialize.mergeMapsToJson(maps,
+                MergeOptions.builder().conflict(MergeOptions.Conflict.FIRST_WINS).build()));
+        assertEquals("{\"a\":5}", deserialize.mergeMapsToJson(Arrays.asList(map("$['a']['b']['c']", 1), map("$['a']", 5)),
+                MergeOptions.defaults()));
+        assertEquals("{}", deserialize.mergeMapsToJson(Arrays.asList(), MergeOptions.defaults()));
+    }
+
+    @Test
+    public void shouldFailOnConflictsInErrorMode() {
+        MergeOptions strict = MergeOptions.builder().conflict(MergeOptions.Conflict.ERROR).build();
+
+        assertEquals("{\"a\":1,\"b\":{\"c\":2,\"d\":3}}", deserialize.mergeMapsToJson(Arrays.asList(
+                map("$['a']", 1, "$['b']", new LinkedHashMap<>()),
+                map("$['a']", 1, "$['b']['c']", 2),
+                map("$['b']['d']", 3)), strict));
+        assertThrows(IllegalArgumentException.class, () -> deserialize.mergeMapsToJson(updates, strict));
+        assertThrows(IllegalArgumentException.class, () -> deserialize.mergeMapsToJson(Arrays.asList(
+                map("$['a']", 1), map("$['a']['b']", 2)), strict));
+        assertThrows(IllegalArgumentException.class, () -> deserialize.mergeMapsToJson(Arrays.asList(
+                map("$['l'][0]", 1), map("$['l'][1]", 2)), strict.toBuilder().arrays(MergeOptions.ArrayMerge.REPLACE).build()));
+        assertEquals("{\"l\":[1,2]}", deserialize.mergeMapsToJson(Arrays.asList(
+                map("$['l'][0]", 1), map("$['l'][1]", 2)), strict));
+    }
+
+    private static Map<CharSequence, Object> map(Object... entries) {
+        Map<CharSequence, Object> map = new JsonPathMap();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((CharSequence) entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,94 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.metrics.CallMetrics;
+import br.com.felipemira.jpmserializer.metrics.Histogram;
+import br.com.felipemira.jpmserializer.metrics.HistogramListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    private static final String JSON = "{\"pedido\":{\"itens\":[{\"sku\":\"A\",\"tags\":[\"x\",\"y\",\"z\"]},{\"sku\":\"B\"}],\"id\":7}}";
+
+    @Test
+    public void shouldReportShapeAndSizesOfEachCall() {
+        List<CallMetrics> calls = new ArrayList<>();
+        Serialize serialize = Serialize.builder().metricsListener(calls::add).build();
+        Deserialize deserialize = Deserialize.builder().compact(true).metricsListener(calls::add).build();
+
+        Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(JSON);
+        String json = deserialize.deserializeMapToJson(map);
+
+        assertEquals(2, calls.size());
+        CallMetrics read = calls.get(0);
+        assertEquals(CallMetrics.Operation.SERIALIZE, read.getOperation());
+        assertEquals(JSON.length(), read.getInputBytes());
+        assertEquals(6, read.getLeafCount());
+        assertEquals(5, read.getMaxDepth());
+        assertEquals(3, read.getMaxArrayWidth());
+        assertTrue(read.getDurationNanos() > 0);
+        assertTrue(read.isSuccess());
+
+        CallMetrics write = calls.get(1);
+        assertEquals(CallMetrics.Operation.DESERIALIZE, write.getOperation());
+        assertEquals(json.length(), write.getOutputBytes());
+        assertEquals(6, write.getLeafCount());
+        assertTrue(write.getInputBytes() > 0);
+    }
+
+    @Test
+    public void shouldReportErrorsAndIgnoreListenerFailures() {
+        HistogramListener histograms = new HistogramListener();
+        Serialize serialize = Serialize.builder().metricsListener(histograms).build();
+
+        assertThrows(IllegalArgumentException.class, () -> serialize.serializeJsonToMapJPath("{}"));
+        assertEquals(1, histograms.histograms(CallMetrics.Operation.SERIALIZE).getErrors());
+        assertFalse(histograms.histograms(CallMetrics.Operation.SERIALIZE).getSlowest().isSuccess());
+
+        Serialize failing = Serialize.builder().metricsListener(metrics -> {
+            throw new IllegalStateException("listener");
+        }).build();
+        assertEquals(6, failing.serializeJsonToMapJPath(JSON).size());
+    }
+
+    @Test
+    public void shouldAccumulateHistogramsPerOperation() {
+        HistogramListener histograms = new HistogramListener();
+        Serialize serialize = Serialize.builder().metricsListener(histograms).build();
+        for (int i = 1; i <= 50; i++) {
+            StringBuilder json = new StringBuilder("{\"lista\":[0");
+            for (int j = 1; j < i; j++) {
+                json.append(',').append(j);
+            }
+            serialize.serializeJsonToMapJPath(json.append("]}").toString());
+        }
+
+        HistogramListener.OperationHistograms serializeStats = histograms.histograms(CallMetrics.Operation.SERIALIZE);
+        assertEquals(50, serializeStats.getLeafCount().count());
+        assertEquals(50, serializeStats.getMaxArrayWidth().max());
+        assertEquals(2, serializeStats.getMaxDepth().percentile(0.5));
+        assertEquals(0, histograms.histograms(CallMetrics.Operation.DESERIALIZE).getDurationNanos().count());
+    }
+
+    @Test
+    public void shouldKeepPercentilesWithinTheBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.max());
+        assertEquals(50_000.5, histogram.mean(), 0.001);
+        assertEquals(50_000, histogram.percentile(0.5), 50_000 * 0.0625);
+        assertEquals(99_000, histogram.percentile(0.99), 99_000 * 0.0625);
+        assertEquals(100_000, histogram.percentile(1));
+        assertEquals(1, histogram.percentile(0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(2));
+    }
+}
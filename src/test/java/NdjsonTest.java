@@ -0,0 +1,98 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import com.jayway.jsonpath.InvalidJsonException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonTest {
+
+    private static final String NDJSON = "{\"id\":1,\"tags\":[\"a\",\"b\"]}\n"
+            + "\n"
+            + "{\"id\":2,\"nested\":{\"v\":null}}\r\n"
+            + "[{\"x\":\"\\u00e9\"}]\n";
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldReadOneMapPerRecord() {
+        Serialize serialize = new Serialize();
+        List<Map<CharSequence, Object>> records = new ArrayList<>();
+
+        long count = serialize.serializeNdjson(input(NDJSON), records::add);
+
+        assertEquals(3, count);
+        assertEquals(serialize.serializeJsonToMapJPath("{\"id\":1,\"tags\":[\"a\",\"b\"]}"), records.get(0));
+        assertTrue(records.get(1).containsKey("$['nested']['v']"));
+        assertEquals("\u00e9", records.get(2).get("$[0]['x']"));
+    }
+
+    @Test
+    public void shouldRoundTripThroughFiles(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("in.ndjson");
+        Path target = dir.resolve("out.ndjson");
+        List<String> lines = IntStream.range(0, 2000)
+                .mapToObj(i -> "{\"id\":" + i + ",\"items\":[{\"n\":\"item" + i + "\"}],\"ok\":true}")
+                .collect(Collectors.toList());
+        Files.write(source, lines, StandardCharsets.UTF_8);
+
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        long written;
+        try (Stream<Map<CharSequence, Object>> records = serialize.streamNdjson(source)) {
+            written = deserialize.deserializeNdjson(records.iterator(), target);
+        }
+
+        assertEquals(2000, written);
+        List<String> result = Files.readAllLines(target, StandardCharsets.UTF_8);
+        assertEquals(2000, result.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(serialize.serializeJsonToMapJPath(lines.get(i)), serialize.serializeJsonToMapJPath(result.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldWriteOneCompactLinePerRecord() {
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        Iterator<Map<CharSequence, Object>> records = serialize.streamNdjson(input(NDJSON)).iterator();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, deserialize.deserializeNdjson(records, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"tags\":[\"a\",\"b\"]}", lines[0]);
+        assertEquals("{\"id\":2,\"nested\":{\"v\":null}}", lines[1]);
+        assertEquals("[{\"x\":\"\u00e9\"}]", lines[2]);
+    }
+
+    @Test
+    public void shouldReportInvalidRecordNumber() {
+        Serialize serialize = new Serialize();
+        List<Map<CharSequence, Object>> records = new ArrayList<>();
+
+        InvalidJsonException error = assertThrows(InvalidJsonException.class,
+                () -> serialize.serializeNdjson(input("{\"a\":1}\n{\"a\":}\n{\"a\":3}\n"), records::add));
+
+        assertTrue(error.getMessage().contains("record 2"), error.getMessage());
+        assertEquals(1, records.size());
+    }
+}
@@ -0,0 +1,118 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.SortedJsonPathMap;
+import br.com.felipemira.jpmserializer.writer.CanonicalJsonSink;
+import br.com.felipemira.jpmserializer.writer.Utf8Buffer;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedOutputTest {
+
+    private static final String JSON = "{\"loja\":{\"nome\":\"Centro\",\"livro\":[{\"titulo\":\"A\",\"preco\":8.95},"
+            + "{\"titulo\":\"B\",\"autores\":[\"X\",\"Y\"],\"preco\":12.0},{\"titulo\":\"C\"},{},{},{},{},{},{},{},"
+            + "{\"titulo\":\"K\"}],\"aberta\":true}}";
+
+    @Test
+    public void shouldKeepDocumentOrderByDefault() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+
+        assertEquals("$['loja']['nome']", map.keySet().iterator().next().toString());
+        assertEquals(Arrays.asList("$['loja']['livro'][0]['titulo']", "$['loja']['livro'][0]['preco']"),
+                keys(map).subList(1, 3));
+        assertEquals("$['loja']['aberta']", keys(map).get(map.size() - 1));
+    }
+
+    @Test
+    public void shouldSortPathsAndScanSubtrees() {
+        Map<CharSequence, Object> map = Serialize.builder().sortedMap(true).build().serializeJsonToMapJPath(JSON);
+
+        assertTrue(map instanceof SortedJsonPathMap);
+        SortedJsonPathMap sorted = (SortedJsonPathMap) map;
+        assertEquals("$['loja']['aberta']", sorted.firstKey().toString());
+        assertEquals("$['loja']['nome']", sorted.lastKey().toString());
+        // Indices pela ordem numerica: [10] depois de [2]
+        assertTrue(keys(sorted).indexOf("$['loja']['livro'][10]['titulo']") > keys(sorted).indexOf("$['loja']['livro'][2]['titulo']"));
+
+        assertEquals(Arrays.asList("$['loja']['livro'][1]['autores'][0]", "$['loja']['livro'][1]['autores'][1]",
+                "$['loja']['livro'][1]['preco']", "$['loja']['livro'][1]['titulo']"),
+                keys(sorted.subtree("$['loja']['livro'][1]")));
+        assertEquals(Arrays.asList("$['loja']['livro'][1]['autores'][0]", "$['loja']['livro'][1]['autores'][1]"),
+                keys(sorted.subtree("$.loja.livro[1].autores")));
+        assertEquals(Arrays.asList("$['loja']['livro'][3]"), keys(sorted.subtree("$['loja']['livro'][3]")));
+        assertTrue(sorted.subtree("$['loja']['livro'][11]").isEmpty());
+        assertEquals(sorted.size(), sorted.subtree("$").size());
+
+        assertEquals(12.0, sorted.get("$['loja']['livro'][1]['preco']"));
+        assertEquals(12.0, sorted.get("$.loja.livro[1].preco"));
+        assertNull(sorted.get("nao e um caminho"));
+        assertEquals(new Serialize().serializeJsonToMapJPath(JSON), sorted);
+        assertEquals(sorted.size(), new SortedJsonPathMap(new HashMap<>(sorted)).size());
+    }
+
+    @Test
+    public void shouldWriteTheSameCanonicalBytesForTheSameContent() {
+        Map<CharSequence, Object> first = new LinkedHashMap<>();
+        first.put("$['b'][1]", 2.50);
+        first.put("$['b'][0]", new Utf8("x\u00e7"));
+        first.put("$['a']", 1.0);
+        first.put("$['c']['z']", 1e21);
+        first.put("$['c']['y']", null);
+        Map<CharSequence, Object> second = new HashMap<>();
+        second.put("$.c.y", null);
+        second.put("$.a", 1L);
+        second.put("$.c.z", new BigDecimal("1000000000000000000000.00"));
+        second.put("$.b[0]", "x\u00e7");
+        second.put("$.b[1]", 2.5f);
+
+        Deserialize deserialize = Deserialize.builder().canonical(true).build();
+        String expected = "{\"a\":1,\"b\":[\"x\u00e7\",2.5],\"c\":{\"y\":null,\"z\":1e+21}}";
+        assertEquals(expected, deserialize.deserializeMapToJson(first));
+        assertEquals(expected, deserialize.deserializeMapToJson(second));
+        assertEquals(expected, deserialize.toBuilder().compact(false).build().deserializeMapToJson(second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        deserialize.deserializeMapToJson(second, out);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8),
+                deserialize.deserializeMapToJson(first, new Utf8Buffer()).toByteArray());
+    }
+
+    @Test
+    public void shouldFormatNumbersLikeEcmaScript() {
+        assertEquals("0", CanonicalJsonSink.format(-0.0));
+        assertEquals("100000000000000000000", CanonicalJsonSink.format(1e20));
+        assertEquals("1e+21", CanonicalJsonSink.format(1e21));
+        assertEquals("0.000001", CanonicalJsonSink.format(1e-6));
+        assertEquals("1e-7", CanonicalJsonSink.format(1e-7));
+        assertEquals("-1.5e-9", CanonicalJsonSink.format(-1.5e-9));
+        assertEquals("123.45", CanonicalJsonSink.format(new BigDecimal("123.450")));
+        assertEquals("0.1", CanonicalJsonSink.format(0.1f));
+        assertEquals("9007199254740993", CanonicalJsonSink.format(9007199254740993L));
+        assertThrows(IllegalArgumentException.class, () -> CanonicalJsonSink.format(Double.NaN));
+
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['x']", Double.POSITIVE_INFINITY);
+        assertThrows(IllegalArgumentException.class,
+                () -> Deserialize.builder().canonical(true).build().deserializeMapToJson(map));
+    }
+
+    private static List<String> keys(Map<CharSequence, Object> map) {
+        List<String> keys = new ArrayList<>();
+        for (CharSequence key : map.keySet()) {
+            keys.add(key.toString());
+        }
+        return keys;
+    }
+}
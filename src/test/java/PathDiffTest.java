@@ -0,0 +1,87 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.diff.PathChange;
+import br.com.felipemira.jpmserializer.diff.PathDiff;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathDiffTest {
+
+    private static final String[][] CASES = {
+            {"{\"a\":1,\"b\":\"x\"}", "{\"a\":2,\"b\":\"x\",\"c\":true}"},
+            {"{\"lista\":[1,2,3,4]}", "{\"lista\":[1,9]}"},
+            {"{\"lista\":[1,2]}", "{\"lista\":[]}"},
+            {"{\"a\":{\"b\":1,\"c\":2}}", "{\"a\":5}"},
+            {"{\"a\":5,\"z\":null}", "{\"a\":{\"b\":[{\"c\":1}]},\"z\":null}"},
+            {"[{\"id\":1},{\"id\":2}]", "[{\"id\":1,\"novo\":{}},{\"id\":3}]"},
+            {"{\"a\":{\"b\":1}}", "{\"a\":{}}"},
+            {"{\"a\":{\"b\":1},\"c\":2,\"l\":[{\"id\":1},{\"id\":2}]}", "{\"c\":2,\"l\":[{\"id\":1}]}"},
+            {"{\"a\":[{\"x\":1},{\"y\":2}],\"b\":1}", "{\"b\":1}"},
+            {"{\"l\":[{\"x\":1},{\"y\":2},3]}", "{\"l\":[null,null,3]}"}
+    };
+
+    @Test
+    public void shouldListAddedRemovedAndChangedPaths() {
+        Serialize serialize = new Serialize();
+        PathDiff diff = PathDiff.between(serialize.serializeJsonToMapJPath(CASES[0][0]), serialize.serializeJsonToMapJPath(CASES[0][1]));
+
+        assertEquals(2, diff.size());
+        PathChange changed = diff.getChanges().get(0);
+        assertEquals(PathChange.Type.CHANGED, changed.getType());
+        assertEquals("$['a']", changed.getPath().toString());
+        assertEquals(1, changed.getOldValue());
+        assertEquals(2, changed.getNewValue());
+        assertEquals(PathChange.Type.ADDED, diff.getChanges().get(1).getType());
+        assertTrue(PathDiff.between(serialize.serializeJsonToMapJPath(CASES[0][0]), serialize.serializeJsonToMapJPath(CASES[0][0])).isEmpty());
+    }
+
+    @Test
+    public void shouldPatchMapsAndJson() {
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        for (String[] pair : CASES) {
+            Map<CharSequence, Object> before = serialize.serializeJsonToMapJPath(pair[0]);
+            Map<CharSequence, Object> after = serialize.serializeJsonToMapJPath(pair[1]);
+            PathDiff diff = PathDiff.between(before, after);
+
+            assertEquals(after, diff.applyTo(new LinkedHashMap<>(before)), pair[1]);
+
+            String patched = deserialize.patchJson(deserialize.deserializeMapToJson(before), diff);
+            assertEquals(JsonParser.parseString(pair[1]), JsonParser.parseString(patched), pair[1]);
+        }
+    }
+
+    @Test
+    public void shouldPatchOnlyTheChangedPathOfALargeTree() {
+        StringBuilder json = new StringBuilder("{\"itens\":[");
+        for (int i = 0; i < 50000; i++) {
+            json.append(i > 0 ? "," : "").append(i);
+        }
+        json.append("],\"status\":\"novo\"}");
+        JsonElement tree = JsonParser.parseString(json.toString());
+        JsonElement itens = tree.getAsJsonObject().get("itens");
+
+        PathDiff diff = PathDiff.of(Collections.singletonList(PathChange.changed("$['status']", "novo", "pago")));
+        diff.applyTo(tree);
+
+        assertEquals("pago", tree.getAsJsonObject().get("status").getAsString());
+        assertSame(itens, tree.getAsJsonObject().get("itens"));
+        assertEquals(50000, itens.getAsJsonArray().size());
+    }
+
+    @Test
+    public void shouldRejectConflictingPaths() {
+        PathDiff diff = PathDiff.of(Collections.singletonList(PathChange.added("$['a'][0]", 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> diff.applyTo(JsonParser.parseString("{\"a\":{\"b\":1}}")));
+        assertThrows(IllegalArgumentException.class, () -> diff.applyTo(JsonParser.parseString("[1]")));
+        assertThrows(IllegalArgumentException.class, () -> new Deserialize().patchJson(" ", diff));
+    }
+}
@@ -0,0 +1,85 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.codec.PathMapCodec;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathMapCodecTest {
+
+    private static final String JSON = "{\"pedido\":{\"cliente\":{\"nome\":\"Jo\\u00e3o\",\"email\":null,\"vip\":true},"
+            + "\"itens\":[{\"sku\":\"A-1\",\"qtd\":2,\"preco\":10.5},{\"sku\":\"B-2\",\"qtd\":-3000000000,\"preco\":1e5}],"
+            + "\"total\":99999999999999999999,\"taxa\":1.23456789012345678901,\"tags\":[],\"extra\":{}}}";
+
+    @Test
+    public void shouldRoundTripAllLeafTypes() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+
+        Map<CharSequence, Object> decoded = PathMapCodec.decode(PathMapCodec.encode(map));
+
+        assertEquals(map, decoded);
+        assertEquals(map.keySet().toString(), decoded.keySet().toString());
+        assertEquals(-3000000000L, decoded.get("$['pedido']['itens'][1]['qtd']"));
+        assertEquals(new BigDecimal("1.23456789012345678901"), decoded.get("$['pedido']['taxa']"));
+    }
+
+    @Test
+    public void shouldBeSmallerThanJavaSerialization() throws IOException {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(java)) {
+            out.writeObject(new HashMap<>(map));
+        }
+
+        byte[] binary = PathMapCodec.encode(map);
+
+        assertTrue(binary.length * 3 < java.size(), binary.length + " vs " + java.size());
+        assertTrue(binary.length < JSON.length(), binary.length + " vs " + JSON.length());
+    }
+
+    @Test
+    public void shouldDeserializeBinaryToJsonFromDirectBuffer() {
+        Serialize serialize = new Serialize();
+        Deserialize deserialize = new Deserialize();
+        byte[] binary = serialize.serializeJsonToBinary(JSON);
+        ByteBuffer direct = ByteBuffer.allocateDirect(binary.length + 3);
+        direct.put(new byte[]{7, 7, 7}).put(binary).flip().position(3);
+
+        assertEquals(deserialize.deserializeMapToJson(serialize.serializeJsonToMapJPath(JSON)), deserialize.deserializeBinaryToJson(direct));
+        assertEquals(3, direct.position());
+    }
+
+    @Test
+    public void shouldEncodeUtf8AndRejectInvalidInput() {
+        Map<CharSequence, Object> map = new LinkedHashMap<>();
+        map.put("$['nome']", new Utf8("Ana"));
+
+        assertEquals("Ana", PathMapCodec.decode(PathMapCodec.encode(map)).get("$['nome']"));
+
+        map.put("$['obj']", new Object());
+        assertThrows(IllegalArgumentException.class, () -> PathMapCodec.encode(map));
+        assertThrows(IllegalArgumentException.class, () -> PathMapCodec.decode(new byte[]{'J', 'S', 'O', 'N'}));
+        byte[] truncated = PathMapCodec.encode(new Serialize().serializeJsonToMapJPath(JSON));
+        Map<CharSequence, Object> broken = PathMapCodec.decode(ByteBuffer.wrap(truncated, 0, truncated.length - 4));
+        assertThrows(IllegalArgumentException.class, () -> broken.entrySet().forEach(entry -> { }));
+
+        // O prefixo compartilhado da segunda chave passa do tamanho da primeira
+        Map<CharSequence, Object> keys = new LinkedHashMap<>();
+        keys.put("$['a']", true);
+        keys.put("$['b']", true);
+        byte[] invalidPrefix = PathMapCodec.encode(keys);
+        assertEquals(3, invalidPrefix[14]);
+        invalidPrefix[14] = 10;
+        assertThrows(IllegalArgumentException.class, () -> PathMapCodec.decode(invalidPrefix).entrySet().forEach(entry -> { }));
+    }
+}
@@ -0,0 +1,86 @@
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.path.PathProjection;
+import com.jayway.jsonpath.PathNotFoundException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathProjectionTest {
+
+    private static final String JSON = "{\"header\":{\"id\":\"m-1\",\"route\":\"sul\",\"tags\":[\"a\",\"b\"]},"
+            + "\"body\":{\"itens\":[{\"sku\":\"X\",\"qtd\":2,\"extra\":{\"x\":[1,2,3]}},{\"sku\":\"Y\",\"qtd\":1,\"extra\":{}}],"
+            + "\"texto\":\"com \\\"aspas\\\" e ] } [ {\",\"vazio\":[],\"nulo\":null},"
+            + "\"meta\":{\"sku\":\"Z\",\"numeros\":[1e5,-2.5,true,false,null]}}";
+
+    private static final List<PathProjection> PROJECTIONS = Arrays.asList(
+            PathProjection.of("$.header.id", "$['header']['route']"),
+            PathProjection.of("$.body.itens[*].sku"),
+            PathProjection.of("$.body.itens[1]"),
+            PathProjection.of("$..sku"),
+            PathProjection.of("$.meta.*", "$.body.vazio"),
+            PathProjection.builder().excludes(Arrays.asList("$.body.itens[*].extra", "$..tags")).build(),
+            PathProjection.builder().includes(Arrays.asList("$.body")).excludes(Arrays.asList("$.body.texto")).build(),
+            PathProjection.of("$"));
+
+    @Test
+    public void shouldMatchFilteredFullMap() {
+        Map<CharSequence, Object> full = new Serialize().serializeJsonToMapJPath(JSON);
+        for (PathProjection projection : PROJECTIONS) {
+            Map<CharSequence, Object> expected = new LinkedHashMap<>();
+            for (Map.Entry<CharSequence, Object> entry : full.entrySet()) {
+                if (projection.selects(entry.getKey())) {
+                    expected.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Map<CharSequence, Object> projected = Serialize.builder().projection(projection).build().serializeJsonToMapJPath(JSON);
+
+            assertEquals(expected, projected, projection.getIncludes() + " " + projection.getExcludes());
+            assertEquals(expected.keySet().toString(), projected.keySet().toString());
+        }
+    }
+
+    @Test
+    public void shouldSelectOnlyRequestedPaths() {
+        Serialize serialize = Serialize.builder().projection(PathProjection.of("$..sku", "$.header.route")).build();
+
+        Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(JSON);
+
+        assertEquals(4, map.size());
+        assertEquals("sul", map.get("$['header']['route']"));
+        assertEquals("X", map.get("$['body']['itens'][0]['sku']"));
+        assertEquals("Z", map.get("$['meta']['sku']"));
+        assertThrows(PathNotFoundException.class, () -> Serialize.builder().projection(PathProjection.of("$.nada")).build()
+                .serializeJsonToMapJPath(JSON));
+    }
+
+    @Test
+    public void shouldProjectAvroRecords() {
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+                + "{\"name\":\"a\",\"type\":\"int\"},{\"name\":\"b\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}]}");
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("a", 1);
+        record.put("b", Arrays.asList("x", "y"));
+
+        Map<CharSequence, Object> map = Serialize.builder().projection(PathProjection.of("$.b[1]")).build()
+                .serializeRecordToMapJPath(record);
+
+        assertEquals(1, map.size());
+        assertEquals("y", map.get("$['b'][1]"));
+    }
+
+    @Test
+    public void shouldRejectInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> PathProjection.of("a.b"));
+        assertThrows(IllegalArgumentException.class, () -> PathProjection.of("$.a["));
+        assertThrows(IllegalArgumentException.class, () -> PathProjection.of("$['a"));
+        assertThrows(IllegalArgumentException.class, () -> PathProjection.of("$.a..").root());
+    }
+}
@@ -0,0 +1,114 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.cache.CacheStats;
+import br.com.felipemira.jpmserializer.cache.ResultCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static final String JSON = "{\"pedido\":{\"id\":1,\"itens\":[{\"sku\":\"A\"},{\"sku\":\"B\"}]}}";
+
+    @Test
+    public void shouldShareImmutableResultsForIdenticalDocuments() {
+        ResultCache cache = ResultCache.of(100, 0);
+        Serialize serialize = Serialize.builder().cache(cache).build();
+
+        Map<CharSequence, Object> first = serialize.serializeJsonToMapJPath(JSON);
+        Map<CharSequence, Object> second = serialize.serializeJsonToMapJPath(new String(JSON.toCharArray()));
+
+        assertSame(first, second);
+        assertEquals(new Serialize().serializeJsonToMapJPath(JSON), first);
+        assertThrows(UnsupportedOperationException.class, () -> first.put("$['x']", 1));
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+        assertEquals(0.5, stats.hitRate());
+
+        // Outra configuracao usando o mesmo cache nao reaproveita o resultado
+        Map<CharSequence, Object> skipped = serialize.toBuilder().skipNulls(true).build().serializeJsonToMapJPath(JSON);
+        assertNotSame(first, skipped);
+    }
+
+    @Test
+    public void shouldCacheJsonByMapContentAndCopyTheKey() {
+        ResultCache cache = ResultCache.of(100, 0);
+        Deserialize deserialize = Deserialize.builder().compact(true).cache(cache).build();
+        Map<CharSequence, Object> map = new LinkedHashMap<>(new Serialize().serializeJsonToMapJPath(JSON));
+
+        String json = deserialize.deserializeMapToJson(map);
+        assertSame(json, deserialize.deserializeMapToJson(new LinkedHashMap<>(map)));
+
+        map.put("$['pedido']['id']", 2);
+        String changed = deserialize.deserializeMapToJson(map);
+
+        assertNotEquals(json, changed);
+        assertEquals(Deserialize.builder().compact(true).build().deserializeMapToJson(map), changed);
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedByCountAndWeight() {
+        ResultCache cache = ResultCache.builder().maxEntries(2).segments(1).build();
+        Serialize serialize = Serialize.builder().cache(cache).build();
+
+        Map<CharSequence, Object> a = serialize.serializeJsonToMapJPath("{\"a\":1}");
+        serialize.serializeJsonToMapJPath("{\"b\":1}");
+        serialize.serializeJsonToMapJPath("{\"a\":1}");
+        serialize.serializeJsonToMapJPath("{\"c\":1}");
+
+        assertEquals(1, cache.stats().getEvictions());
+        assertSame(a, serialize.serializeJsonToMapJPath("{\"a\":1}"));
+        assertEquals(2, cache.stats().getSize());
+
+        ResultCache light = ResultCache.builder().maxEntries(100).maxWeight(1000).segments(1).build();
+        Serialize weighted = Serialize.builder().cache(light).build();
+        for (int i = 0; i < 20; i++) {
+            weighted.serializeJsonToMapJPath("{\"campo\":" + i + "}");
+        }
+        assertTrue(light.stats().getWeight() <= 1000);
+        assertTrue(light.stats().getEvictions() > 0);
+        assertTrue(light.stats().getSize() < 20);
+    }
+
+    @Test
+    public void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+        ResultCache cache = ResultCache.of(64, 0);
+        Serialize serialize = Serialize.builder().cache(cache).build();
+        Serialize plain = new Serialize();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String json = "{\"id\":" + ((i * 31 + seed) % 100) + "}";
+                        assertEquals(plain.serializeJsonToMapJPath(json), serialize.serializeJsonToMapJPath(json));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        CacheStats stats = cache.stats();
+        assertEquals(16000, stats.getHits() + stats.getMisses());
+        assertTrue(stats.getSize() <= 64);
+        assertTrue(stats.getHits() > 0);
+    }
+}
@@ -3,6 +3,7 @@ import br.com.felipemira.jpmserializer.Serialize;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -416,4 +417,56 @@ public class SerializeAndDeserializeTest {
         var object = deserialize.deserializeMapToJson(listOfMaps);
         System.out.println(object);
     }
+
+    @Test
+    public void shouldKeepArrayOrderOnWideArrays() {
+        StringBuilder json = new StringBuilder("{\"itens\":[");
+        for (int i = 0; i < 20000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append("}");
+        }
+        json.append("]}");
+
+        var listOfMaps = serialize.serializeJsonToMapJPath(json.toString());
+        String result = deserialize.deserializeMapToJson(listOfMaps);
+
+        assertEquals(JsonParser.parseString(json.toString()), JsonParser.parseString(result));
+    }
+
+    @Test
+    public void shouldKeepSparseArrayIndices() {
+        Map<CharSequence, Object> map = new HashMap<>();
+        map.put("$['a'][3]", "d");
+        map.put("$['a'][0]", "a");
+        map.put("$['a'][1]", null);
+
+        String result = deserialize.deserializeMapToJson(map);
+
+        assertEquals(JsonParser.parseString("{\"a\":[\"a\",null,null,\"d\"]}"), JsonParser.parseString(result));
+    }
+
+    @Test
+    public void shouldKeepNamesThatLookLikeIndices() {
+        for (String json : Arrays.asList("{\"[0]\":1}", "{\"a\":{\"[0]\":1,\"[1]\":[2,{\"[2]\":3}]}}", "[{\"[0]\":\"x\"}]")) {
+            Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath(json);
+            JsonElement expected = JsonParser.parseString(json);
+
+            assertEquals(expected, JsonParser.parseString(deserialize.deserializeMapToJson(map)), json);
+            StringBuilder out = new StringBuilder();
+            deserialize.deserializeMapToJson(map, out);
+            assertEquals(expected, JsonParser.parseString(out.toString()), json);
+            assertEquals(expected, deserialize.deserializeMapToJsonElement(map), json);
+        }
+    }
+
+    @Test
+    public void shouldRejectHugeArrayIndices() {
+        for (String key : Arrays.asList("$['a'][200000000]", "$['a'][2147483647]")) {
+            Map<CharSequence, Object> map = new HashMap<>();
+            map.put(key, 1);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> deserialize.deserializeMapToJson(map));
+            assertTrue(exception.getMessage().contains("ARRAY_LENGTH"));
+            assertThrows(IllegalArgumentException.class, () -> deserialize.deserializeMapToJson(map, new StringBuilder()));
+        }
+    }
 }
@@ -0,0 +1,70 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.map.SortedJsonPathMap;
+import br.com.felipemira.jpmserializer.path.JsonPathKey;
+import br.com.felipemira.jpmserializer.path.JsonPathParser;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.jayway.jsonpath.PathNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubtreeTest {
+
+    private static final String JSON = "{\"loja\":{\"nome\":\"Centro\",\"disco\":[{\"titulo\":\"A\",\"detalhes\":{\"ano\":1999,"
+            + "\"faixas\":[\"x\",\"y\"],\"selo\":null,\"extras\":{}}},{\"titulo\":\"B\",\"detalhes\":{\"ano\":2001}}]}}";
+
+    private final Deserialize deserialize = Deserialize.builder().compact(true).build();
+
+    @Test
+    public void shouldRebuildOnlyTheSubtree() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+        Map<CharSequence, Object> sorted = Serialize.builder().sortedMap(true).build().serializeJsonToMapJPath(JSON);
+        assertTrue(sorted instanceof SortedJsonPathMap);
+        JsonElement document = JsonParser.parseString(JSON);
+
+        for (Map<CharSequence, Object> source : Arrays.asList(map, sorted)) {
+            assertEquals(document.getAsJsonObject().getAsJsonObject("loja").getAsJsonArray("disco").get(0)
+                            .getAsJsonObject().get("detalhes"),
+                    JsonParser.parseString(deserialize.deserializeSubtreeToJson(source, "$['loja']['disco'][0]['detalhes']")));
+            assertEquals("[\"x\",\"y\"]", deserialize.deserializeSubtreeToJson(source, "$.loja.disco[0].detalhes.faixas"));
+            assertEquals("2001", deserialize.deserializeSubtreeToJson(source, "$['loja']['disco'][1]['detalhes']['ano']"));
+            assertEquals(JsonParser.parseString(JSON), JsonParser.parseString(deserialize.deserializeSubtreeToJson(source, "$")));
+        }
+    }
+
+    @Test
+    public void shouldKeepThePrefixWhenAsked() {
+        Map<CharSequence, Object> sorted = Serialize.builder().sortedMap(true).build().serializeJsonToMapJPath(JSON);
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+
+        String expected = "{\"loja\":{\"disco\":[null,{\"detalhes\":{\"ano\":2001}}]}}";
+        assertEquals(expected, deserialize.deserializeSubtreeToJson(sorted, "$['loja']['disco'][1]['detalhes']", true));
+        assertEquals(expected, deserialize.deserializeSubtreeToJson(map, "$['loja']['disco'][1]['detalhes']", true));
+    }
+
+    @Test
+    public void shouldFailWhenThePathHasNoEntries() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(JSON);
+
+        assertThrows(PathNotFoundException.class, () -> deserialize.deserializeSubtreeToJson(map, "$['loja']['disco'][2]"));
+        assertThrows(PathNotFoundException.class, () -> deserialize.deserializeSubtreeToJson(map, "$['loja']['nom']"));
+        assertThrows(IllegalArgumentException.class, () -> deserialize.deserializeSubtreeToJson(map, "loja"));
+    }
+
+    @Test
+    public void shouldResolveRelativePaths() {
+        JsonPathKey path = JsonPathParser.parse("$['a']['b'][0]['c']");
+
+        assertTrue(path.isWithin(JsonPathParser.parse("$['a']")));
+        assertTrue(path.isWithin(path));
+        assertFalse(path.isWithin(JsonPathParser.parse("$['a']['c']")));
+        assertEquals("$[0]['c']", path.relativeTo(JsonPathParser.parse("$['a']['b']")).toString());
+        assertEquals("$", path.relativeTo(path).toString());
+        assertThrows(IllegalArgumentException.class, () -> path.relativeTo(JsonPathParser.parse("$['b']")));
+    }
+}
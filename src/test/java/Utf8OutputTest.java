@@ -0,0 +1,141 @@
+import br.com.felipemira.jpmserializer.Deserialize;
+import br.com.felipemira.jpmserializer.Serialize;
+import br.com.felipemira.jpmserializer.writer.Utf8Buffer;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8OutputTest {
+
+    private static final List<Deserialize> OPTIONS = Arrays.asList(
+            new Deserialize(),
+            Deserialize.builder().compact(true).build(),
+            Deserialize.builder().compact(true).skipNulls(true).build(),
+            Deserialize.builder().skipNulls(true).build());
+
+    private static Map<CharSequence, Object> sample() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longText.append("\u00e7\u00e3o<&>=' \u2028\u2029 \uD83D\uDE00 ");
+        }
+        Map<CharSequence, Object> map = new LinkedHashMap<>(new Serialize().serializeJsonToMapJPath(
+                "{\"pedido\":{\"id\":1,\"itens\":[{\"sku\":\"A\",\"preco\":10.5},{\"sku\":null,\"qtd\":3000000000}],"
+                        + "\"tags\":[],\"extra\":{},\"total\":99999999999999999999,\"taxa\":1e-7}}"));
+        map.put("$['pedido']['nome']", "Jo\u00e3o \"aspas\" \\ barra\t\n\r\b\f \u0001\u001f \uD800 sozinho");
+        map.put("$['pedido']['longo']", longText.toString());
+        map.put("$['pedido']['valor']", new BigDecimal("1.2300"));
+        map.put("$['pedido']['<html>']", true);
+        map.put("$['pedido']['lista']", Arrays.asList(1, "<dois>", null));
+        return map;
+    }
+
+    @Test
+    public void shouldWriteTheSameBytesAsTheTextOutput() {
+        Map<CharSequence, Object> map = sample();
+        for (Deserialize deserialize : OPTIONS) {
+            StringBuilder text = new StringBuilder();
+            deserialize.deserializeMapToJson(map, text);
+            byte[] expected = text.toString().getBytes(StandardCharsets.UTF_8);
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            deserialize.deserializeMapToJson(map, stream);
+            assertArrayEquals(expected, stream.toByteArray());
+
+            Utf8Buffer buffer = deserialize.deserializeMapToJson(map, new Utf8Buffer(16));
+            assertArrayEquals(expected, buffer.toByteArray());
+        }
+    }
+
+    @Test
+    public void shouldSortTheKeysByPathUnlikeTheStringOutput() {
+        Map<CharSequence, Object> map = new Serialize().serializeJsonToMapJPath(
+                "{\"zeta\":1,\"alfa\":{\"y\":true,\"b\":[2,\"x\"]},\"meio\":null,\"a\":\"s\"}");
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        String sorted = "{\"a\":\"s\",\"alfa\":{\"b\":[2,\"x\"],\"y\":true},\"meio\":null,\"zeta\":1}";
+
+        String json = deserialize.deserializeMapToJson(map);
+        assertEquals(JsonParser.parseString(sorted), JsonParser.parseString(json));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        deserialize.deserializeMapToJson(map, stream);
+        assertEquals(sorted, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        ByteBuffer bytes = ByteBuffer.allocate(256);
+        deserialize.deserializeMapToJson(map, bytes);
+        assertEquals(sorted, new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8));
+        assertEquals(sorted, new String(deserialize.deserializeMapToJson(map, new Utf8Buffer(16)).toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldEscapeHtmlLikeTheStringOutput() {
+        Map<CharSequence, Object> map = new LinkedHashMap<>();
+        map.put("$['<a&b>']['x=\'y\'']", "x<y & 'z'");
+        for (Deserialize deserialize : OPTIONS) {
+            String json = deserialize.deserializeMapToJson(map);
+            assertTrue(json.contains("\"x\\u003cy \\u0026 \\u0027z\\u0027\""), json);
+
+            StringBuilder text = new StringBuilder();
+            deserialize.deserializeMapToJson(map, text);
+            assertEquals(json, text.toString());
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            deserialize.deserializeMapToJson(map, stream);
+            assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), stream.toByteArray());
+
+            ByteBuffer bytes = ByteBuffer.allocate(256);
+            deserialize.deserializeMapToJson(map, bytes);
+            assertEquals(json, new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8));
+            assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), deserialize.deserializeMapToJson(map, new Utf8Buffer(16)).toByteArray());
+        }
+    }
+
+    @Test
+    public void shouldWriteIntoHeapAndDirectByteBuffers() {
+        Map<CharSequence, Object> map = sample();
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        byte[] expected = deserialize.deserializeMapToJson(map, new Utf8Buffer()).toByteArray();
+
+        for (ByteBuffer out : Arrays.asList(ByteBuffer.allocate(expected.length + 10), ByteBuffer.allocateDirect(expected.length + 10))) {
+            out.position(3);
+            assertEquals(expected.length, deserialize.deserializeMapToJson(map, out));
+            assertEquals(expected.length + 3, out.position());
+            byte[] written = new byte[expected.length];
+            out.position(3);
+            out.get(written);
+            assertArrayEquals(expected, written);
+        }
+
+        ByteBuffer small = ByteBuffer.allocate(expected.length - 1);
+        small.position(2);
+        assertThrows(BufferOverflowException.class, () -> deserialize.deserializeMapToJson(map, small));
+        assertEquals(2, small.position());
+    }
+
+    @Test
+    public void shouldReuseTheBufferAcrossDocuments() {
+        Deserialize deserialize = Deserialize.builder().compact(true).build();
+        Serialize serialize = new Serialize();
+        Utf8Buffer buffer = new Utf8Buffer();
+        byte[] array = buffer.array();
+
+        for (int i = 0; i < 100; i++) {
+            buffer.reset();
+            Map<CharSequence, Object> map = serialize.serializeJsonToMapJPath("{\"id\":" + i + ",\"nome\":\"n" + i + "\"}");
+            deserialize.deserializeMapToJson(map, buffer);
+            assertEquals("{\"id\":" + i + ",\"nome\":\"n" + i + "\"}", buffer.toString());
+        }
+        assertSame(array, buffer.array());
+        assertEquals(buffer.size(), buffer.asByteBuffer().remaining());
+    }
+}